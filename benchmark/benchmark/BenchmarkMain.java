@@ -0,0 +1,34 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH benchmarks of this directory, writing results as JSON with allocation rates of GC profiler.
+ * Benchmarks are compiled against src and JMH (jmh-core and jmh-generator-annprocess on the classpath), e.g.
+ *   javac -cp jmh-core.jar:jmh-generator-annprocess.jar:classes -d benchmark-classes benchmark/benchmark/*.java
+ *   java -cp jmh-core.jar:jopt-simple.jar:commons-math3.jar:classes:benchmark-classes benchmark.BenchmarkMain
+ * Usage: BenchmarkMain [RESULT_FILE] [BENCHMARK_REGEX]
+ * Allocation rates are reported as "gc.alloc.rate.norm" (bytes per operation) next to each score.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class BenchmarkMain {
+    /**
+     * Starting point of benchmarks.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = (args.length > 0) ? args[0] : "benchmark-results.json";
+        String include = (args.length > 1) ? args[1] : "benchmark\\..*Benchmark";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,34 @@
+package benchmark;
+
+import ChessLibrary.Game;
+import ChessLibrary.Perft.Position;
+
+/**
+ * Positions benchmarks run on, selected by name through JMH parameter "position".
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class BenchmarkPositions {
+    public static final String OPENING = "opening";
+    public static final String MIDDLEGAME = "middlegame";
+    public static final String ENDGAME = "endgame";
+    public static final String CUSTOM = "custom";
+
+    /**
+     * Creates game on position of given name.
+     * @param name One of OPENING, MIDDLEGAME, ENDGAME, CUSTOM.
+     * @return New game on the position.
+     */
+    public static Game create(String name) {
+        switch(name) {
+            case OPENING:
+                return Position.parse(Position.STANDARD);
+            case MIDDLEGAME: // crowded, all piece types of standard chess
+                return Position.parse("r2q1rk1/pp2bppp/2n1pn2/2pp4/3P1B2/2PBPN2/PP1N1PPP/R2QK2R w");
+            case ENDGAME: // sparse, few pieces with long paths
+                return Position.parse("8/5k2/2r3p1/3p4/1R1P4/6P1/5K2/8 w");
+            case CUSTOM: // Leapers and Chargers in play
+                return Position.parse("rl2kb1r/pp1c1ppp/2p1p3/3pL3/3P4/2P1PC2/PP3PPP/RLB1KB1R w");
+        }
+        throw new IllegalArgumentException("Unknown position: " + name);
+    }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Game;
+import ChessLibrary.Pieces.ChessPiece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of check / game status related methods of ChessLibrary.ChessBoard and ChessLibrary.Game.
+ * Status is examined for side to move of the position.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStatusBenchmark {
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME, BenchmarkPositions.CUSTOM})
+    public String position;
+
+    private Game game;
+    private ChessBoard board;
+    private int side;
+    // Identifiers of pieces of side to move
+    private List<String> identifiers;
+
+    /**
+     * Sets up position and collects pieces of side to move.
+     * @return No return value.
+     */
+    @Setup
+    public void setup() {
+        game = BenchmarkPositions.create(position);
+        board = game.getBoard();
+        side = game.getTurn();
+        identifiers = new ArrayList<>();
+        for(int index_y = 0; index_y < board.getRows(); index_y++) {
+            for(int index_x = 0; index_x < board.getColumns(); index_x++) {
+                ChessPiece piece = board.getChessPiece(index_x, index_y);
+                if(piece != null && piece.getSide() == side) {
+                    identifiers.add(piece.getIdentifier());
+                }
+            }
+        }
+    }
+
+    /**
+     * Attackers of King of side to move.
+     */
+    @Benchmark
+    public Object checkIfCheck() {
+        return board.checkIfCheck(side);
+    }
+
+    /**
+     * Search for a move resolving check, through every move of side to move.
+     */
+    @Benchmark
+    public boolean checkDefendAttack() {
+        return board.checkDefendAttack(side);
+    }
+
+    /**
+     * Check / checkmate / stalemate status of side to move.
+     */
+    @Benchmark
+    public int checkCheckStatus() {
+        return board.checkCheckStatus(side);
+    }
+
+    /**
+     * Legal moves of every piece of side to move, as GUI requests them again within a turn.
+     * Moves are kept by the game after the first call, so this measures cache hits.
+     * Creating the moves is measured by LegalMovesBenchmark.getMovesInterface.
+     */
+    @Benchmark
+    public void getMovesInterfaceCached(Blackhole blackhole) {
+        for(int index = 0; index < identifiers.size(); index++) {
+            blackhole.consume(game.getMovesInterface(identifiers.get(index)));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Game;
+import ChessLibrary.Pieces.ChessPiece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of creating legal moves through ChessLibrary.Game.
+ * Cached moves are dropped before every invocation and background precompute is disabled,
+ * so each invocation creates the moves itself.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LegalMovesBenchmark {
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME, BenchmarkPositions.CUSTOM})
+    public String position;
+
+    private Game game;
+    // Identifiers of pieces of side to move
+    private List<String> identifiers;
+
+    /**
+     * Sets up position and collects pieces of side to move.
+     * @return No return value.
+     */
+    @Setup
+    public void setup() {
+        game = BenchmarkPositions.create(position);
+        game.setPrecompute(false);
+        ChessBoard board = game.getBoard();
+        int side = game.getTurn();
+        identifiers = new ArrayList<>();
+        for(int index_y = 0; index_y < board.getRows(); index_y++) {
+            for(int index_x = 0; index_x < board.getColumns(); index_x++) {
+                ChessPiece piece = board.getChessPiece(index_x, index_y);
+                if(piece != null && piece.getSide() == side) {
+                    identifiers.add(piece.getIdentifier());
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops legal moves kept by the game, outside of measured time.
+     * @return No return value.
+     */
+    @Setup(Level.Invocation)
+    public void invalidateMoves() {
+        game.invalidateMoves();
+    }
+
+    /**
+     * Legal moves of every piece of side to move, as GUI requests them on a new turn.
+     */
+    @Benchmark
+    public void getMovesInterface(Blackhole blackhole) {
+        for(int index = 0; index < identifiers.size(); index++) {
+            blackhole.consume(game.getMovesInterface(identifiers.get(index)));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package benchmark;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Game;
+import ChessLibrary.MovesListCreator;
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.MoveBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of ChessLibrary.MovesListCreator. Each benchmark creates moves of every piece of one type on the position,
+ * so scores of different piece types are comparable only within same position.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGeneratorBenchmark {
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME, BenchmarkPositions.CUSTOM})
+    public String position;
+
+    private ChessBoard board;
+    private MovesListCreator creator;
+    private MoveBuffer buffer;
+    // Pieces on the position by type index
+    private List<List<ChessPiece>> piecesByType;
+    private List<ChessPiece> allPieces;
+
+    /**
+     * Sets up position and sorts its pieces by type.
+     * @return No return value.
+     */
+    @Setup
+    public void setup() {
+        Game game = BenchmarkPositions.create(position);
+        board = game.getBoard();
+        creator = new MovesListCreator(board, board.getRows(), board.getColumns());
+        buffer = new MoveBuffer();
+        piecesByType = new ArrayList<>();
+        allPieces = new ArrayList<>();
+        for(int type = 0; type < ChessPiece.TYPE_COUNT; type++) {
+            piecesByType.add(new ArrayList<ChessPiece>());
+        }
+        for(int index_y = 0; index_y < board.getRows(); index_y++) {
+            for(int index_x = 0; index_x < board.getColumns(); index_x++) {
+                ChessPiece piece = board.getChessPiece(index_x, index_y);
+                if(piece != null) {
+                    piecesByType.get(piece.getType()).add(piece);
+                    allPieces.add(piece);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves of every King on the position.
+     */
+    @Benchmark
+    public void createKingMoves(Blackhole blackhole) {
+        List<ChessPiece> pieces = piecesByType.get(ChessPiece.KING);
+        for(int index = 0; index < pieces.size(); index++) {
+            blackhole.consume(creator.createKingMoves(pieces.get(index)));
+        }
+    }
+
+    /**
+     * Moves of every Queen on the position.
+     */
+    @Benchmark
+    public void createQueenMoves(Blackhole blackhole) {
+        List<ChessPiece> pieces = piecesByType.get(ChessPiece.QUEEN);
+        for(int index = 0; index < pieces.size(); index++) {
+            blackhole.consume(creator.createQueenMoves(pieces.get(index)));
+        }
+    }
+
+    /**
+     * Moves of every Rook on the position.
+     */
+    @Benchmark
+    public void createRookMoves(Blackhole blackhole) {
+        List<ChessPiece> pieces = piecesByType.get(ChessPiece.ROOK);
+        for(int index = 0; index < pieces.size(); index++) {
+            blackhole.consume(creator.createRookMoves(pieces.get(index)));
+        }
+    }
+
+    /**
+     * Moves of every Bishop on the position.
+     */
+    @Benchmark
+    public void createBishopMoves(Blackhole blackhole) {
+        List<ChessPiece> pieces = piecesByType.get(ChessPiece.BISHOP);
+        for(int index = 0; index < pieces.size(); index++) {
+            blackhole.consume(creator.createBishopMoves(pieces.get(index)));
+        }
+    }
+
+    /**
+     * Moves of every Knight on the position.
+     */
+    @Benchmark
+    public void createKnightMoves(Blackhole blackhole) {
+        List<ChessPiece> pieces = piecesByType.get(ChessPiece.KNIGHT);
+        for(int index = 0; index < pieces.size(); index++) {
+            blackhole.consume(creator.createKnightMoves(pieces.get(index)));
+        }
+    }
+
+    /**
+     * Moves of every Pawn on the position.
+     */
+    @Benchmark
+    public void createPawnMoves(Blackhole blackhole) {
+        List<ChessPiece> pieces = piecesByType.get(ChessPiece.PAWN);
+        for(int index = 0; index < pieces.size(); index++) {
+            blackhole.consume(creator.createPawnMoves(pieces.get(index)));
+        }
+    }
+
+    /**
+     * Moves of every Leaper on the position.
+     */
+    @Benchmark
+    public void createLeaperMoves(Blackhole blackhole) {
+        List<ChessPiece> pieces = piecesByType.get(ChessPiece.LEAPER);
+        for(int index = 0; index < pieces.size(); index++) {
+            blackhole.consume(creator.createLeaperMoves(pieces.get(index)));
+        }
+    }
+
+    /**
+     * Moves of every Charger on the position.
+     */
+    @Benchmark
+    public void createChargerMoves(Blackhole blackhole) {
+        List<ChessPiece> pieces = piecesByType.get(ChessPiece.CHARGER);
+        for(int index = 0; index < pieces.size(); index++) {
+            blackhole.consume(creator.createChargerMoves(pieces.get(index)));
+        }
+    }
+
+    /**
+     * Packed moves of every piece into reused buffer, to compare with List based methods above.
+     */
+    @Benchmark
+    public int createMovesPacked() {
+        int total = 0;
+        for(int index = 0; index < allPieces.size(); index++) {
+            buffer.clear();
+            creator.createMoves(allPieces.get(index), buffer);
+            total += buffer.size();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,460 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.CellMap;
+
+import java.util.Arrays;
+
+/**
+ * ChessLibrary.AttackMap -- Number of pieces of each side attacking each cell, updated incrementally.
+ * A piece attacks a cell if it could capture an enemy piece standing on that cell.
+ * Cell index is (y * columns + x).
+ * When a cell changes, only the piece on that cell and sliding pieces whose path reaches that cell are recounted.
+ * First piece in a direction is looked up in ChessLibrary.LineIndex instead of walking the ray.
+ * Pieces and counts are kept in ChessLibrary.Util.CellMap, and attack lists in slots handed to pieces as they are added,
+ * so on large boards memory follows pieces and attacked cells instead of board area.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class AttackMap {
+    // Directions in same order as ChessLibrary.MovesListCreator examines them. Even/odd does not matter here.
+    private static final int[] DIRECTION_X = {1, 1, 1, -1, -1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 1, -1, 0, 1, -1, 1, -1};
+    private static final int EMPTY = -1;
+    // Whether piece of each type slides along each direction.
+    // Charger captures first enemy piece on its path, so it attacks like a queen.
+    private static final boolean[][] SLIDES = new boolean[ChessPiece.TYPE_COUNT][8];
+
+    static {
+        for(int direction = 0; direction < 8; direction++) {
+            boolean straight = (DIRECTION_X[direction] == 0 || DIRECTION_Y[direction] == 0);
+            SLIDES[ChessPiece.QUEEN][direction] = true;
+            SLIDES[ChessPiece.CHARGER][direction] = true;
+            SLIDES[ChessPiece.ROOK][direction] = straight;
+            SLIDES[ChessPiece.BISHOP][direction] = !straight;
+        }
+    }
+
+    private int BOARD_ROWS;
+    private int BOARD_COLUMNS;
+    // Targets of King, Knight and Leaper and ray lengths of sliding pieces.
+    // Attacks of jumping pieces are symmetric, so same tables list their attackers.
+    private MoveTables MOVE_TABLES;
+    // side * ChessPiece.TYPE_COUNT + type + 1 of piece on each cell, 0 if cell is empty. See getPiece.
+    private CellMap PIECES;
+    private LineIndex LINES;
+    private CellMap[] ATTACK_COUNTS;
+    // Slot + 1 of attack list of piece on each cell, 0 if cell is empty.
+    private CellMap LIST_SLOTS;
+    // Cells attacked by piece holding each slot, as counted in ATTACK_COUNTS, and slots free for reuse.
+    private int[][] ATTACK_LISTS;
+    private int[] ATTACK_SIZES;
+    private int[] FREE_SLOTS;
+    private int freeCount;
+    private int slotCount;
+    // Scratch buffer for sliding pieces affected by a change.
+    private int[] affectedSliders = new int[8];
+
+    /**
+     * AttackMap constructor. Creates empty attack map for board of given size.
+     * @param rows Number of rows of chessboard.
+     * @param columns Number of columns of chessboard.
+     */
+    public AttackMap(int rows, int columns) {
+        BOARD_ROWS = rows;
+        BOARD_COLUMNS = columns;
+        MOVE_TABLES = MoveTables.get(rows, columns);
+        PIECES = new CellMap(rows * columns);
+        LINES = new LineIndex(rows, columns);
+        ATTACK_COUNTS = new CellMap[] {new CellMap(rows * columns), new CellMap(rows * columns)};
+        LIST_SLOTS = new CellMap(rows * columns);
+        ATTACK_LISTS = new int[32][];
+        ATTACK_SIZES = new int[32];
+        FREE_SLOTS = new int[32];
+    }
+
+    /**
+     * Removes all pieces and resets attack counts.
+     * @return No return value.
+     */
+    public void clear() {
+        PIECES.clear();
+        ATTACK_COUNTS[0].clear();
+        ATTACK_COUNTS[1].clear();
+        LIST_SLOTS.clear();
+        freeCount = 0;
+        slotCount = 0;
+        LINES.clear();
+    }
+
+    /**
+     * Adds piece on given cell and updates attack counts. Piece already on the cell is replaced.
+     * @param side Side of the piece.
+     * @param type Type index of the piece.
+     * @param square Cell index.
+     * @return No return value.
+     */
+    public void addPiece(int side, int type, int square) {
+        if(getPiece(square) != EMPTY) {
+            removePiece(square);
+        }
+        int affected = uncountSliders(square);
+        PIECES.put(square, side * ChessPiece.TYPE_COUNT + type + 1);
+        LIST_SLOTS.put(square, allocateSlot() + 1);
+        LINES.add(square);
+        recountSliders(affected);
+        countAttacks(square);
+    }
+
+    /**
+     * Removes piece on given cell and updates attack counts.
+     * @param square Cell index.
+     * @return No return value.
+     */
+    public void removePiece(int square) {
+        if(getPiece(square) == EMPTY) {
+            return;
+        }
+        uncountAttacks(square);
+        int affected = uncountSliders(square);
+        FREE_SLOTS[freeCount++] = LIST_SLOTS.get(square) - 1;
+        LIST_SLOTS.put(square, 0);
+        PIECES.put(square, 0);
+        LINES.remove(square);
+        recountSliders(affected);
+    }
+
+    /**
+     * Gets number of pieces of given side attacking given cell.
+     * @param side Side of attacking pieces.
+     * @param square Cell index.
+     * @return Number of attackers.
+     */
+    public int getAttackCount(int side, int square) {
+        return ATTACK_COUNTS[side].get(square);
+    }
+
+    /**
+     * Finds pieces of given side attacking given cell.
+     * @param side Side of attacking pieces.
+     * @param square Cell index.
+     * @param buffer Array to write cell indexes of attackers, in increasing order. Must fit all attackers.
+     * @return Number of attackers written to buffer.
+     */
+    public int getAttackers(int side, int square, int[] buffer) {
+        if(ATTACK_COUNTS[side].get(square) == 0) {
+            return 0;
+        }
+        int x = square % BOARD_COLUMNS;
+        int y = square / BOARD_COLUMNS;
+        int size = 0;
+        size = addAttackers(side, ChessPiece.KING, MOVE_TABLES.getKingTargets(square), buffer, size);
+        size = addAttackers(side, ChessPiece.KNIGHT, MOVE_TABLES.getKnightTargets(square), buffer, size);
+        size = addAttackers(side, ChessPiece.LEAPER, MOVE_TABLES.getLeaperJumps(square), buffer, size);
+        for(int direction = 0; direction < 8; direction++) {
+            // Sliding pieces: first piece on the path towards given cell
+            int target = findFirstPiece(square, direction);
+            if(target != MoveTables.NONE) {
+                int piece = getPiece(target);
+                if(piece / ChessPiece.TYPE_COUNT == side && SLIDES[piece % ChessPiece.TYPE_COUNT][direction]) {
+                    buffer[size++] = target;
+                }
+            }
+        }
+        // Black pawns attack towards South, so they stand one row above (North of) attacked cell.
+        int pawnY = (side == 0) ? y - 1 : y + 1;
+        size = addAttacker(side, ChessPiece.PAWN, x + 1, pawnY, buffer, size);
+        size = addAttacker(side, ChessPiece.PAWN, x - 1, pawnY, buffer, size);
+        // Sort cell indexes so attackers are listed in row order
+        for(int index = 1; index < size; index++) {
+            int value = buffer[index];
+            int position = index - 1;
+            while(position >= 0 && buffer[position] > value) {
+                buffer[position + 1] = buffer[position];
+                position--;
+            }
+            buffer[position + 1] = value;
+        }
+        return size;
+    }
+
+    /**
+     * Checks if given cell would be attacked by given side if piece on excluded cell were removed, without removing it.
+     * Used for cells a King moves to, since King leaving its cell uncovers paths of sliding pieces through it.
+     * @param side Side of attacking pieces.
+     * @param square Cell index to check.
+     * @param excluded Cell index of piece to leave out.
+     * @return True if attacked, false if not.
+     */
+    public boolean isAttackedWithout(int side, int square, int excluded) {
+        int count = ATTACK_COUNTS[side].get(square);
+        int piece = getPiece(excluded);
+        if(piece != EMPTY && piece / ChessPiece.TYPE_COUNT == side) {
+            int slot = LIST_SLOTS.get(excluded) - 1;
+            int[] attackList = ATTACK_LISTS[slot];
+            for(int index = 0; index < ATTACK_SIZES[slot]; index++) {
+                if(attackList[index] == square) {
+                    count--;
+                    break;
+                }
+            }
+        }
+        if(count > 0) {
+            return true;
+        }
+        // Sliding piece right behind excluded piece, on the line from given cell
+        int offsetX = excluded % BOARD_COLUMNS - square % BOARD_COLUMNS;
+        int offsetY = excluded / BOARD_COLUMNS - square / BOARD_COLUMNS;
+        int direction = getDirection(offsetX, offsetY);
+        if(direction == MoveTables.NONE || findFirstPiece(square, direction) != excluded) {
+            return false;
+        }
+        int behind = findFirstPiece(excluded, direction);
+        if(behind == MoveTables.NONE) {
+            return false;
+        }
+        piece = getPiece(behind);
+        return piece / ChessPiece.TYPE_COUNT == side && SLIDES[piece % ChessPiece.TYPE_COUNT][direction];
+    }
+
+    /**
+     * Helper function for getAttackers to add cell to buffer if piece of given side and type is on it.
+     */
+    private int addAttacker(int side, int type, int x, int y, int[] buffer, int size) {
+        if(isInside(x, y) && getPiece(y * BOARD_COLUMNS + x) == side * ChessPiece.TYPE_COUNT + type) {
+            buffer[size++] = y * BOARD_COLUMNS + x;
+        }
+        return size;
+    }
+
+    /**
+     * Helper function for getAttackers to add cells of given table holding piece of given side and type to buffer.
+     */
+    private int addAttackers(int side, int type, int[] targets, int[] buffer, int size) {
+        for(int index = 0; index < targets.length; index++) {
+            if(targets[index] != MoveTables.NONE && getPiece(targets[index]) == side * ChessPiece.TYPE_COUNT + type) {
+                buffer[size++] = targets[index];
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Helper function to find sliding pieces whose path reaches given cell and remove their attacks from counts.
+     * @return Number of affected sliding pieces stored in affectedSliders.
+     */
+    private int uncountSliders(int square) {
+        int affected = 0;
+        for(int direction = 0; direction < 8; direction++) {
+            int target = findFirstPiece(square, direction);
+            if(target != MoveTables.NONE && SLIDES[getPiece(target) % ChessPiece.TYPE_COUNT][direction]) {
+                uncountAttacks(target);
+                affectedSliders[affected++] = target;
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Finds first piece from given cell in given direction, which is where a sliding piece on given cell is blocked.
+     * @param square Cell index to look from. Piece on this cell itself is not counted.
+     * @param direction Direction index of ChessLibrary.MoveTables.
+     * @return Cell index of the piece. ChessLibrary.MoveTables.NONE if path to the border is empty.
+     */
+    public int findFirstPiece(int square, int direction) {
+        return LINES.findFirst(square, direction);
+    }
+
+    /**
+     * Finds cell where Charger of given side on given cell stops in given direction.
+     * Charger captures first enemy piece on its path, stops right before first ally piece, or reaches border of the board.
+     * @param side Side of the Charger.
+     * @param square Cell index of the Charger.
+     * @param direction Direction index of ChessLibrary.MoveTables.
+     * @return Cell index of the stop. ChessLibrary.MoveTables.NONE if Charger cannot move in that direction.
+     */
+    public int findChargerStop(int side, int square, int direction) {
+        int blocker = LINES.findFirst(square, direction);
+        int cells;
+        if(blocker == MoveTables.NONE) {
+            cells = MOVE_TABLES.getRayLength(direction, square);
+        } else if(getPiece(blocker) / ChessPiece.TYPE_COUNT != side) {
+            return blocker;
+        } else {
+            // Number of empty cells before the ally piece
+            cells = getDistance(square, blocker) - 1;
+        }
+        return (cells > 0) ? square + MOVE_TABLES.getStep(direction) * cells : MoveTables.NONE;
+    }
+
+    /**
+     * Helper function to count attacks of sliding pieces found by uncountSliders again.
+     */
+    private void recountSliders(int affected) {
+        for(int index = 0; index < affected; index++) {
+            countAttacks(affectedSliders[index]);
+        }
+    }
+
+    /**
+     * Helper function to remove attacks of piece on given cell from counts.
+     */
+    private void uncountAttacks(int square) {
+        int side = getPiece(square) / ChessPiece.TYPE_COUNT;
+        int slot = LIST_SLOTS.get(square) - 1;
+        int[] attackList = ATTACK_LISTS[slot];
+        CellMap counts = ATTACK_COUNTS[side];
+        for(int index = 0; index < ATTACK_SIZES[slot]; index++) {
+            counts.add(attackList[index], -1);
+        }
+        ATTACK_SIZES[slot] = 0;
+    }
+
+    /**
+     * Helper function to compute attacks of piece on given cell and add them to counts.
+     */
+    private void countAttacks(int square) {
+        int side = getPiece(square) / ChessPiece.TYPE_COUNT;
+        int type = getPiece(square) % ChessPiece.TYPE_COUNT;
+        int x = square % BOARD_COLUMNS;
+        int y = square / BOARD_COLUMNS;
+        int slot = LIST_SLOTS.get(square) - 1;
+        int size = 0;
+        switch(type) {
+            case ChessPiece.KING: {
+                size = addAttacks(slot, MOVE_TABLES.getKingTargets(square));
+                break;
+            }
+            case ChessPiece.KNIGHT: {
+                size = addAttacks(slot, MOVE_TABLES.getKnightTargets(square));
+                break;
+            }
+            case ChessPiece.LEAPER: {
+                size = addAttacks(slot, MOVE_TABLES.getLeaperJumps(square));
+                break;
+            }
+            case ChessPiece.PAWN: {
+                int targetY = (side == 0) ? y + 1 : y - 1;
+                size = addAttack(slot, size, x + 1, targetY);
+                size = addAttack(slot, size, x - 1, targetY);
+                break;
+            }
+            default: {
+                for(int direction = 0; direction < 8; direction++) {
+                    if(!SLIDES[type][direction]) {
+                        continue;
+                    }
+                    // Path ends at first piece, which is attacked too, or at the border
+                    int blocker = LINES.findFirst(square, direction);
+                    int length = (blocker == MoveTables.NONE) ? MOVE_TABLES.getRayLength(direction, square)
+                            : getDistance(square, blocker);
+                    int[] attackList = reserve(slot, size + length);
+                    int step = MOVE_TABLES.getStep(direction);
+                    int target = square;
+                    for(int count = 0; count < length; count++) {
+                        target += step;
+                        attackList[size++] = target;
+                    }
+                }
+            }
+        }
+        int[] attackList = ATTACK_LISTS[slot];
+        CellMap counts = ATTACK_COUNTS[side];
+        for(int index = 0; index < size; index++) {
+            counts.add(attackList[index], 1);
+        }
+        ATTACK_SIZES[slot] = size;
+    }
+
+    /**
+     * Helper function for countAttacks to copy cells of given table into empty attack list of given slot.
+     */
+    private int addAttacks(int slot, int[] targets) {
+        int[] attackList = reserve(slot, targets.length);
+        int size = 0;
+        for(int index = 0; index < targets.length; index++) {
+            if(targets[index] != MoveTables.NONE) {
+                attackList[size++] = targets[index];
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Helper function for countAttacks to append attacked cell to attack list of given slot.
+     */
+    private int addAttack(int slot, int size, int x, int y) {
+        if(!isInside(x, y)) {
+            return size;
+        }
+        reserve(slot, size + 1)[size] = y * BOARD_COLUMNS + x;
+        return size + 1;
+    }
+
+    /**
+     * Helper function to get attack list of given slot, grown to hold at least given number of cells.
+     * Entries already counted are kept.
+     */
+    private int[] reserve(int slot, int capacity) {
+        int[] attackList = ATTACK_LISTS[slot];
+        if(attackList.length < capacity) {
+            attackList = Arrays.copyOf(attackList, Math.max(capacity, attackList.length * 2));
+            ATTACK_LISTS[slot] = attackList;
+        }
+        return attackList;
+    }
+
+    /**
+     * Helper function to take a free slot for attack list of a new piece, adding slots if none is free.
+     */
+    private int allocateSlot() {
+        if(freeCount > 0) {
+            return FREE_SLOTS[--freeCount];
+        }
+        if(slotCount == ATTACK_LISTS.length) {
+            ATTACK_LISTS = Arrays.copyOf(ATTACK_LISTS, slotCount * 2);
+            ATTACK_SIZES = Arrays.copyOf(ATTACK_SIZES, slotCount * 2);
+            FREE_SLOTS = Arrays.copyOf(FREE_SLOTS, slotCount * 2);
+        }
+        if(ATTACK_LISTS[slotCount] == null) {
+            ATTACK_LISTS[slotCount] = new int[8];
+        }
+        ATTACK_SIZES[slotCount] = 0;
+        return slotCount++;
+    }
+
+    /**
+     * Helper function to get side * ChessPiece.TYPE_COUNT + type of piece on given cell, EMPTY if cell is empty.
+     */
+    private int getPiece(int square) {
+        return PIECES.get(square) - 1;
+    }
+
+    /**
+     * Helper function to get number of steps between two cells on a straight or diagonal line.
+     */
+    private int getDistance(int from, int to) {
+        return Math.max(Math.abs(to % BOARD_COLUMNS - from % BOARD_COLUMNS), Math.abs(to / BOARD_COLUMNS - from / BOARD_COLUMNS));
+    }
+
+    /**
+     * Helper function to get direction index of given offset, NONE if offset is not on a straight or diagonal line.
+     */
+    private int getDirection(int offsetX, int offsetY) {
+        if(offsetX != 0 && offsetY != 0 && Math.abs(offsetX) != Math.abs(offsetY)) {
+            return MoveTables.NONE;
+        }
+        for(int direction = 0; direction < 8; direction++) {
+            if(DIRECTION_X[direction] == Integer.signum(offsetX) && DIRECTION_Y[direction] == Integer.signum(offsetY)) {
+                return direction;
+            }
+        }
+        return MoveTables.NONE;
+    }
+
+    /**
+     * Helper function to check if given coordinate is inside the board.
+     */
+    private boolean isInside(int x, int y) {
+        return x >= 0 && x < BOARD_COLUMNS && y >= 0 && y < BOARD_ROWS;
+    }
+}
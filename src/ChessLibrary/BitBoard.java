@@ -0,0 +1,270 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+
+/**
+ * ChessLibrary.BitBoard -- Representation of an 8x8 chess board using 64-bit occupancy masks.
+ * One mask is kept for each side and piece type. Bit index of a cell is (y * 8 + x),
+ * so iterating bits from lowest to highest visits cells in same order as scanning rows of ChessLibrary.ChessBoard.
+ * Sliding attacks are looked up in ChessLibrary.MagicTables.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class BitBoard {
+    public static final int SIZE = 8;
+
+    // Directions in same order as ChessLibrary.MovesListCreator examines them.
+    public static final int EAST = 0;
+    public static final int SOUTH_EAST = 1;
+    public static final int NORTH_EAST = 2;
+    public static final int WEST = 3;
+    public static final int SOUTH_WEST = 4;
+    public static final int NORTH_WEST = 5;
+    public static final int SOUTH = 6;
+    public static final int NORTH = 7;
+    private static final int[] DIRECTION_X = {1, 1, 1, -1, -1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 1, -1, 0, 1, -1, 1, -1};
+
+    private static final long[][] RAYS = new long[8][64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] LEAPER_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    static {
+        for(int square = 0; square < 64; square++) {
+            int x = square % SIZE;
+            int y = square / SIZE;
+            for(int direction = 0; direction < 8; direction++) {
+                long ray = 0L;
+                for(int count = 1; count < SIZE; count++) {
+                    ray |= bit(x + DIRECTION_X[direction] * count, y + DIRECTION_Y[direction] * count);
+                }
+                RAYS[direction][square] = ray;
+                KING_ATTACKS[square] |= bit(x + DIRECTION_X[direction], y + DIRECTION_Y[direction]);
+            }
+            KNIGHT_ATTACKS[square] = bit(x + 1, y + 2) | bit(x + 1, y - 2) | bit(x + 2, y + 1) | bit(x + 2, y - 1)
+                    | bit(x - 1, y + 2) | bit(x - 1, y - 2) | bit(x - 2, y + 1) | bit(x - 2, y - 1);
+            // Leaper only captures pieces 2 cells away in N/E/S/W direction.
+            LEAPER_ATTACKS[square] = bit(x + 2, y) | bit(x - 2, y) | bit(x, y + 2) | bit(x, y - 2);
+            // Black pawns capture towards South, white pawns towards North.
+            PAWN_ATTACKS[0][square] = bit(x + 1, y + 1) | bit(x - 1, y + 1);
+            PAWN_ATTACKS[1][square] = bit(x + 1, y - 1) | bit(x - 1, y - 1);
+        }
+    }
+
+    private long[][] PIECE_MASKS = new long[2][ChessPiece.TYPE_COUNT];
+    private long[] SIDE_MASKS = new long[2];
+
+    /**
+     * Adds piece of given side and type on given cell.
+     * @param side Side of the piece.
+     * @param type Type index of the piece.
+     * @param square Bit index of the cell.
+     * @return No return value.
+     */
+    public void addPiece(int side, int type, int square) {
+        long mask = 1L << square;
+        PIECE_MASKS[side][type] |= mask;
+        SIDE_MASKS[side] |= mask;
+    }
+
+    /**
+     * Removes piece of given side and type from given cell.
+     * @param side Side of the piece.
+     * @param type Type index of the piece.
+     * @param square Bit index of the cell.
+     * @return No return value.
+     */
+    public void removePiece(int side, int type, int square) {
+        long mask = ~(1L << square);
+        PIECE_MASKS[side][type] &= mask;
+        SIDE_MASKS[side] &= mask;
+    }
+
+    /**
+     * Clears all masks.
+     * @return No return value.
+     */
+    public void clear() {
+        for(int side = 0; side < 2; side++) {
+            for(int type = 0; type < ChessPiece.TYPE_COUNT; type++) {
+                PIECE_MASKS[side][type] = 0L;
+            }
+            SIDE_MASKS[side] = 0L;
+        }
+    }
+
+    /**
+     * Gets occupancy mask of given side and piece type.
+     * @param side Side of the pieces.
+     * @param type Type index of the pieces.
+     * @return Mask of cells occupied by given pieces.
+     */
+    public long getPieceMask(int side, int type) {
+        return PIECE_MASKS[side][type];
+    }
+
+    /**
+     * Gets occupancy mask of given side.
+     * @param side Side of the pieces.
+     * @return Mask of cells occupied by pieces of given side.
+     */
+    public long getSideMask(int side) {
+        return SIDE_MASKS[side];
+    }
+
+    /**
+     * Gets occupancy mask of both sides.
+     * @return Mask of occupied cells.
+     */
+    public long getOccupied() {
+        return SIDE_MASKS[0] | SIDE_MASKS[1];
+    }
+
+    /**
+     * Checks if given cell is occupied, in same manner as MovesListCreator.checkOccupied.
+     * @param side SIDE value to determine which side is ally.
+     * @param square Bit index of the cell.
+     * @return 0 if not occupied, 1 if ally occupies given cell, 2 if enemy occupies given cell.
+     */
+    public int checkOccupied(int side, int square) {
+        long mask = 1L << square;
+        if((SIDE_MASKS[side] & mask) != 0) {
+            return 1;
+        } else if((SIDE_MASKS[1 - side] & mask) != 0) {
+            return 2;
+        }
+        return 0;
+    }
+
+    /**
+     * Gets mask of pieces of given side attacking given cell.
+     * @param square Bit index of the cell.
+     * @param side Side of attacking pieces.
+     * @param includeKing Whether King should be counted as attacker.
+     * @return Mask of attacking pieces.
+     */
+    public long getAttackers(int square, int side, boolean includeKing) {
+        long occupied = getOccupied();
+        long[] masks = PIECE_MASKS[side];
+        // Charger captures first enemy piece on its path, so it attacks like a queen.
+        long straight = masks[ChessPiece.QUEEN] | masks[ChessPiece.ROOK] | masks[ChessPiece.CHARGER];
+        long diagonal = masks[ChessPiece.QUEEN] | masks[ChessPiece.BISHOP] | masks[ChessPiece.CHARGER];
+        long attackers = (KNIGHT_ATTACKS[square] & masks[ChessPiece.KNIGHT])
+                | (LEAPER_ATTACKS[square] & masks[ChessPiece.LEAPER])
+                | (PAWN_ATTACKS[1 - side][square] & masks[ChessPiece.PAWN]);
+        if(straight != 0) {
+            attackers |= getRookAttacks(square, occupied) & straight;
+        }
+        if(diagonal != 0) {
+            attackers |= getBishopAttacks(square, occupied) & diagonal;
+        }
+        if(includeKing) {
+            attackers |= KING_ATTACKS[square] & masks[ChessPiece.KING];
+        }
+        return attackers;
+    }
+
+    /**
+     * Gets mask of cells attacked by rook-like movement from given cell, looked up in ChessLibrary.MagicTables.
+     * @param square Bit index of the cell.
+     * @param occupied Mask of occupied cells.
+     * @return Mask of attacked cells, including first blocker of each direction.
+     */
+    public static long getRookAttacks(int square, long occupied) {
+        return MagicTables.getRookAttacks(square, occupied);
+    }
+
+    /**
+     * Gets mask of cells attacked by bishop-like movement from given cell, looked up in ChessLibrary.MagicTables.
+     * @param square Bit index of the cell.
+     * @param occupied Mask of occupied cells.
+     * @return Mask of attacked cells, including first blocker of each direction.
+     */
+    public static long getBishopAttacks(int square, long occupied) {
+        return MagicTables.getBishopAttacks(square, occupied);
+    }
+
+    /**
+     * Gets mask of cells attacked by Queen-like movement from given cell.
+     * @param square Bit index of the cell.
+     * @param occupied Mask of occupied cells.
+     * @return Mask of attacked cells, including first blocker of each direction.
+     */
+    public static long getQueenAttacks(int square, long occupied) {
+        return MagicTables.getQueenAttacks(square, occupied);
+    }
+
+    /**
+     * Gets mask of cells attacked in one direction from given cell.
+     * @param direction Direction index.
+     * @param square Bit index of the cell.
+     * @param occupied Mask of occupied cells.
+     * @return Mask of attacked cells, including first blocker.
+     */
+    public static long getRayAttacks(int direction, int square, long occupied) {
+        if(DIRECTION_X[direction] == 0 || DIRECTION_Y[direction] == 0) {
+            return MagicTables.getRookAttacks(square, occupied) & RAYS[direction][square];
+        }
+        return MagicTables.getBishopAttacks(square, occupied) & RAYS[direction][square];
+    }
+
+    /**
+     * Gets mask of cells from given cell to the border in given direction, on empty board.
+     * @param direction Direction index.
+     * @param square Bit index of the cell.
+     * @return Mask of cells, not including given cell.
+     */
+    public static long getRay(int direction, int square) {
+        return RAYS[direction][square];
+    }
+
+    /**
+     * Finds first piece from given cell in given direction.
+     * @param square Bit index of the cell.
+     * @param direction Direction index.
+     * @return Bit index of the piece. ChessLibrary.MoveTables.NONE if path to the border is empty.
+     */
+    public int getFirstBlocker(int square, int direction) {
+        long blockers = getRayAttacks(direction, square, getOccupied()) & getOccupied();
+        if(blockers == 0) {
+            return MoveTables.NONE;
+        }
+        // Blocker is the only occupied cell of attacked cells
+        return Long.numberOfTrailingZeros(blockers);
+    }
+
+    /**
+     * Finds cell where Charger of given side on given cell stops in given direction: first enemy piece,
+     * cell right before first ally piece, or border of the board.
+     * @param side Side of the Charger.
+     * @param square Bit index of the Charger.
+     * @param direction Direction index.
+     * @return Bit index of the stop. ChessLibrary.MoveTables.NONE if Charger cannot move in that direction.
+     */
+    public int getChargerStop(int side, int square, int direction) {
+        long attacks = getRayAttacks(direction, square, getOccupied());
+        if((attacks & SIDE_MASKS[1 - side]) != 0) {
+            return Long.numberOfTrailingZeros(attacks & SIDE_MASKS[1 - side]);
+        }
+        // Ally blocker is not captured, so Charger stops on farthest of remaining cells
+        attacks &= ~SIDE_MASKS[side];
+        if(attacks == 0) {
+            return MoveTables.NONE;
+        }
+        if(direction == EAST || direction == SOUTH_EAST || direction == SOUTH_WEST || direction == SOUTH) {
+            return 63 - Long.numberOfLeadingZeros(attacks);
+        }
+        return Long.numberOfTrailingZeros(attacks);
+    }
+
+    /**
+     * Helper function to get mask of a single cell. Out-of-border cells give empty mask.
+     */
+    private static long bit(int x, int y) {
+        if(x < 0 || x >= SIZE || y < 0 || y >= SIZE) {
+            return 0L;
+        }
+        return 1L << (y * SIZE + x);
+    }
+}
@@ -0,0 +1,179 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+
+/**
+ * ChessLibrary.BoardSnapshot -- Unchangeable copy of a position, published by ChessLibrary.Game after every change.
+ * Each cell holds code of its piece (see ChessLibrary.Pieces.ChessPiece.getCode), kept row by row.
+ * Snapshots never change once created, so any thread may read them without locks, and a snapshot following a move
+ * shares every row the move did not touch with the snapshot before it. Publishing a move then copies
+ * only the rows of its origin and destination, not the whole board.
+ * Version tells snapshots of one game apart; a reader can compare it to ChessLibrary.Game.getVersion
+ * after working on a snapshot, to learn whether the game has moved on meanwhile.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class BoardSnapshot {
+    private final long VERSION;
+    private final int TURN;
+    private final long HASH;
+    // Side to move included in hash, which differs from turn between a move and the turn change.
+    private final int SIDE_TO_MOVE;
+    private final int BOARD_ROWS;
+    private final int BOARD_COLUMNS;
+    // Same values as ChessBoard.getCellCode by row and column, 0 if cell is empty. Rows may be shared between snapshots.
+    private final byte[][] CELLS;
+    // Code of piece on each cell by row and column, -1 if cell is empty. Rows may be shared between snapshots.
+    private final int[][] PIECE_CODES;
+
+    /**
+     * BoardSnapshot constructor. Copies current position of given board.
+     * Board must not be changed by other threads meanwhile.
+     * @param board Chessboard to copy.
+     * @param turn Side to move.
+     * @param version Version of the snapshot.
+     */
+    public BoardSnapshot(ChessBoard board, int turn, long version) {
+        VERSION = version;
+        TURN = turn;
+        HASH = board.hash();
+        SIDE_TO_MOVE = board.getSideToMove();
+        BOARD_ROWS = board.getRows();
+        BOARD_COLUMNS = board.getColumns();
+        CELLS = new byte[BOARD_ROWS][];
+        PIECE_CODES = new int[BOARD_ROWS][];
+        for(int index_y = 0; index_y < BOARD_ROWS; index_y++) {
+            copyRow(board, index_y);
+        }
+    }
+
+    /**
+     * BoardSnapshot constructor. Copies given rows of given board, and shares other rows with previous snapshot.
+     * Rows not given must be same on the board as in previous snapshot, and board must not be changed
+     * by other threads meanwhile.
+     * @param previous Snapshot of the same board before the change.
+     * @param board Chessboard to copy.
+     * @param turn Side to move.
+     * @param version Version of the snapshot.
+     * @param changedRows Whether each row changed since previous snapshot, indexed by y-coordinate.
+     */
+    public BoardSnapshot(BoardSnapshot previous, ChessBoard board, int turn, long version, boolean[] changedRows) {
+        VERSION = version;
+        TURN = turn;
+        HASH = board.hash();
+        SIDE_TO_MOVE = board.getSideToMove();
+        BOARD_ROWS = board.getRows();
+        BOARD_COLUMNS = board.getColumns();
+        CELLS = previous.CELLS.clone();
+        PIECE_CODES = previous.PIECE_CODES.clone();
+        for(int index_y = 0; index_y < BOARD_ROWS; index_y++) {
+            if(changedRows[index_y]) {
+                copyRow(board, index_y);
+            }
+        }
+    }
+
+    /**
+     * Gets version of the snapshot. Later snapshots of a game have larger versions.
+     * @return Version of the snapshot.
+     */
+    public long getVersion() {
+        return VERSION;
+    }
+
+    /**
+     * Gets side to move in the snapshot.
+     * @return 0 if black, 1 if white.
+     */
+    public int getTurn() {
+        return TURN;
+    }
+
+    /**
+     * Gets Zobrist hash of the position, same as ChessBoard.hash of the board when copied.
+     * @return 64-bit Zobrist hash.
+     */
+    public long hash() {
+        return HASH;
+    }
+
+    /**
+     * Gets number of rows of the board.
+     * @return Number of rows.
+     */
+    public int getRows() {
+        return BOARD_ROWS;
+    }
+
+    /**
+     * Gets number of columns of the board.
+     * @return Number of columns.
+     */
+    public int getColumns() {
+        return BOARD_COLUMNS;
+    }
+
+    /**
+     * Gets side and type of piece in given position as one number, same as ChessBoard.getCellCode.
+     * @param xCoordinate
+     * @param yCoordinate
+     * @return 0 if position is empty, (side * ChessPiece.TYPE_COUNT + type index + 1) if occupied.
+     */
+    public int getCellCode(int xCoordinate, int yCoordinate) {
+        return CELLS[yCoordinate][xCoordinate];
+    }
+
+    /**
+     * Gets code of piece in given position.
+     * @param xCoordinate
+     * @param yCoordinate
+     * @return Code of the piece, see ChessLibrary.Pieces.ChessPiece.getCode. -1 if position is empty.
+     */
+    public int getPieceCode(int xCoordinate, int yCoordinate) {
+        return PIECE_CODES[yCoordinate][xCoordinate];
+    }
+
+    /**
+     * Gets identifier of piece in given position.
+     * @param xCoordinate
+     * @param yCoordinate
+     * @return Identifier of the piece, such as "0p3". Null if position is empty.
+     */
+    public String getIdentifier(int xCoordinate, int yCoordinate) {
+        int code = getPieceCode(xCoordinate, yCoordinate);
+        return (code < 0) ? null : ChessPiece.toIdentifier(code);
+    }
+
+    /**
+     * Creates a new chessboard holding position of the snapshot, with same side to move and hash as the copied board.
+     * Board belongs to caller, for example to search or create moves on another thread.
+     * @return New ChessLibrary.ChessBoard object.
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard(BOARD_ROWS, BOARD_COLUMNS);
+        for(int index_y = 0; index_y < BOARD_ROWS; index_y++) {
+            for(int index_x = 0; index_x < BOARD_COLUMNS; index_x++) {
+                int code = PIECE_CODES[index_y][index_x];
+                if(code >= 0) {
+                    board.setChessPiece(ChessPiece.create(code, index_x, index_y), index_x, index_y);
+                }
+            }
+        }
+        board.setSideToMove(SIDE_TO_MOVE);
+        return board;
+    }
+
+    /**
+     * Helper function to copy given row of board into new row arrays of this snapshot.
+     */
+    private void copyRow(ChessBoard board, int yCoordinate) {
+        byte[] cells = new byte[BOARD_COLUMNS];
+        int[] codes = new int[BOARD_COLUMNS];
+        for(int index_x = 0; index_x < BOARD_COLUMNS; index_x++) {
+            ChessPiece piece = board.getChessPiece(index_x, yCoordinate);
+            cells[index_x] = (byte) board.getCellCode(index_x, yCoordinate);
+            codes[index_x] = (piece == null) ? -1 : piece.getCode();
+        }
+        CELLS[yCoordinate] = cells;
+        PIECE_CODES[yCoordinate] = codes;
+    }
+}
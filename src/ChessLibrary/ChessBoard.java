@@ -1,32 +1,123 @@
 package ChessLibrary;
 
 import ChessLibrary.Pieces.*;
+import ChessLibrary.Util.CellMap;
+import ChessLibrary.Util.IntIntMap;
 import ChessLibrary.Util.IntPair;
+import ChessLibrary.Util.Move;
+import ChessLibrary.Util.MoveBuffer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 /**
- * ChessLibrary.ChessBoard -- Representation of a chess board using 2D array.
+ * ChessLibrary.ChessBoard -- Representation of a chess board using a code per occupied cell and lists of pieces of each side.
+ * Cell codes are kept in a ChessLibrary.Util.CellMap, which holds only occupied cells on large boards,
+ * so large boards with few pieces take memory and time by their pieces, not by their area.
+ * ChessLibrary.Pieces.ChessPiece objects are only kept in the piece lists, and are looked up through them by getChessPiece.
+ * On 8x8 boards, occupancy masks of ChessLibrary.BitBoard are kept in sync with the cells,
+ * and occupancy / check queries run on the masks instead.
+ * Attack counts of every cell are kept in ChessLibrary.AttackMap, so check can be detected without generating moves.
+ * Moves can be applied and reverted with makeMove / unmakeMove, which describe a move with a single long undo record.
+ * Zobrist hash of pieces and side to move is updated on every change, see ChessLibrary.Zobrist.
+ * Since every move passes the turn, makeMove / unmakeMove also flip side to move.
+ * If enabled, possible moves of each piece are kept in ChessLibrary.PieceMovesCache, and dropped only for pieces
+ * reaching changed cells.
  * @author Wonwoo Seo (wonwooseo@hotmail.com)
  */
 public class ChessBoard {
     private int BOARD_ROWS;
     private int BOARD_COLUMNS;
-    private ChessPiece[][] BOARD_PIECES;
+    private BitBoard BOARD_BITS; // null if board is not 8x8
+    private AttackMap ATTACK_MAP;
+    // Created on first use by getMovesCreator, and kept since it always examines current state of this board.
+    private MovesListCreator MOVES_CREATOR;
+    // Created on first use by getLegalMovesCreator, same as MOVES_CREATOR.
+    private LegalMovesCreator LEGAL_MOVES_CREATOR;
+    // Possible moves of each piece kept between moves, null unless enabled by setPieceMovesCache.
+    private PieceMovesCache PIECE_MOVES;
+    // Cell index of pieces on board by code (see ChessPiece.getCode), kept up to date by every change.
+    private IntIntMap PIECE_INDEX;
+    // Side and type of piece on each cell (y * BOARD_COLUMNS + x) as one number, see getCellCode. 0 if cell is empty.
+    private CellMap SQUARES;
+    // Cells and pieces of each side in row order (ascending cell index), and position of each occupied cell in list
+    // of its side, so pieces can be visited in row order without scanning or sorting every cell of large boards.
+    private int[][] PIECE_SQUARES;
+    private ChessPiece[][] PIECE_OBJECTS;
+    private int[] PIECE_COUNTS;
+    private CellMap LIST_POSITIONS;
+    // Cell index (y * BOARD_COLUMNS + x) of King of each side. -1 if side has no King on board.
+    private int[] KING_SQUARES;
+    // Pieces captured by makeMove, so undo records can refer to them by number. Forgotten by clearChessBoard.
+    private List<ChessPiece> CAPTURED_PIECES;
+    private IdentityHashMap<ChessPiece, Integer> CAPTURED_INDEX;
+    // Layout of undo record: origin cell, destination cell, captured piece number + 1 (0 if nothing captured).
+    // Cells take as many bits as in ChessLibrary.Util.Move, so every board a move can describe has undo records.
+    private static final int RECORD_CELL_BITS = 24;
+    private static final int MAX_CAPTURED = (1 << (64 - RECORD_CELL_BITS * 2)) - 1;
+    // Zobrist keys of ChessLibrary.Zobrist (null if board is too large for a table), hash of current position
+    // and side to move it includes.
+    private long[] PIECE_KEYS;
+    private long HASH;
+    private int SIDE_TO_MOVE;
+    private static final long RECORD_CELL_MASK = (1L << RECORD_CELL_BITS) - 1;
 
     /**
      * ChessLibrary.ChessBoard Constructor. Creates ChessLibrary.ChessBoard of specified size and sets up pieces.
-     * Coordinate (0, 0) of ChessLibrary.Pieces.ChessPiece 2D array is top-left.
+     * Coordinate (0, 0) of the board is top-left.
      * @param rows Number of rows for chessboard.
      * @param columns Number of columns for chessboard.
      * @param customPiece Whether custom pieces should be used.
      */
     public ChessBoard(int rows, int columns, boolean customPiece) {
+        this(rows, columns);
+        setupPieces(customPiece);
+    }
+
+    /**
+     * ChessLibrary.ChessBoard Constructor. Creates empty ChessLibrary.ChessBoard of specified size.
+     * @param rows Number of rows for chessboard.
+     * @param columns Number of columns for chessboard.
+     */
+    public ChessBoard(int rows, int columns) {
         BOARD_ROWS = rows;
         BOARD_COLUMNS = columns;
-        BOARD_PIECES = new ChessPiece[BOARD_ROWS][BOARD_COLUMNS];
-        setupPieces(customPiece);
+        PIECE_INDEX = new IntIntMap(32);
+        SQUARES = new CellMap(BOARD_ROWS * BOARD_COLUMNS);
+        PIECE_SQUARES = new int[2][16];
+        PIECE_OBJECTS = new ChessPiece[2][16];
+        PIECE_COUNTS = new int[2];
+        LIST_POSITIONS = new CellMap(BOARD_ROWS * BOARD_COLUMNS);
+        KING_SQUARES = new int[] {-1, -1};
+        CAPTURED_PIECES = new ArrayList<>();
+        CAPTURED_INDEX = new IdentityHashMap<>();
+        ATTACK_MAP = new AttackMap(BOARD_ROWS, BOARD_COLUMNS);
+        if(CellMap.isDense(BOARD_ROWS * BOARD_COLUMNS)) {
+            PIECE_KEYS = Zobrist.getKeys(BOARD_ROWS * BOARD_COLUMNS);
+        }
+        HASH = 0;
+        SIDE_TO_MOVE = 1;
+        if(BOARD_ROWS == BitBoard.SIZE && BOARD_COLUMNS == BitBoard.SIZE) {
+            BOARD_BITS = new BitBoard();
+        }
+    }
+
+    /**
+     * ChessLibrary.ChessBoard Constructor. Creates copy of given ChessLibrary.ChessBoard.
+     * Pieces are copied too, so the copy can be changed independently, for example by another thread.
+     * @param source ChessLibrary.ChessBoard to copy.
+     */
+    public ChessBoard(ChessBoard source) {
+        this(source.BOARD_ROWS, source.BOARD_COLUMNS);
+        for(int side = 0; side < 2; side++) {
+            for(int index = 0; index < source.PIECE_COUNTS[side]; index++) {
+                int square = source.PIECE_SQUARES[side][index];
+                setChessPiece(source.PIECE_OBJECTS[side][index].copy(), square % BOARD_COLUMNS, square / BOARD_COLUMNS);
+            }
+        }
+        setSideToMove(source.SIDE_TO_MOVE);
     }
 
     /**
@@ -36,7 +127,52 @@ public class ChessBoard {
      * @return ChessLibrary.Pieces.ChessPiece on position (xCoordinate, yCoordinate). Null if position is empty.
      */
     public ChessPiece getChessPiece(int xCoordinate, int yCoordinate) {
-        return BOARD_PIECES[yCoordinate][xCoordinate];
+        return getPieceAt(yCoordinate * BOARD_COLUMNS + xCoordinate);
+    }
+
+    /**
+     * Gets number of rows of the board.
+     * @return Number of rows.
+     */
+    public int getRows() {
+        return BOARD_ROWS;
+    }
+
+    /**
+     * Gets number of columns of the board.
+     * @return Number of columns.
+     */
+    public int getColumns() {
+        return BOARD_COLUMNS;
+    }
+
+    /**
+     * Gets occupancy masks of the board.
+     * @return ChessLibrary.BitBoard object. Null if board is not 8x8.
+     */
+    public BitBoard getBitBoard() {
+        return BOARD_BITS;
+    }
+
+    /**
+     * Checks if given position is occupied by other piece.
+     * @param side SIDE value to determine which side is ally.
+     * @param xCoordinate
+     * @param yCoordinate
+     * @return 0 if not occupied, 1 if ally occupies given position, 2 if enemy occupies given position.
+     */
+    public int checkOccupied(int side, int xCoordinate, int yCoordinate) {
+        if(BOARD_BITS != null) {
+            return BOARD_BITS.checkOccupied(side, yCoordinate * BitBoard.SIZE + xCoordinate);
+        }
+        int target = SQUARES.get(yCoordinate * BOARD_COLUMNS + xCoordinate);
+        if(target == 0) {
+            return 0;
+        } else if((target - 1) / ChessPiece.TYPE_COUNT == side) {
+            return 1;
+        } else {
+            return 2;
+        }
     }
 
     /**
@@ -45,15 +181,73 @@ public class ChessBoard {
      * @return ChessLibrary.Pieces.ChessPiece with given identifier. Null if none exists.
      */
     public ChessPiece getChessPieceById(String id) {
-        for(int index_y = 0; index_y < BOARD_ROWS; index_y++) {
-            for(int index_x = 0; index_x < BOARD_COLUMNS; index_x++) {
-                ChessPiece piece = getChessPiece(index_x, index_y);
-                if(piece != null && piece.getIdentifier().equals(id)) {
-                    return piece;
-                }
-            }
+        int code = ChessPiece.toCode(id);
+        if(code < 0) {
+            return null;
+        }
+        return getChessPieceByCode(code);
+    }
+
+    /**
+     * Finds ChessLibrary.Pieces.ChessPiece object of given code and returns it.
+     * @param code Code of the piece to look for, see ChessLibrary.Pieces.ChessPiece.getCode.
+     * @return ChessLibrary.Pieces.ChessPiece with given code. Null if none exists.
+     */
+    public ChessPiece getChessPieceByCode(int code) {
+        int square = PIECE_INDEX.get(code, -1);
+        if(square < 0) {
+            return null;
+        }
+        return getPieceAt(square);
+    }
+
+    /**
+     * Gets side and type of piece in given position as one number, without touching the piece object.
+     * @param xCoordinate
+     * @param yCoordinate
+     * @return 0 if position is empty, (side * ChessPiece.TYPE_COUNT + type index + 1) if occupied.
+     */
+    public int getCellCode(int xCoordinate, int yCoordinate) {
+        return SQUARES.get(yCoordinate * BOARD_COLUMNS + xCoordinate);
+    }
+
+    /**
+     * Gets number of pieces of given side on the board.
+     * @param side 0 if black, 1 if white.
+     * @return Number of pieces.
+     */
+    public int getPieceCount(int side) {
+        return PIECE_COUNTS[side];
+    }
+
+    /**
+     * Gets cells of pieces of given side in row order, without scanning every cell of the board.
+     * Piece lists are kept in row order as pieces change, so this only copies the list of the side.
+     * Cost depends on number of pieces only, so prefer this to scanning on large boards with few pieces.
+     * @param side 0 if black, 1 if white.
+     * @param buffer Array to write cell indexes (y * columns + x) to, from index 0.
+     * @return Given buffer if it fits getPieceCount(side) cells, a new larger array holding the cells if not.
+     */
+    public int[] getPieceSquares(int side, int[] buffer) {
+        int count = PIECE_COUNTS[side];
+        if(buffer.length < count) {
+            buffer = new int[PIECE_SQUARES[side].length];
+        }
+        System.arraycopy(PIECE_SQUARES[side], 0, buffer, 0, count);
+        return buffer;
+    }
+
+    /**
+     * Gets King of given side.
+     * @param side Side of the King.
+     * @return King of given side. Null if side has no King on board.
+     */
+    public ChessPiece getKing(int side) {
+        int square = KING_SQUARES[side];
+        if(square < 0) {
+            return null;
         }
-        return null;
+        return getPieceAt(square);
     }
 
     /**
@@ -64,8 +258,12 @@ public class ChessBoard {
      * @return No return value.
      */
     public void setChessPiece(ChessPiece piece, int xCoordinate, int yCoordinate) {
-        BOARD_PIECES[yCoordinate][xCoordinate] = piece;
+        ChessPiece previous = getChessPiece(xCoordinate, yCoordinate);
+        if(previous != null) {
+            removeFromIndex(previous, xCoordinate, yCoordinate);
+        }
         piece.setPosition(xCoordinate, yCoordinate);
+        addToIndex(piece, xCoordinate, yCoordinate);
     }
 
     /**
@@ -75,101 +273,462 @@ public class ChessBoard {
      * @return No return value.
      */
     public void deleteChessPiece(int xCoordinate, int yCoordinate) {
-        BOARD_PIECES[yCoordinate][xCoordinate] = null;
+        ChessPiece previous = getChessPiece(xCoordinate, yCoordinate);
+        if(previous != null) {
+            removeFromIndex(previous, xCoordinate, yCoordinate);
+        }
+    }
+
+    /**
+     * Moves piece on origin to destination, capturing piece on destination if any.
+     * Same as deleting piece from origin and setting it on destination, without allocating objects.
+     * @param fromX Origin x-coordinate
+     * @param fromY Origin y-coordinate
+     * @param toX Destination x-coordinate
+     * @param toY Destination y-coordinate
+     * @return Undo record to pass to unmakeMove.
+     */
+    public long makeMove(int fromX, int fromY, int toX, int toY) {
+        ChessPiece piece = getChessPiece(fromX, fromY);
+        ChessPiece captured = getChessPiece(toX, toY);
+        long record = createUndoRecord(fromX, fromY, toX, toY, captured);
+        if(captured != null) {
+            removeFromIndex(captured, toX, toY);
+        }
+        piece.setPosition(toX, toY);
+        moveInIndex(piece, fromY * BOARD_COLUMNS + fromX, toY * BOARD_COLUMNS + toX);
+        flipSideToMove();
+        return record;
+    }
+
+    /**
+     * Applies packed move of ChessLibrary.Util.Move.
+     * @param move Packed move created on this board.
+     * @return Undo record to pass to unmakeMove.
+     */
+    public long makeMove(long move) {
+        int from = Move.getFrom(move);
+        int to = Move.getTo(move);
+        return makeMove(from % BOARD_COLUMNS, from / BOARD_COLUMNS, to % BOARD_COLUMNS, to / BOARD_COLUMNS);
+    }
+
+    /**
+     * Reverts move described by given undo record. Moves made after it must be reverted first.
+     * @param record Undo record returned by makeMove or createUndoRecord.
+     * @return No return value.
+     */
+    public void unmakeMove(long record) {
+        int from = (int) (record & RECORD_CELL_MASK);
+        int to = (int) ((record >>> RECORD_CELL_BITS) & RECORD_CELL_MASK);
+        int capturedNumber = (int) (record >>> (RECORD_CELL_BITS * 2));
+        int fromX = from % BOARD_COLUMNS;
+        int fromY = from / BOARD_COLUMNS;
+        int toX = to % BOARD_COLUMNS;
+        int toY = to / BOARD_COLUMNS;
+        ChessPiece piece = getChessPiece(toX, toY);
+        piece.setPosition(fromX, fromY);
+        moveInIndex(piece, to, from);
+        if(capturedNumber > 0) {
+            setChessPiece(CAPTURED_PIECES.get(capturedNumber - 1), toX, toY);
+        }
+        flipSideToMove();
+    }
+
+    /**
+     * Creates undo record of a move that has been made without makeMove, such as moves saved for undo feature.
+     * @param fromX Origin x-coordinate
+     * @param fromY Origin y-coordinate
+     * @param toX Destination x-coordinate
+     * @param toY Destination y-coordinate
+     * @param captured Piece captured by the move. Null if nothing captured.
+     * @return Undo record to pass to unmakeMove.
+     * @throws IllegalStateException If more pieces have been captured since last clearChessBoard than a record can refer to.
+     */
+    public long createUndoRecord(int fromX, int fromY, int toX, int toY, ChessPiece captured) {
+        long record = (fromY * BOARD_COLUMNS + fromX) | ((long) (toY * BOARD_COLUMNS + toX) << RECORD_CELL_BITS);
+        if(captured != null) {
+            Integer number = CAPTURED_INDEX.get(captured);
+            if(number == null) {
+                if(CAPTURED_PIECES.size() == MAX_CAPTURED) {
+                    throw new IllegalStateException("Too many captured pieces: " + MAX_CAPTURED);
+                }
+                number = CAPTURED_PIECES.size();
+                CAPTURED_PIECES.add(captured);
+                CAPTURED_INDEX.put(captured, number);
+            }
+            record |= (long) (number + 1) << (RECORD_CELL_BITS * 2);
+        }
+        return record;
     }
 
     /**
-     * Clears all cells of chessboard to null.
+     * Clears all cells of chessboard to empty.
+     * Pieces captured by earlier moves are forgotten too, so undo records created before clearing must not be used after.
      * @return no value.
      */
     public void clearChessBoard() {
-        for(int index_y = 0; index_y < BOARD_ROWS; index_y++) {
-            for(int index_x = 0; index_x < BOARD_COLUMNS; index_x++) {
-                deleteChessPiece(index_x, index_y);
+        PIECE_INDEX.clear();
+        SQUARES.clear();
+        LIST_POSITIONS.clear();
+        for(int side = 0; side < 2; side++) {
+            Arrays.fill(PIECE_OBJECTS[side], 0, PIECE_COUNTS[side], null);
+            PIECE_COUNTS[side] = 0;
+        }
+        KING_SQUARES[0] = -1;
+        KING_SQUARES[1] = -1;
+        CAPTURED_PIECES.clear();
+        CAPTURED_INDEX.clear();
+        HASH = (SIDE_TO_MOVE == 0) ? Zobrist.SIDE_KEY : 0;
+        ATTACK_MAP.clear();
+        if(BOARD_BITS != null) {
+            BOARD_BITS.clear();
+        }
+        if(PIECE_MOVES != null) {
+            PIECE_MOVES.clear();
+        }
+    }
+
+    /**
+     * Gets Zobrist hash of current position, including side to move. Hash is kept up to date, so this takes constant time.
+     * Positions with same pieces on same cells and same side to move have same hash on boards of same size.
+     * @return 64-bit Zobrist hash.
+     */
+    public long hash() {
+        return HASH;
+    }
+
+    /**
+     * Gets side to move included in hash.
+     * @return 0 if black, 1 if white.
+     */
+    public int getSideToMove() {
+        return SIDE_TO_MOVE;
+    }
+
+    /**
+     * Sets side to move included in hash. Boards start with white to move, and makeMove / unmakeMove flip it.
+     * @param side 0 if black, 1 if white.
+     * @return No return value.
+     */
+    public void setSideToMove(int side) {
+        if(side != SIDE_TO_MOVE) {
+            flipSideToMove();
+        }
+    }
+
+    /**
+     * Helper function to pass turn to the other side in hash.
+     */
+    private void flipSideToMove() {
+        SIDE_TO_MOVE = 1 - SIDE_TO_MOVE;
+        HASH ^= Zobrist.SIDE_KEY;
+    }
+
+    /**
+     * Helper function to register piece set on given cell to masks, cell codes, piece list, code index and King cells.
+     */
+    private void addToIndex(ChessPiece piece, int xCoordinate, int yCoordinate) {
+        if(BOARD_BITS != null) {
+            BOARD_BITS.addPiece(piece.getSide(), piece.getType(), yCoordinate * BitBoard.SIZE + xCoordinate);
+        }
+        ATTACK_MAP.addPiece(piece.getSide(), piece.getType(), yCoordinate * BOARD_COLUMNS + xCoordinate);
+        HASH ^= getPieceKey(piece, yCoordinate * BOARD_COLUMNS + xCoordinate);
+        PIECE_INDEX.put(piece.getCode(), yCoordinate * BOARD_COLUMNS + xCoordinate);
+        SQUARES.put(yCoordinate * BOARD_COLUMNS + xCoordinate, piece.getSide() * ChessPiece.TYPE_COUNT + piece.getType() + 1);
+        addToList(piece.getSide(), yCoordinate * BOARD_COLUMNS + xCoordinate, piece);
+        if(piece.getType() == ChessPiece.KING) {
+            KING_SQUARES[piece.getSide()] = yCoordinate * BOARD_COLUMNS + xCoordinate;
+        }
+        if(PIECE_MOVES != null) {
+            PIECE_MOVES.invalidate(yCoordinate * BOARD_COLUMNS + xCoordinate);
+        }
+    }
+
+    /**
+     * Helper function to unregister piece removed from given cell.
+     * Code index and King cell are only cleared if piece was last set on given cell,
+     * since same piece object may have been set on another cell without deleting this one.
+     */
+    private void removeFromIndex(ChessPiece piece, int xCoordinate, int yCoordinate) {
+        if(BOARD_BITS != null) {
+            BOARD_BITS.removePiece(piece.getSide(), piece.getType(), yCoordinate * BitBoard.SIZE + xCoordinate);
+        }
+        ATTACK_MAP.removePiece(yCoordinate * BOARD_COLUMNS + xCoordinate);
+        HASH ^= getPieceKey(piece, yCoordinate * BOARD_COLUMNS + xCoordinate);
+        SQUARES.put(yCoordinate * BOARD_COLUMNS + xCoordinate, 0);
+        removeFromList(piece.getSide(), yCoordinate * BOARD_COLUMNS + xCoordinate);
+        if(PIECE_MOVES != null) {
+            PIECE_MOVES.invalidate(yCoordinate * BOARD_COLUMNS + xCoordinate);
+        }
+        if(piece.getXCoordinate() != xCoordinate || piece.getYCoordinate() != yCoordinate) {
+            return;
+        }
+        if(PIECE_INDEX.get(piece.getCode(), -1) == yCoordinate * BOARD_COLUMNS + xCoordinate) {
+            PIECE_INDEX.remove(piece.getCode());
+        }
+        if(piece.getType() == ChessPiece.KING && KING_SQUARES[piece.getSide()] == yCoordinate * BOARD_COLUMNS + xCoordinate) {
+            KING_SQUARES[piece.getSide()] = -1;
+        }
+    }
+
+    /**
+     * Helper function to get Zobrist key of given piece on given cell, from key table if board has one.
+     */
+    private long getPieceKey(ChessPiece piece, int square) {
+        if(PIECE_KEYS != null) {
+            return PIECE_KEYS[Zobrist.getIndex(piece.getSide(), piece.getType(), square)];
+        }
+        return Zobrist.getKey(piece.getSide(), piece.getType(), square);
+    }
+
+    /**
+     * Helper function to get piece on given cell from piece list of its side.
+     */
+    private ChessPiece getPieceAt(int square) {
+        int code = SQUARES.get(square);
+        if(code == 0) {
+            return null;
+        }
+        return PIECE_OBJECTS[(code - 1) / ChessPiece.TYPE_COUNT][LIST_POSITIONS.get(square)];
+    }
+
+    /**
+     * Helper function to insert cell and piece into piece list of given side in row order, growing the list if full.
+     * Entries of later cells are shifted back by one.
+     */
+    private void addToList(int side, int square, ChessPiece piece) {
+        if(PIECE_COUNTS[side] == PIECE_SQUARES[side].length) {
+            PIECE_SQUARES[side] = Arrays.copyOf(PIECE_SQUARES[side], PIECE_COUNTS[side] * 2);
+            PIECE_OBJECTS[side] = Arrays.copyOf(PIECE_OBJECTS[side], PIECE_COUNTS[side] * 2);
+        }
+        int[] squares = PIECE_SQUARES[side];
+        ChessPiece[] pieces = PIECE_OBJECTS[side];
+        int position = PIECE_COUNTS[side]++;
+        while(position > 0 && squares[position - 1] > square) {
+            squares[position] = squares[position - 1];
+            pieces[position] = pieces[position - 1];
+            LIST_POSITIONS.put(squares[position], position);
+            position--;
+        }
+        squares[position] = square;
+        pieces[position] = piece;
+        LIST_POSITIONS.put(square, position);
+    }
+
+    /**
+     * Helper function to remove cell from piece list of given side, shifting entries of later cells forward by one.
+     */
+    private void removeFromList(int side, int square) {
+        int[] squares = PIECE_SQUARES[side];
+        ChessPiece[] pieces = PIECE_OBJECTS[side];
+        int count = --PIECE_COUNTS[side];
+        int start = LIST_POSITIONS.get(square);
+        LIST_POSITIONS.put(square, 0);
+        for(int position = start; position < count; position++) {
+            squares[position] = squares[position + 1];
+            pieces[position] = pieces[position + 1];
+            LIST_POSITIONS.put(squares[position], position);
+        }
+        pieces[count] = null;
+    }
+
+    /**
+     * Helper function to move entry of piece list of given side from one cell to another, keeping row order.
+     * Only entries of cells between the two are shifted, so short moves touch few entries.
+     */
+    private void moveInList(int side, int from, int to) {
+        int[] squares = PIECE_SQUARES[side];
+        ChessPiece[] pieces = PIECE_OBJECTS[side];
+        int position = LIST_POSITIONS.get(from);
+        LIST_POSITIONS.put(from, 0);
+        ChessPiece piece = pieces[position];
+        if(to > from) {
+            while(position + 1 < PIECE_COUNTS[side] && squares[position + 1] < to) {
+                squares[position] = squares[position + 1];
+                pieces[position] = pieces[position + 1];
+                LIST_POSITIONS.put(squares[position], position);
+                position++;
+            }
+        } else {
+            while(position > 0 && squares[position - 1] > to) {
+                squares[position] = squares[position - 1];
+                pieces[position] = pieces[position - 1];
+                LIST_POSITIONS.put(squares[position], position);
+                position--;
             }
         }
+        squares[position] = to;
+        pieces[position] = piece;
+        LIST_POSITIONS.put(to, position);
+    }
+
+    /**
+     * Helper function to update masks, cell codes, piece list, code index and King cell of piece moving between given cells.
+     */
+    private void moveInIndex(ChessPiece piece, int from, int to) {
+        if(BOARD_BITS != null) {
+            BOARD_BITS.removePiece(piece.getSide(), piece.getType(), from);
+            BOARD_BITS.addPiece(piece.getSide(), piece.getType(), to);
+        }
+        ATTACK_MAP.removePiece(from);
+        ATTACK_MAP.addPiece(piece.getSide(), piece.getType(), to);
+        HASH ^= getPieceKey(piece, from) ^ getPieceKey(piece, to);
+        SQUARES.put(to, SQUARES.get(from));
+        SQUARES.put(from, 0);
+        moveInList(piece.getSide(), from, to);
+        if(PIECE_INDEX.get(piece.getCode(), -1) == from) {
+            PIECE_INDEX.put(piece.getCode(), to);
+        }
+        if(piece.getType() == ChessPiece.KING) {
+            KING_SQUARES[piece.getSide()] = to;
+        }
+        if(PIECE_MOVES != null) {
+            PIECE_MOVES.invalidate(from);
+            PIECE_MOVES.invalidate(to);
+        }
     }
 
     /**
      * Checks if given side is on check status and returns list of attackers.
+     * King is not counted as attacker here, since it is checked in ChessLibrary.MovesListCreator class.
      * @param side Side to check if being checked.
      * @return List of attackers.
      */
     public List<ChessPiece> checkIfCheck(int side) {
         List<ChessPiece> attackerList = new ArrayList<>();
-        // Search all cells and look for attackers
-        for(int index_y = 0; index_y < BOARD_ROWS; index_y++) {
-            for(int index_x = 0; index_x < BOARD_COLUMNS; index_x++) {
-                ChessPiece attacker = getChessPiece(index_x, index_y); // attacker piece
-                // King is checked in MoveListCreator class
-                if(attacker != null && !(attacker instanceof King) && attacker.getSide() != side) {
-                    List<IntPair> movesList = getMoves(attacker);
-                    for(int count = 0; count < movesList.size(); count++) {
-                        ChessPiece victimPiece = getChessPiece(movesList.get(count).left(), movesList.get(count).right());
-                        if(victimPiece instanceof King && victimPiece.getSide() == side) {
-                            attackerList.add(attacker);
-                        }
-                    }
-                }
+        int kingSquare = KING_SQUARES[side];
+        // Attack counts tell if King is attacked before looking for attackers
+        if(kingSquare < 0 || ATTACK_MAP.getAttackCount(1 - side, kingSquare) == 0) {
+            return attackerList;
+        }
+        if(BOARD_BITS != null) {
+            long attackers = BOARD_BITS.getAttackers(kingSquare, 1 - side, false);
+            while(attackers != 0) {
+                int attacker = Long.numberOfTrailingZeros(attackers);
+                attackerList.add(getPieceAt(attacker));
+                attackers &= attackers - 1;
+            }
+            return attackerList;
+        }
+        List<ChessPiece> kingAttackers = getAttackers(kingSquare % BOARD_COLUMNS, kingSquare / BOARD_COLUMNS, 1 - side);
+        for(int count = 0; count < kingAttackers.size(); count++) {
+            if(kingAttackers.get(count).getType() != ChessPiece.KING) {
+                attackerList.add(kingAttackers.get(count));
+            }
+        }
+        return attackerList;
+    }
+
+    /**
+     * Finds pieces of given side attacking given position.
+     * @param xCoordinate
+     * @param yCoordinate
+     * @param side Side of attacking pieces.
+     * @return List of attackers in order of their position, row by row.
+     */
+    public List<ChessPiece> getAttackers(int xCoordinate, int yCoordinate, int side) {
+        List<ChessPiece> attackerList = new ArrayList<>();
+        int square = yCoordinate * BOARD_COLUMNS + xCoordinate;
+        if(ATTACK_MAP.getAttackCount(side, square) == 0) {
+            return attackerList;
+        }
+        if(BOARD_BITS != null) {
+            // Bits are visited in same order as cells
+            long attackers = BOARD_BITS.getAttackers(square, side, true);
+            while(attackers != 0) {
+                int attacker = Long.numberOfTrailingZeros(attackers);
+                attackerList.add(getPieceAt(attacker));
+                attackers &= attackers - 1;
+            }
+        } else {
+            int[] buffer = new int[32];
+            int size = ATTACK_MAP.getAttackers(side, square, buffer);
+            for(int count = 0; count < size; count++) {
+                attackerList.add(getPieceAt(buffer[count]));
             }
         }
         return attackerList;
     }
 
+    /**
+     * Checks if given position is attacked by any piece of given side.
+     * @param xCoordinate
+     * @param yCoordinate
+     * @param side Side of attacking pieces.
+     * @return True if attacked, false if not.
+     */
+    public boolean isAttacked(int xCoordinate, int yCoordinate, int side) {
+        return ATTACK_MAP.getAttackCount(side, yCoordinate * BOARD_COLUMNS + xCoordinate) > 0;
+    }
+
+    /**
+     * Checks if given position would be attacked by any piece of given side if piece on excluded position were removed.
+     * Board is not changed, so moves of King can be checked without moving it.
+     * @param xCoordinate
+     * @param yCoordinate
+     * @param side Side of attacking pieces.
+     * @param excludedX X-coordinate of piece to leave out.
+     * @param excludedY Y-coordinate of piece to leave out.
+     * @return True if attacked, false if not.
+     */
+    public boolean isAttackedWithout(int xCoordinate, int yCoordinate, int side, int excludedX, int excludedY) {
+        return ATTACK_MAP.isAttackedWithout(side, yCoordinate * BOARD_COLUMNS + xCoordinate, excludedY * BOARD_COLUMNS + excludedX);
+    }
+
+    /**
+     * Finds first piece from given cell in given direction, which is where a sliding piece on given cell is blocked.
+     * @param square Cell index (y * columns + x) to look from.
+     * @param direction Direction index of ChessLibrary.MoveTables, in order E, SE, NE, W, SW, NW, S, N.
+     * @return Cell index of the piece. ChessLibrary.MoveTables.NONE if path to the border is empty.
+     */
+    public int getFirstBlocker(int square, int direction) {
+        if(BOARD_BITS != null) {
+            return BOARD_BITS.getFirstBlocker(square, direction);
+        }
+        return ATTACK_MAP.findFirstPiece(square, direction);
+    }
+
+    /**
+     * Finds cell where Charger of given side on given cell stops in given direction: first enemy piece,
+     * cell right before first ally piece, or border of the board.
+     * @param side Side of the Charger.
+     * @param square Cell index (y * columns + x) of the Charger.
+     * @param direction Direction index of ChessLibrary.MoveTables, in order E, SE, NE, W, SW, NW, S, N.
+     * @return Cell index of the stop. ChessLibrary.MoveTables.NONE if Charger cannot move in that direction.
+     */
+    public int getChargerStop(int side, int square, int direction) {
+        if(BOARD_BITS != null) {
+            return BOARD_BITS.getChargerStop(side, square, direction);
+        }
+        return ATTACK_MAP.findChargerStop(side, square, direction);
+    }
+
+    /**
+     * Checks if King of given side is attacked. Unlike checkIfCheck, enemy King is also counted as attacker.
+     * @param side Side to check if being checked.
+     * @return True if checked, false if not.
+     */
+    public boolean isInCheck(int side) {
+        int kingSquare = KING_SQUARES[side];
+        return kingSquare >= 0 && ATTACK_MAP.getAttackCount(1 - side, kingSquare) > 0;
+    }
+
     /**
      * Checks if check can be resolved by capturing attacker or blocking attacker's path.
      * @param side Side being checked(attacked).
      * @return True if yes, false if no.
      */
     public boolean checkDefendAttack(int side) {
-        for (int index_y = 0; index_y < BOARD_ROWS; index_y++) {
-            for (int index_x = 0; index_x < BOARD_COLUMNS; index_x++) {
-                ChessPiece defender = getChessPiece(index_x, index_y);
-                if(defender != null && defender.getSide() == side) {
-                    List<IntPair> movesList = getMoves(defender);
-                    IntPair currentPosition = defender.getPosition();
-                    for(int count = 0; count < movesList.size(); count++) {
-                        IntPair destination = movesList.get(count);
-                        // Temporarily move piece to destination
-                        deleteChessPiece(currentPosition.left(), currentPosition.right());
-                        ChessPiece deleted = getChessPiece(destination.left(), destination.right());
-                        setChessPiece(defender, destination.left(), destination.right());
-                        // Check if moving defender resolved check status
-                        List<ChessPiece> attackerList = checkIfCheck(defender.getSide());
-                        // Undo move
-                        deleteChessPiece(destination.left(), destination.right());
-                        if(deleted != null) {
-                            setChessPiece(deleted, destination.left(), destination.right());
-                        }
-                        setChessPiece(defender, currentPosition.left(), currentPosition.right());
-                        if(attackerList.size() == 0) {
-                            return true;
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+        return getLegalMovesCreator().hasLegalMove(side);
     }
 
     /**
-     * Checks if current board is in stalemate state.
+     * Checks if current board is in stalemate state: given side is not checked, but has no legal move.
      * @param side Which side's king to examine.
      * @return True if stalemate, false otherwise.
      */
     public boolean checkStaleMate(int side) {
-        MovesListCreator creator = new MovesListCreator(this, BOARD_ROWS, BOARD_COLUMNS);
-        ChessPiece king;
-        if(side == 0) {
-            king = getChessPieceById("0K0");
-        } else {
-            king = getChessPieceById("1K0");
-        }
-        List<IntPair> movesList = creator.createKingMovesWithoutOccupyCheck(king);
-        if(movesList.size() == 0) {
-            return true;
-        }
-        return false;
+        return !isInCheck(side) && !getLegalMovesCreator().hasLegalMove(side);
     }
 
     /**
@@ -178,27 +737,16 @@ public class ChessBoard {
      * @return 0 if nothing, 1 if check, 2 if checkmate, 3 if stalemate.
      */
     public int checkCheckStatus(int side) {
-        List<ChessPiece> attackerList = checkIfCheck(side);
-        if(attackerList.size() == 0) { // Not in check status
-            if(checkStaleMate(side)) {
-                return 3;
-            }
-            return 0;
-        }
-        ChessPiece king;
-        if(side == 0) {
-            king = getChessPieceById("0K0");
-        } else {
-            king = getChessPieceById("1K0");
-        }
+        return evaluateStatus(side).getStatus();
+    }
 
-        if(getMoves(king).size() > 0 || checkDefendAttack(side)) {
-            return 1;
-        }
-        if(getMoves(king).size() == 0 && !checkDefendAttack(side)) {
-            return 2;
-        }
-        return -1; // ERROR
+    /**
+     * Finds check status, pieces checking King and number of legal moves of given side in a single pass.
+     * @param side Side to evaluate.
+     * @return Status of given side in current setting of chessboard.
+     */
+    public GameStatus evaluateStatus(int side) {
+        return new GameStatus(side, isInCheck(side), checkIfCheck(side), getLegalMovesCreator().countMoves(side));
     }
 
     /**
@@ -207,44 +755,98 @@ public class ChessBoard {
      * @return List of available destinations in ChessLibrary.Util.IntPair.
      */
     public List<IntPair> getMoves(ChessPiece piece) {
-        List<IntPair> movesList = null;
-        MovesListCreator creator = new MovesListCreator(this, BOARD_ROWS, BOARD_COLUMNS);
-        char pieceType = piece.getIdentifier().charAt(1);
-        switch(pieceType) {
-            case 'K': {
-                movesList = creator.createKingMoves(piece);
-                break;
-            }
-            case 'Q': {
-                movesList = creator.createQueenMoves(piece);
-                break;
-            }
-            case 'r': {
-                movesList = creator.createRookMoves(piece);
-                break;
-            }
-            case 'b': {
-                movesList = creator.createBishopMoves(piece);
-                break;
-            }
-            case 'k': {
-                movesList = creator.createKnightMoves(piece);
-                break;
-            }
-            case 'p': {
-                movesList = creator.createPawnMoves(piece);
-                break;
-            }
-            case 'l': {
-                movesList = creator.createLeaperMoves(piece);
-                break;
-            }
-            case 'c': {
-                movesList = creator.createChargerMoves(piece);
-                break;
-            }
+        MoveBuffer buffer = new MoveBuffer();
+        getMoves(piece, buffer);
+        return buffer.getDestinations(BOARD_COLUMNS);
+    }
+
+    /**
+     * Gets currently available moves of a given piece as packed moves of ChessLibrary.Util.Move.
+     * Buffer is cleared first, so same buffer can be reused for every piece.
+     * @param piece Target chess piece to retrieve available moves.
+     * @param buffer Buffer to fill with packed moves.
+     * @return No return value.
+     */
+    public void getMoves(ChessPiece piece, MoveBuffer buffer) {
+        buffer.clear();
+        if(PIECE_MOVES != null) {
+            PIECE_MOVES.addMoves(piece, buffer);
+        } else {
+            getMovesCreator().createMoves(piece, buffer);
+        }
+    }
+
+    /**
+     * Gets legal moves of a given piece as packed moves of ChessLibrary.Util.Move. Moves leaving own King attacked are not included.
+     * Buffer is cleared first, so same buffer can be reused for every piece.
+     * @param piece Target chess piece to retrieve legal moves.
+     * @param buffer Buffer to fill with packed moves.
+     * @return No return value.
+     */
+    public void getLegalMoves(ChessPiece piece, MoveBuffer buffer) {
+        buffer.clear();
+        getLegalMovesCreator().createMoves(piece, buffer);
+    }
+
+    /**
+     * Gets legal moves of every piece of given side, in order pieces are found scanning the board row by row.
+     * Buffer is cleared first.
+     * @param side Side to retrieve legal moves of.
+     * @param buffer Buffer to fill with packed moves.
+     * @return No return value.
+     */
+    public void getLegalMoves(int side, MoveBuffer buffer) {
+        buffer.clear();
+        getLegalMovesCreator().createAllMoves(side, buffer);
+    }
+
+    /**
+     * Gets legal move creator of this board, creating it on first use.
+     * @return ChessLibrary.LegalMovesCreator examining this board.
+     * @throws IllegalArgumentException If chessboard has more cells than ChessLibrary.Util.Move can hold.
+     */
+    public LegalMovesCreator getLegalMovesCreator() {
+        if(LEGAL_MOVES_CREATOR == null) {
+            LEGAL_MOVES_CREATOR = new LegalMovesCreator(this, BOARD_ROWS, BOARD_COLUMNS);
+        }
+        return LEGAL_MOVES_CREATOR;
+    }
+
+    /**
+     * Sets whether possible moves of each piece are kept between moves in ChessLibrary.PieceMovesCache.
+     * Disabled by default, since keeping them costs a little on every change of the board.
+     * Worth enabling on boards whose moves are asked for repeatedly, such as board of ChessLibrary.Game.
+     * While enabled, board must be used by one thread at a time, even for reading moves.
+     * @param enabled True to keep moves, false to create them every time.
+     * @return No return value.
+     * @throws IllegalArgumentException If chessboard has more cells than ChessLibrary.Util.Move can hold.
+     */
+    public void setPieceMovesCache(boolean enabled) {
+        if(!enabled) {
+            PIECE_MOVES = null;
+        } else if(PIECE_MOVES == null) {
+            PIECE_MOVES = new PieceMovesCache(this, BOARD_ROWS, BOARD_COLUMNS);
+        }
+    }
+
+    /**
+     * Gets kept possible moves of pieces of this board.
+     * @return ChessLibrary.PieceMovesCache object. Null if not enabled by setPieceMovesCache.
+     */
+    public PieceMovesCache getPieceMovesCache() {
+        return PIECE_MOVES;
+    }
+
+    /**
+     * Gets move creator of this board, creating it on first use.
+     * @return ChessLibrary.MovesListCreator examining this board.
+     * @throws IllegalArgumentException If chessboard has more cells than ChessLibrary.Util.Move can hold.
+     */
+    public MovesListCreator getMovesCreator() {
+        if(MOVES_CREATOR == null) {
+            MOVES_CREATOR = new MovesListCreator(this, BOARD_ROWS, BOARD_COLUMNS);
         }
-        return movesList;
+        return MOVES_CREATOR;
     }
 
     /**
@@ -256,26 +858,26 @@ public class ChessBoard {
         // ChessLibrary.Pieces.Pawn setup
         for(int count = 0; count < 8; count++) {
             ChessPiece blackPawn = new Pawn(0, count, count, 1);
-            BOARD_PIECES[1][count] = blackPawn;
+            setChessPiece(blackPawn, count, 1);
             ChessPiece whitePawn = new Pawn(1, count, count, 6);
-            BOARD_PIECES[6][count] = whitePawn;
+            setChessPiece(whitePawn, count, 6);
         }
         // ChessLibrary.Pieces.Rook setup
         int id = 0; // id for pairs of rook, bishop and knight
         for(int count = 0; count <= 7; count += 7) {
             ChessPiece blackRook = new Rook(0, id, count, 0);
-            BOARD_PIECES[0][count] = blackRook;
+            setChessPiece(blackRook, count, 0);
             ChessPiece whiteRook = new Rook(1, id, count, 7);
-            BOARD_PIECES[7][count] = whiteRook;
+            setChessPiece(whiteRook, count, 7);
             id++;
         }
         // ChessLibrary.Pieces.Bishop setup
         id = 0;
         for(int count = 2; count <= 5; count += 3) {
             ChessPiece blackBishop = new Bishop(0, id, count, 0);
-            BOARD_PIECES[0][count] = blackBishop;
+            setChessPiece(blackBishop, count, 0);
             ChessPiece whiteBishop = new Bishop(1, id, count, 7);
-            BOARD_PIECES[7][count] = whiteBishop;
+            setChessPiece(whiteBishop, count, 7);
             id++;
         }
         // if customPiece is true, setup leapers. Else, setup knights.
@@ -283,36 +885,36 @@ public class ChessBoard {
         if(!customPiece) {
             for(int count = 1; count <= 6; count += 5) {
                 ChessPiece blackKnight = new Knight(0, id, count, 0);
-                BOARD_PIECES[0][count] = blackKnight;
+                setChessPiece(blackKnight, count, 0);
                 ChessPiece whiteKnight = new Knight(1, id, count, 7);
-                BOARD_PIECES[7][count] = whiteKnight;
+                setChessPiece(whiteKnight, count, 7);
                 id++;
             }
         } else {
             for(int count = 1; count <= 6; count += 5) {
                 ChessPiece blackLeaper = new Leaper(0, id, count, 0);
-                BOARD_PIECES[0][count] = blackLeaper;
+                setChessPiece(blackLeaper, count, 0);
                 ChessPiece whiteLeaper = new Leaper(1, id, count, 7);
-                BOARD_PIECES[7][count] = whiteLeaper;
+                setChessPiece(whiteLeaper, count, 7);
                 id++;
             }
         }
         // if customPiece is true, setup chargers. Else, setup queens.
         if(!customPiece) {
             ChessPiece blackQueen = new Queen(0, 0, 3, 0);
-            BOARD_PIECES[0][3] = blackQueen;
+            setChessPiece(blackQueen, 3, 0);
             ChessPiece whiteQueen = new Queen(1, 0, 3, 7);
-            BOARD_PIECES[7][3] = whiteQueen;
+            setChessPiece(whiteQueen, 3, 7);
         } else {
             ChessPiece blackCharger = new Charger(0, 0, 3, 0);
-            BOARD_PIECES[0][3] = blackCharger;
+            setChessPiece(blackCharger, 3, 0);
             ChessPiece whiteCharger = new Charger(1, 0, 3, 7);
-            BOARD_PIECES[7][3] = whiteCharger;
+            setChessPiece(whiteCharger, 3, 7);
         }
         // ChessLibrary.Pieces.King setup
         ChessPiece blackKing = new King(0, 0, 4, 0);
-        BOARD_PIECES[0][4] = blackKing;
+        setChessPiece(blackKing, 4, 0);
         ChessPiece whiteKing = new King(1, 0, 4, 7);
-        BOARD_PIECES[7][4] = whiteKing;
+        setChessPiece(whiteKing, 4, 7);
     }
 }
@@ -0,0 +1,411 @@
+package ChessLibrary.Engine;
+
+import ChessLibrary.BoardSnapshot;
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Game;
+import ChessLibrary.Util.Move;
+import ChessLibrary.Util.MoveBuffer;
+
+/**
+ * ChessLibrary.Engine.Engine -- Computer player searching for best move with iterative-deepening alpha-beta search.
+ * Search runs on a board created from the game's latest ChessLibrary.BoardSnapshot with ChessBoard.makeMove / unmakeMove,
+ * so game is not changed and may be played on another thread meanwhile.
+ * Depth 1 is always searched to the end; deeper iterations are abandoned once time limit has passed,
+ * and best move of the last finished iteration is played.
+ * Captures are searched further in quiescence search, so leaves are not evaluated in the middle of an exchange.
+ * Moves are tried in order: best move of previous iteration or of transposition table,
+ * captures by most valuable victim / least valuable attacker, two killer moves of the ply, then other moves in generated order.
+ * Results are kept in a ChessLibrary.Engine.TranspositionTable, whose best moves are tried first and whose scores cut off
+ * positions reached again through another move order.
+ * One engine can be reused for many games; it is not thread-safe.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class Engine {
+    /**
+     * Returned by bestMove when side to move has no legal move. No real move packs to 0, since origin differs from destination.
+     */
+    public static final long NO_MOVE = 0;
+    /**
+     * Score of being checkmated at root. Mate in n plies scores -(MATE_SCORE - n) for the mated side.
+     */
+    public static final int MATE_SCORE = 1000000;
+    private static final int INFINITY = MATE_SCORE + 1;
+    private static final int MAX_PLY = 64;
+    // Clock is read once for this many nodes.
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int HASH_MOVE_ORDER = 1 << 30;
+    private static final int CAPTURE_ORDER = 1 << 20;
+    private static final int KILLER_ORDER = 1 << 10;
+
+    private static final int DEFAULT_TABLE_SIZE = 16;
+
+    private ChessBoard BOARD;
+    private Evaluator EVALUATOR;
+    private TranspositionTable TABLE;
+    // One buffer and order array for each ply, so moves of outer plies are kept while inner plies are searched.
+    private MoveBuffer[] MOVE_BUFFERS = new MoveBuffer[MAX_PLY + 1];
+    private int[][] MOVE_ORDERS = new int[MAX_PLY + 1][];
+    private MoveBuffer PIECE_BUFFER = new MoveBuffer();
+    // Cells of pieces of side to move in row order, refilled for each generateMoves.
+    private int[] PIECE_SQUARES = new int[16];
+    private long[][] KILLER_MOVES = new long[MAX_PLY + 1][2];
+    private long DEADLINE;
+    private boolean STOPPED;
+    private long NODES;
+    private int LAST_DEPTH;
+    private int LAST_SCORE;
+
+    /**
+     * Engine constructor. Creates its own transposition table of 16 megabytes.
+     */
+    public Engine() {
+        this(new TranspositionTable(DEFAULT_TABLE_SIZE, TranspositionTable.REPLACE_AGED_DEPTH));
+    }
+
+    /**
+     * Engine constructor.
+     * @param table Transposition table to use. Entries are kept between searches, and table may be shared between engines.
+     */
+    public Engine(TranspositionTable table) {
+        TABLE = table;
+        for(int ply = 0; ply <= MAX_PLY; ply++) {
+            MOVE_BUFFERS[ply] = new MoveBuffer(64);
+            MOVE_ORDERS[ply] = new int[64];
+        }
+    }
+
+    /**
+     * Searches best move for side to move of given game.
+     * @param game Game to search. Its board is not changed.
+     * @param timeLimit Time budget in milliseconds. Depth 1 is finished even if it takes longer.
+     * @return Packed move of ChessLibrary.Util.Move on game's board, NO_MOVE if there is no legal move.
+     */
+    public long bestMove(Game game, long timeLimit) {
+        return bestMove(game, timeLimit, MAX_PLY);
+    }
+
+    /**
+     * Searches best move for side to move of given game, up to given depth.
+     * @param game Game to search. Its board is not changed.
+     * @param timeLimit Time budget in milliseconds. Depth 1 is finished even if it takes longer.
+     * @param maxDepth Largest depth to search, at most 64.
+     * @return Packed move of ChessLibrary.Util.Move on game's board, NO_MOVE if there is no legal move.
+     */
+    public long bestMove(Game game, long timeLimit, int maxDepth) {
+        // Snapshot is read without locks, so game may go on being played while searching
+        BoardSnapshot snapshot = game.getSnapshot();
+        BOARD = snapshot.toBoard();
+        if(EVALUATOR == null || EVALUATOR.getRows() != BOARD.getRows() || EVALUATOR.getColumns() != BOARD.getColumns()) {
+            EVALUATOR = new Evaluator(BOARD.getRows(), BOARD.getColumns());
+        }
+        int side = snapshot.getTurn();
+        long deadline = System.nanoTime() + timeLimit * 1000000L;
+        STOPPED = false;
+        TABLE.newSearch();
+        NODES = 0;
+        LAST_DEPTH = 0;
+        LAST_SCORE = 0;
+        for(int ply = 0; ply <= MAX_PLY; ply++) {
+            KILLER_MOVES[ply][0] = NO_MOVE;
+            KILLER_MOVES[ply][1] = NO_MOVE;
+        }
+        int eval = EVALUATOR.evaluate(BOARD, side);
+        long bestMove = NO_MOVE;
+        for(int depth = 1; depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+            // Depth 1 is always finished, so there is a move to play
+            DEADLINE = (depth == 1) ? Long.MAX_VALUE : deadline;
+            long move = searchRoot(depth, side, eval, bestMove);
+            if(STOPPED) {
+                break;
+            }
+            bestMove = move;
+            LAST_DEPTH = depth;
+            // No legal move, or forced mate found; deeper search cannot change the result
+            if(bestMove == NO_MOVE || Math.abs(LAST_SCORE) >= MATE_SCORE - MAX_PLY) {
+                break;
+            }
+            if(System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        BOARD = null;
+        return bestMove;
+    }
+
+    /**
+     * Gets number of nodes visited by last search.
+     * @return Number of nodes, including quiescence nodes.
+     */
+    public long getNodes() {
+        return NODES;
+    }
+
+    /**
+     * Gets transposition table of this engine, for example to read its statistics.
+     * @return Transposition table.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return TABLE;
+    }
+
+    /**
+     * Gets depth of last finished iteration of last search.
+     * @return Depth in plies.
+     */
+    public int getLastDepth() {
+        return LAST_DEPTH;
+    }
+
+    /**
+     * Gets score of best move found by last search, from side to move's point of view.
+     * @return Score in centipawns, or mate score.
+     */
+    public int getLastScore() {
+        return LAST_SCORE;
+    }
+
+    /**
+     * Helper function to search root position. Best move of previous iteration is searched first.
+     */
+    private long searchRoot(int depth, int side, int eval, long previousBest) {
+        MoveBuffer buffer = MOVE_BUFFERS[0];
+        generateMoves(buffer, side, false);
+        int[] order = scoreMoves(buffer, 0, previousBest);
+        int alpha = -INFINITY;
+        long bestMove = NO_MOVE;
+        for(int count = 0; count < buffer.size(); count++) {
+            long move = pickNextMove(buffer, order, count);
+            long record = BOARD.makeMove(move);
+            if(BOARD.isInCheck(side)) {
+                BOARD.unmakeMove(record);
+                continue;
+            }
+            int score = -search(depth - 1, 1, 1 - side, -INFINITY, -alpha, -(eval + EVALUATOR.getMoveDelta(move, side)));
+            BOARD.unmakeMove(record);
+            if(STOPPED) {
+                return NO_MOVE;
+            }
+            if(score > alpha) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+        if(bestMove == NO_MOVE) {
+            LAST_SCORE = BOARD.isInCheck(side) ? -MATE_SCORE : 0;
+        } else {
+            LAST_SCORE = alpha;
+        }
+        return bestMove;
+    }
+
+    /**
+     * Helper function for alpha-beta search. Eval is static evaluation of current position for side to move.
+     */
+    private int search(int depth, int ply, int side, int alpha, int beta, int eval) {
+        if(depth <= 0 || ply >= MAX_PLY) {
+            return quiescence(ply, side, alpha, beta, eval);
+        }
+        if(checkTime()) {
+            return 0;
+        }
+        long hash = BOARD.hash();
+        long entry = TABLE.probe(hash);
+        long hashMove = NO_MOVE;
+        if(entry != TranspositionTable.MISS) {
+            hashMove = TABLE.probeMove(hash);
+            if(TranspositionTable.getDepth(entry) >= depth) {
+                int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+                if(bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+        int originalAlpha = alpha;
+        long bestMove = NO_MOVE;
+        MoveBuffer buffer = MOVE_BUFFERS[ply];
+        generateMoves(buffer, side, false);
+        int[] order = scoreMoves(buffer, ply, hashMove);
+        boolean hasLegalMove = false;
+        for(int count = 0; count < buffer.size(); count++) {
+            long move = pickNextMove(buffer, order, count);
+            long record = BOARD.makeMove(move);
+            if(BOARD.isInCheck(side)) {
+                BOARD.unmakeMove(record);
+                continue;
+            }
+            hasLegalMove = true;
+            int score = -search(depth - 1, ply + 1, 1 - side, -beta, -alpha, -(eval + EVALUATOR.getMoveDelta(move, side)));
+            BOARD.unmakeMove(record);
+            if(STOPPED) {
+                return 0;
+            }
+            if(score > alpha) {
+                alpha = score;
+                bestMove = move;
+                if(alpha >= beta) {
+                    if(!Move.isCapture(move) && KILLER_MOVES[ply][0] != move) {
+                        KILLER_MOVES[ply][1] = KILLER_MOVES[ply][0];
+                        KILLER_MOVES[ply][0] = move;
+                    }
+                    TABLE.store(hash, move, toTableScore(alpha, ply), depth, TranspositionTable.LOWER_BOUND);
+                    return alpha;
+                }
+            }
+        }
+        if(!hasLegalMove) {
+            // Checkmate, preferring faster mates, or stalemate
+            return BOARD.isInCheck(side) ? -MATE_SCORE + ply : 0;
+        }
+        TABLE.store(hash, bestMove, toTableScore(alpha, ply), depth,
+                (alpha > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND);
+        return alpha;
+    }
+
+    /**
+     * Helper function to search captures only, until position is quiet. Side to move may also stand pat on eval.
+     */
+    private int quiescence(int ply, int side, int alpha, int beta, int eval) {
+        if(checkTime()) {
+            return 0;
+        }
+        if(eval >= beta) {
+            return eval;
+        }
+        if(eval > alpha) {
+            alpha = eval;
+        }
+        if(ply >= MAX_PLY) {
+            return alpha;
+        }
+        MoveBuffer buffer = MOVE_BUFFERS[ply];
+        generateMoves(buffer, side, true);
+        int[] order = scoreMoves(buffer, ply, NO_MOVE);
+        for(int count = 0; count < buffer.size(); count++) {
+            long move = pickNextMove(buffer, order, count);
+            long record = BOARD.makeMove(move);
+            if(BOARD.isInCheck(side)) {
+                BOARD.unmakeMove(record);
+                continue;
+            }
+            int score = -quiescence(ply + 1, 1 - side, -beta, -alpha, -(eval + EVALUATOR.getMoveDelta(move, side)));
+            BOARD.unmakeMove(record);
+            if(STOPPED) {
+                return 0;
+            }
+            if(score > alpha) {
+                alpha = score;
+                if(alpha >= beta) {
+                    return alpha;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Helper function to convert mate score at given ply to distance from the stored position, so it holds on any path.
+     */
+    private int toTableScore(int score, int ply) {
+        if(score >= MATE_SCORE - MAX_PLY) {
+            return score + ply;
+        } else if(score <= -MATE_SCORE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Helper function to convert mate score read from table back to distance from root.
+     */
+    private int fromTableScore(int score, int ply) {
+        if(score >= MATE_SCORE - MAX_PLY) {
+            return score - ply;
+        } else if(score <= -MATE_SCORE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Helper function to fill buffer with pseudo-legal moves of given side, or its captures only.
+     * Only pieces of the side are visited, in row order, so cost does not grow with board area.
+     */
+    private void generateMoves(MoveBuffer buffer, int side, boolean capturesOnly) {
+        buffer.clear();
+        int columns = BOARD.getColumns();
+        PIECE_SQUARES = BOARD.getPieceSquares(side, PIECE_SQUARES);
+        for(int index = 0; index < BOARD.getPieceCount(side); index++) {
+            int square = PIECE_SQUARES[index];
+            BOARD.getMoves(BOARD.getChessPiece(square % columns, square / columns), PIECE_BUFFER);
+            for(int count = 0; count < PIECE_BUFFER.size(); count++) {
+                long move = PIECE_BUFFER.get(count);
+                if(!capturesOnly || Move.isCapture(move)) {
+                    buffer.add(move);
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper function to give each move of the buffer an ordering score. Higher score is searched first.
+     */
+    private int[] scoreMoves(MoveBuffer buffer, int ply, long hashMove) {
+        if(MOVE_ORDERS[ply].length < buffer.size()) {
+            MOVE_ORDERS[ply] = new int[buffer.size() * 2];
+        }
+        int[] order = MOVE_ORDERS[ply];
+        for(int count = 0; count < buffer.size(); count++) {
+            long move = buffer.get(count);
+            if(move == hashMove) {
+                order[count] = HASH_MOVE_ORDER;
+            } else if(Move.isCapture(move)) {
+                // Most valuable victim first, least valuable attacker among equal victims
+                order[count] = CAPTURE_ORDER + Evaluator.PIECE_VALUES[Move.getCapturedType(move)] * 16
+                        - Evaluator.PIECE_VALUES[Move.getMovedType(move)] / 64;
+            } else if(move == KILLER_MOVES[ply][0]) {
+                order[count] = KILLER_ORDER + 1;
+            } else if(move == KILLER_MOVES[ply][1]) {
+                order[count] = KILLER_ORDER;
+            } else {
+                order[count] = 0;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Helper function to move highest ordered move among remaining ones to given index, and return it.
+     * Selection is done lazily, since most nodes are cut off after few moves.
+     */
+    private long pickNextMove(MoveBuffer buffer, int[] order, int index) {
+        int best = index;
+        for(int count = index + 1; count < buffer.size(); count++) {
+            if(order[count] > order[best]) {
+                best = count;
+            }
+        }
+        if(best != index) {
+            long move = buffer.get(best);
+            buffer.set(best, buffer.get(index));
+            buffer.set(index, move);
+            int score = order[best];
+            order[best] = order[index];
+            order[index] = score;
+        }
+        return buffer.get(index);
+    }
+
+    /**
+     * Helper function to count node and check time limit once every TIME_CHECK_INTERVAL nodes.
+     */
+    private boolean checkTime() {
+        NODES++;
+        if((NODES % TIME_CHECK_INTERVAL) == 0 && System.nanoTime() >= DEADLINE) {
+            STOPPED = true;
+        }
+        return STOPPED;
+    }
+}
@@ -0,0 +1,136 @@
+package ChessLibrary.Engine;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.CellMap;
+import ChessLibrary.Util.Move;
+
+/**
+ * ChessLibrary.Engine.Evaluator -- Static evaluation of positions, in centipawns.
+ * Score is material plus a positional bonus from a table of each side, type and cell, built once for board size.
+ * Boards larger than ChessLibrary.Util.CellMap.DENSE_LIMIT get no table, and compute the bonus of each cell when asked.
+ * Pieces are rewarded for standing near the center, pawns also for advancing towards enemy side.
+ * Since there is no promotion, a move changes score only by its own cells, so search can update score incrementally
+ * with getMoveDelta instead of evaluating every leaf from scratch.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class Evaluator {
+    /**
+     * Material value of each type index of ChessLibrary.Pieces.ChessPiece.
+     * King is never captured, so its value is 0. Leaper moves only one cell but captures over pieces,
+     * Charger attacks like a Queen but can only stop on few cells of each line.
+     */
+    public static final int[] PIECE_VALUES = {0, 900, 500, 330, 320, 100, 280, 750};
+    // Bonus for each step closer to center, by type index. King stays back while there is enough material on board.
+    private static final int[] CENTER_BONUS = {-4, 2, 1, 4, 6, 2, 4, 3};
+    private static final int PAWN_ADVANCE_BONUS = 6;
+
+    private int BOARD_ROWS;
+    private int BOARD_COLUMNS;
+    // POSITION_TABLE[side][type][cell] = material + positional bonus of piece on cell. Null on large boards.
+    private int[][][] POSITION_TABLE;
+    // Scratch buffer for cells of pieces of each side.
+    private int[] pieceSquares = new int[16];
+
+    /**
+     * Evaluator constructor. Builds position table for given board size, unless board is too large for a table.
+     * @param rows Number of rows of the chessboard.
+     * @param columns Number of columns of the chessboard.
+     */
+    public Evaluator(int rows, int columns) {
+        BOARD_ROWS = rows;
+        BOARD_COLUMNS = columns;
+        if(!CellMap.isDense(rows * columns)) {
+            return;
+        }
+        POSITION_TABLE = new int[2][ChessPiece.TYPE_COUNT][rows * columns];
+        for(int side = 0; side < 2; side++) {
+            for(int type = 0; type < ChessPiece.TYPE_COUNT; type++) {
+                for(int index_y = 0; index_y < rows; index_y++) {
+                    for(int index_x = 0; index_x < columns; index_x++) {
+                        POSITION_TABLE[side][type][index_y * columns + index_x] = computeValue(side, type, index_x, index_y);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets number of rows of the chessboard this evaluator is built for.
+     * @return Number of rows.
+     */
+    public int getRows() {
+        return BOARD_ROWS;
+    }
+
+    /**
+     * Gets number of columns of the chessboard this evaluator is built for.
+     * @return Number of columns.
+     */
+    public int getColumns() {
+        return BOARD_COLUMNS;
+    }
+
+    /**
+     * Evaluates given board from scratch.
+     * @param board Chessboard of the size this evaluator is built for.
+     * @param side Side to evaluate for.
+     * @return Score of given side minus score of the other side.
+     */
+    public int evaluate(ChessBoard board, int side) {
+        int score = 0;
+        // Only cells holding pieces are visited
+        for(int pieceSide = 0; pieceSide < 2; pieceSide++) {
+            pieceSquares = board.getPieceSquares(pieceSide, pieceSquares);
+            for(int index = 0; index < board.getPieceCount(pieceSide); index++) {
+                int square = pieceSquares[index];
+                int type = (board.getCellCode(square % BOARD_COLUMNS, square / BOARD_COLUMNS) - 1) % ChessPiece.TYPE_COUNT;
+                int value = getValue(pieceSide, type, square);
+                score += (pieceSide == side) ? value : -value;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Gets change of score made by given move, without looking at the board.
+     * @param move Packed move of ChessLibrary.Util.Move.
+     * @param side Side making the move.
+     * @return Score of moving side after the move minus score before the move.
+     */
+    public int getMoveDelta(long move, int side) {
+        int type = Move.getMovedType(move);
+        int delta = getValue(side, type, Move.getTo(move)) - getValue(side, type, Move.getFrom(move));
+        if(Move.isCapture(move)) {
+            delta += getValue(1 - side, Move.getCapturedType(move), Move.getTo(move));
+        }
+        return delta;
+    }
+
+    /**
+     * Helper function to get material and positional bonus of a piece on a cell, from position table if board has one.
+     */
+    private int getValue(int side, int type, int square) {
+        if(POSITION_TABLE != null) {
+            return POSITION_TABLE[side][type][square];
+        }
+        return computeValue(side, type, square % BOARD_COLUMNS, square / BOARD_COLUMNS);
+    }
+
+    /**
+     * Helper function to compute material and positional bonus of a piece on a cell.
+     */
+    private int computeValue(int side, int type, int x, int y) {
+        // Distance from center in half-cells, so both even and odd board sizes have a symmetric table
+        int distanceX = Math.abs(2 * x - (BOARD_COLUMNS - 1));
+        int distanceY = Math.abs(2 * y - (BOARD_ROWS - 1));
+        int centrality = (BOARD_COLUMNS + BOARD_ROWS - 2 - distanceX - distanceY) / 2;
+        int value = PIECE_VALUES[type] + CENTER_BONUS[type] * centrality;
+        if(type == ChessPiece.PAWN) {
+            // Black moves towards larger y, white towards smaller y
+            int advance = (side == 0) ? y - 1 : BOARD_ROWS - 2 - y;
+            value += PAWN_ADVANCE_BONUS * Math.max(advance, 0);
+        }
+        return value;
+    }
+}
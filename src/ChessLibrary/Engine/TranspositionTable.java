@@ -0,0 +1,264 @@
+package ChessLibrary.Engine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ChessLibrary.Engine.TranspositionTable -- Fixed-size table of search results, indexed by Zobrist hash of position.
+ * Each entry takes three longs of a single long[]: data, best move, and hash XOR data XOR move.
+ * Entries are written without locks; a reader accepts an entry only if XOR of all three longs gives its hash,
+ * so entries torn by concurrent writers are dropped as misses instead of returning data of another position.
+ * Data holds score (bits 32-52, signed), depth (bits 53-59), bound (bits 60-61)
+ * and generation of search that stored it (bits 62-63).
+ * Probing returns the data long, which is read with getScore / getDepth / getBound. Best move is read with probeMove.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class TranspositionTable {
+    /**
+     * Bound types of stored score. EXACT is a real score, LOWER_BOUND is a score that caused a cutoff,
+     * UPPER_BOUND is a score no move could raise.
+     */
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+    /**
+     * Replacement policies. REPLACE_ALWAYS always overwrites the slot.
+     * REPLACE_DEPTH keeps entry of another position if it was searched deeper than new entry.
+     * REPLACE_AGED_DEPTH is same as REPLACE_DEPTH, but entries left by earlier searches are always replaced.
+     */
+    public static final int REPLACE_ALWAYS = 0;
+    public static final int REPLACE_DEPTH = 1;
+    public static final int REPLACE_AGED_DEPTH = 2;
+    /**
+     * Returned by probe when position is not in table. No real entry is 0, since bound of every entry is not 0.
+     */
+    public static final long MISS = 0;
+    /**
+     * Largest depth an entry can hold. Larger depths are stored as MAX_DEPTH.
+     */
+    public static final int MAX_DEPTH = 127;
+    private static final int SCORE_SHIFT = 32;
+    private static final int SCORE_BITS = 21;
+    private static final int DEPTH_SHIFT = 53;
+    private static final int BOUND_SHIFT = 60;
+    private static final int GENERATION_SHIFT = 62;
+    private static final int ENTRY_LONGS = 3;
+    private static final int ENTRY_BYTES = ENTRY_LONGS * 8;
+
+    private long[] TABLE;
+    private int INDEX_MASK;
+    private int POLICY;
+    private int GENERATION;
+    private LongAdder HITS = new LongAdder();
+    private LongAdder MISSES = new LongAdder();
+    private LongAdder COLLISIONS = new LongAdder();
+    private LongAdder STORES = new LongAdder();
+
+    /**
+     * TranspositionTable constructor. Number of entries is largest power of 2 fitting in given size.
+     * @param megabytes Size of the table in megabytes, at least 1.
+     * @param policy One of REPLACE_ALWAYS, REPLACE_DEPTH, REPLACE_AGED_DEPTH.
+     * @throws IllegalArgumentException If size is less than 1 megabyte or policy is unknown.
+     */
+    public TranspositionTable(int megabytes, int policy) {
+        if(megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table must have at least 1 megabyte: " + megabytes);
+        }
+        if(policy < REPLACE_ALWAYS || policy > REPLACE_AGED_DEPTH) {
+            throw new IllegalArgumentException("Unknown replacement policy: " + policy);
+        }
+        long maxEntries = (long) megabytes * 1024 * 1024 / ENTRY_BYTES;
+        // Index must fit in int, and three longs of each entry in a single array
+        int entries = Integer.highestOneBit((int) Math.min(maxEntries, 1 << 29));
+        TABLE = new long[entries * ENTRY_LONGS];
+        INDEX_MASK = entries - 1;
+        POLICY = policy;
+    }
+
+    /**
+     * Gets number of entries of the table.
+     * @return Number of entries.
+     */
+    public int getCapacity() {
+        return INDEX_MASK + 1;
+    }
+
+    /**
+     * Starts a new search. Entries stored before are aged, so REPLACE_AGED_DEPTH replaces them first.
+     * @return No return value.
+     */
+    public void newSearch() {
+        GENERATION = (GENERATION + 1) & 3;
+    }
+
+    /**
+     * Looks up position with given hash.
+     * @param hash Zobrist hash of position.
+     * @return Data of the entry, MISS if position is not in table.
+     */
+    public long probe(long hash) {
+        int index = ((int) hash & INDEX_MASK) * ENTRY_LONGS;
+        long data = TABLE[index];
+        long move = TABLE[index + 1];
+        long check = TABLE[index + 2];
+        if(data != MISS && (check ^ data ^ move) == hash) {
+            HITS.increment();
+            return data;
+        }
+        MISSES.increment();
+        if(data != MISS) {
+            COLLISIONS.increment();
+        }
+        return MISS;
+    }
+
+    /**
+     * Looks up best move of position with given hash. Does not count as a probe in statistics.
+     * @param hash Zobrist hash of position.
+     * @return Packed move of ChessLibrary.Util.Move, 0 if position is not in table or has no best move.
+     */
+    public long probeMove(long hash) {
+        int index = ((int) hash & INDEX_MASK) * ENTRY_LONGS;
+        long data = TABLE[index];
+        long move = TABLE[index + 1];
+        long check = TABLE[index + 2];
+        if(data != MISS && (check ^ data ^ move) == hash) {
+            return move;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores search result of position with given hash, unless replacement policy keeps current entry of the slot.
+     * Entry of the same position is always replaced, keeping its best move if new result has none.
+     * @param hash Zobrist hash of position.
+     * @param move Best move found, as packed move of ChessLibrary.Util.Move. 0 if there is none.
+     * @param score Score of position, within +-(2^20 - 1).
+     * @param depth Depth searched from position.
+     * @param bound One of EXACT, LOWER_BOUND, UPPER_BOUND.
+     * @return No return value.
+     */
+    public void store(long hash, long move, int score, int depth, int bound) {
+        int index = ((int) hash & INDEX_MASK) * ENTRY_LONGS;
+        long oldData = TABLE[index];
+        long oldMove = TABLE[index + 1];
+        boolean samePosition = oldData != MISS && (TABLE[index + 2] ^ oldData ^ oldMove) == hash;
+        if(samePosition) {
+            if(move == 0) {
+                move = oldMove;
+            }
+        } else if(oldData != MISS && !shouldReplace(oldData, depth)) {
+            return;
+        }
+        long data = (((long) score & ((1L << SCORE_BITS) - 1)) << SCORE_SHIFT)
+                | ((long) Math.min(Math.max(depth, 0), MAX_DEPTH) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) GENERATION << GENERATION_SHIFT);
+        TABLE[index] = data;
+        TABLE[index + 1] = move;
+        TABLE[index + 2] = hash ^ data ^ move;
+        STORES.increment();
+    }
+
+    /**
+     * Removes all entries and resets statistics.
+     * @return No return value.
+     */
+    public void clear() {
+        for(int index = 0; index < TABLE.length; index++) {
+            TABLE[index] = 0;
+        }
+        GENERATION = 0;
+        HITS.reset();
+        MISSES.reset();
+        COLLISIONS.reset();
+        STORES.reset();
+    }
+
+    /**
+     * Gets score of entry data.
+     * @param data Data returned by probe.
+     * @return Score.
+     */
+    public static int getScore(long data) {
+        // Shift left then right to extend sign of the score
+        return (int) (data << (64 - SCORE_SHIFT - SCORE_BITS) >> (64 - SCORE_BITS));
+    }
+
+    /**
+     * Gets depth of entry data.
+     * @param data Data returned by probe.
+     * @return Depth searched, at most MAX_DEPTH.
+     */
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    /**
+     * Gets bound type of entry data.
+     * @param data Data returned by probe.
+     * @return One of EXACT, LOWER_BOUND, UPPER_BOUND.
+     */
+    public static int getBound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    /**
+     * Gets number of probes that found their position.
+     * @return Number of hits.
+     */
+    public long getHits() {
+        return HITS.sum();
+    }
+
+    /**
+     * Gets number of probes that did not find their position, including collisions.
+     * @return Number of misses.
+     */
+    public long getMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Gets number of probes whose slot held another position.
+     * @return Number of collisions.
+     */
+    public long getCollisions() {
+        return COLLISIONS.sum();
+    }
+
+    /**
+     * Gets number of entries written.
+     * @return Number of stores.
+     */
+    public long getStores() {
+        return STORES.sum();
+    }
+
+    /**
+     * Gets share of used slots, from first 1000 slots.
+     * @return Used slots per thousand.
+     */
+    public int getPermill() {
+        int sample = Math.min(1000, getCapacity());
+        int used = 0;
+        for(int index = 0; index < sample; index++) {
+            if(TABLE[index * ENTRY_LONGS] != MISS) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * Helper function to decide if entry of another position should be replaced by new entry of given depth.
+     */
+    private boolean shouldReplace(long oldData, int depth) {
+        if(POLICY == REPLACE_ALWAYS) {
+            return true;
+        }
+        if(POLICY == REPLACE_AGED_DEPTH && (int) (oldData >>> GENERATION_SHIFT) != GENERATION) {
+            return true;
+        }
+        return depth >= getDepth(oldData);
+    }
+}
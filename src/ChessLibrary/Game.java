@@ -3,10 +3,24 @@ package ChessLibrary;
 import ChessLibrary.Pieces.ChessPiece;
 import ChessLibrary.Util.IntPair;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * ChessLibrary.Game --- Implementation of general game related features(turn, check of game end)
+ * Moves are applied by one thread at a time through movePieceInterface / nextTurn. After every completed move
+ * (at nextTurn) and every invalidateMoves a new ChessLibrary.BoardSnapshot is published, which other threads,
+ * such as engine or spectators, read without locks instead of reading the board itself.
+ * Board created by the game keeps possible moves of each piece between moves (see ChessLibrary.PieceMovesCache),
+ * so legal moves created on it after a move only create moves again for pieces reaching the moved cells.
+ * Boards given by the caller are used as they are.
  * @author Wonwoo Seo (wonwooseo@hotmail.com)
  */
 public class Game {
@@ -15,11 +29,37 @@ public class Game {
     private static int WHITE = 1;
 
     /**
-     * checkStatus is a value returned from ChessBoard.checkCheckStatus;
+     * checkStatus is a value returned from ChessBoard.checkCheckStatus, set by updateCheckStatus;
      * 0 for nothing, 1 for check, 2 for checkmate and 3 for stalemate.
      */
     private int checkStatus;
     private ChessBoard BOARD;
+    // Legal moves of current turn, null until created. If precompute is enabled, moves of a new turn are created
+    // on a copy of the board by PRECOMPUTE_EXECUTOR, and taken from PENDING_MOVES if done when first asked for.
+    // Nothing is submitted while constructing, so games whose turn never changes, such as those of perft, cost nothing.
+    private MovesCache MOVES_CACHE;
+    private Future<MovesCache> PENDING_MOVES;
+    private boolean precompute = true;
+    // Single daemon thread shared by all games, so it never keeps program running.
+    private static final ExecutorService PRECOMPUTE_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "Legal moves precompute");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    // Status of current turn and hash of the board it was evaluated on, null until first evaluated.
+    // Board hash includes side to move, so a status is reused only for the same position and turn.
+    private GameStatus STATUS;
+    private long STATUS_HASH;
+    // Snapshot of current position, replaced by writers and read by any thread without locks.
+    private volatile BoardSnapshot SNAPSHOT;
+    // Rows changed by movePieceInterface since last snapshot, so next snapshot copies only those.
+    // Whole board is copied instead if the board was changed outside this class, which is noticed by its hash.
+    private boolean[] CHANGED_ROWS;
+    private boolean fullCopy;
+    private long trackedHash;
 
     static int BLACK_WIN = 0;
     static int WHITE_WIN = 1;
@@ -27,7 +67,7 @@ public class Game {
     static int CONTINUE = 3;
 
     /**
-     * ChessLibrary.Game Constructor. Sets up the game to initial state.
+     * ChessLibrary.Game Constructor. Sets up the game to initial state, on a board keeping moves of each piece.
      * @param rows    Number of rows of the chess board.
      * @param columns Number of columns of the chess board.
      * @param customPiece Whether custom pieces should be used.
@@ -35,16 +75,23 @@ public class Game {
     public Game(int rows, int columns, boolean customPiece) {
         turn = WHITE;
         BOARD = new ChessBoard(rows, columns, customPiece);
+        BOARD.setPieceMovesCache(true);
+        CHANGED_ROWS = new boolean[rows];
+        publishSnapshot();
     }
 
     /**
-     * Constructor to create game from existing chessboard.
+     * Constructor to create game from existing chessboard. Whether the board keeps moves of each piece
+     * is left to the caller, see ChessBoard.setPieceMovesCache.
      * @param turn   Current turn.
      * @param source Existing chessboard to start game on.
      */
     public Game(int turn, ChessBoard source) {
         this.turn = turn;
         BOARD = source;
+        BOARD.setSideToMove(turn);
+        CHANGED_ROWS = new boolean[source.getRows()];
+        publishSnapshot();
     }
 
     /**
@@ -102,22 +149,33 @@ public class Game {
 
     /**
      * Changes turn value. Currently flips between 0(black) and 1(white).
+     * Side to move of the board's hash is set to new turn as well, and snapshot of the moved position
+     * with new turn is published, starting creation of moves in background if enabled.
      * @return No return value.
      */
-    public void nextTurn() {
+    public synchronized void nextTurn() {
+        if(BOARD.hash() != trackedHash) {
+            fullCopy = true;
+        }
         if (turn == WHITE) {
             turn = BLACK;
         } else {
             turn = WHITE;
         }
+        BOARD.setSideToMove(turn);
+        clearMovesCache();
+        publishSnapshot();
+        startPrecompute();
     }
 
     /**
-     * Interface for getting possible moves of given piece. Moves that result in being checked are filtered out here.
+     * Interface for getting possible moves of given piece. Moves that result in being checked are not included.
+     * Moves of all pieces of current turn are created at once and cached until the board or turn changes,
+     * so repeated calls only look them up.
      * @param id Unique identifier of the ChessLibrary.Pieces.ChessPiece object.
      * @return List of possible moves of ChessLibrary.Pieces.ChessPiece object with given identifier.
      */
-    public List<IntPair> getMovesInterface(String id) {
+    public synchronized List<IntPair> getMovesInterface(String id) {
         ChessPiece selectedPiece = BOARD.getChessPieceById(id);
         if (selectedPiece == null) {
             return null;
@@ -125,49 +183,96 @@ public class Game {
         if (selectedPiece.getSide() != turn) {
             return null;
         }
-        List<IntPair> movesList = BOARD.getMoves(selectedPiece);
-        if (movesList.size() == 0) {
-            return null;
-        }
-        for (int count = 0; count < movesList.size(); count++) {
-            IntPair currentPosition = selectedPiece.getPosition();
-            IntPair destination = movesList.get(count);
-            // Temporarily move piece to destination
-            BOARD.deleteChessPiece(currentPosition.left(), currentPosition.right());
-            ChessPiece deleted = BOARD.getChessPiece(destination.left(), destination.right());
-            BOARD.setChessPiece(selectedPiece, destination.left(), destination.right());
-            // Get list of attackers
-            List<ChessPiece> attackerList = BOARD.checkIfCheck(selectedPiece.getSide());
-            // Undo move
-            BOARD.deleteChessPiece(destination.left(), destination.right());
-            if(deleted != null) {
-                BOARD.setChessPiece(deleted, destination.left(), destination.right());
-            }
-            BOARD.setChessPiece(selectedPiece, currentPosition.left(), currentPosition.right());
-            // Remove illegal moves
-            if(attackerList.size() > 0) {
-                movesList.remove(count);
-                count -= 1;
-                continue;
-            }
-        }
-
-        return movesList;
+        return getMovesCache().getMoves(id);
     }
 
     /**
      * Interface for moving pieces.
+     * No snapshot is published until nextTurn, so readers never see the moved position with side to move of the mover.
      * @param entry     Index of destination in movesList.
      * @param movesList List of possible moves returned by getMovesInterface method.
      * @param id        Unique identifier of the ChessLibrary.Pieces.ChessPiece object to move.
      * @return No return value.
      */
-    public void movePieceInterface(int entry, List<IntPair> movesList, String id) {
+    public synchronized void movePieceInterface(int entry, List<IntPair> movesList, String id) {
         ChessPiece selectedPiece = BOARD.getChessPieceById(id);
-        IntPair currentPosition = selectedPiece.getPosition();
         IntPair targetPosition = movesList.get(entry);
-        BOARD.deleteChessPiece(currentPosition.left(), currentPosition.right());
-        BOARD.setChessPiece(selectedPiece, targetPosition.left(), targetPosition.right());
+        if(BOARD.hash() != trackedHash) {
+            fullCopy = true;
+        }
+        CHANGED_ROWS[selectedPiece.getYCoordinate()] = true;
+        CHANGED_ROWS[targetPosition.right()] = true;
+        BOARD.makeMove(selectedPiece.getXCoordinate(), selectedPiece.getYCoordinate(), targetPosition.left(), targetPosition.right());
+        trackedHash = BOARD.hash();
+        clearMovesCache();
+    }
+
+    /**
+     * Gets snapshot of current position. Safe to call from any thread; snapshot never changes once returned.
+     * @return Latest published ChessLibrary.BoardSnapshot.
+     */
+    public BoardSnapshot getSnapshot() {
+        return SNAPSHOT;
+    }
+
+    /**
+     * Gets version of latest snapshot. Safe to call from any thread, so a reader can check if its snapshot is still current.
+     * @return Version of latest snapshot, increasing with every change.
+     */
+    public long getVersion() {
+        return SNAPSHOT.getVersion();
+    }
+
+    /**
+     * Drops cached legal moves after the board was changed outside this class, for example by undo,
+     * publishes a new snapshot, and starts creating moves again in background if enabled.
+     * @return No return value.
+     */
+    public synchronized void invalidateMoves() {
+        fullCopy = true;
+        clearMovesCache();
+        publishSnapshot();
+        startPrecompute();
+    }
+
+    /**
+     * Helper function to start creating legal moves of latest snapshot in background, if enabled.
+     */
+    private void startPrecompute() {
+        if(precompute) {
+            BoardSnapshot snapshot = SNAPSHOT;
+            PENDING_MOVES = PRECOMPUTE_EXECUTOR.submit(new Callable<MovesCache>() {
+                @Override
+                public MovesCache call() {
+                    return new MovesCache(snapshot.toBoard(), snapshot.getTurn());
+                }
+            });
+        }
+    }
+
+    /**
+     * Sets whether legal moves of a new turn are created in background as soon as turn changes.
+     * Enabled by default, but nothing is created in background until turn first changes.
+     * Moves are created when first asked for either way.
+     * @param enabled True to create moves in background, false not to.
+     * @return No return value.
+     */
+    public synchronized void setPrecompute(boolean enabled) {
+        precompute = enabled;
+    }
+
+    /**
+     * Gets status of current turn: check status, pieces checking King and number of legal moves.
+     * Status is evaluated once for each position and turn, and returned again until the board or turn changes.
+     * @return Status of side of current turn.
+     */
+    public synchronized GameStatus getStatus() {
+        long hash = BOARD.hash();
+        if(STATUS == null || STATUS_HASH != hash || STATUS.getSide() != turn) {
+            STATUS = BOARD.evaluateStatus(turn);
+            STATUS_HASH = hash;
+        }
+        return STATUS;
     }
 
     /**
@@ -175,6 +280,66 @@ public class Game {
      * @return No return value.
      */
     public void updateCheckStatus() {
-        setCheckStatus(BOARD.checkCheckStatus(turn));
+        setCheckStatus(getStatus().getStatus());
+    }
+
+    /**
+     * Helper function to get legal moves of current turn, from cache, from finished background precompute, or created now.
+     * Unfinished precompute is cancelled rather than waited for, since the shared executor may still be busy
+     * with other games and waiting would hold the lock of this game meanwhile.
+     * Cache is checked against board hash too, so moves are not reused after the board was changed outside this class.
+     */
+    private MovesCache getMovesCache() {
+        long hash = BOARD.hash();
+        if(MOVES_CACHE != null && MOVES_CACHE.matches(hash, turn)) {
+            return MOVES_CACHE;
+        }
+        if(PENDING_MOVES != null && PENDING_MOVES.isDone()) {
+            MovesCache pendingCache = null;
+            try {
+                pendingCache = PENDING_MOVES.get();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch(ExecutionException e) {
+                // Moves are created below instead
+            } catch(CancellationException e) {
+                // Moves are created below instead
+            }
+            PENDING_MOVES = null;
+            if(pendingCache != null && pendingCache.matches(hash, turn)) {
+                MOVES_CACHE = pendingCache;
+                return MOVES_CACHE;
+            }
+        }
+        clearMovesCache();
+        MOVES_CACHE = new MovesCache(BOARD, turn);
+        return MOVES_CACHE;
+    }
+
+    /**
+     * Helper function to publish snapshot of current board and turn, with version following the last one.
+     * Only changed rows are copied, unless the board was changed outside this class.
+     */
+    private void publishSnapshot() {
+        if(SNAPSHOT == null || fullCopy) {
+            long version = (SNAPSHOT == null) ? 0 : SNAPSHOT.getVersion() + 1;
+            SNAPSHOT = new BoardSnapshot(BOARD, turn, version);
+        } else {
+            SNAPSHOT = new BoardSnapshot(SNAPSHOT, BOARD, turn, SNAPSHOT.getVersion() + 1, CHANGED_ROWS);
+        }
+        Arrays.fill(CHANGED_ROWS, false);
+        fullCopy = false;
+        trackedHash = BOARD.hash();
+    }
+
+    /**
+     * Helper function to drop cached moves and cancel background precompute.
+     */
+    private void clearMovesCache() {
+        MOVES_CACHE = null;
+        if(PENDING_MOVES != null) {
+            PENDING_MOVES.cancel(false);
+            PENDING_MOVES = null;
+        }
     }
-}
\ No newline at end of file
+}
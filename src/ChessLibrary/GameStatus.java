@@ -0,0 +1,74 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ChessLibrary.GameStatus -- Status of one side in a position, found in a single pass by ChessBoard.evaluateStatus.
+ * Holds check status, pieces checking the King and number of legal moves, so callers need not find them again.
+ * Status values are same as values of ChessBoard.checkCheckStatus.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class GameStatus {
+    public static final int NONE = 0;
+    public static final int CHECK = 1;
+    public static final int CHECKMATE = 2;
+    public static final int STALEMATE = 3;
+
+    private int SIDE;
+    private int STATUS;
+    private List<ChessPiece> ATTACKERS;
+    private int LEGAL_MOVE_COUNT;
+
+    /**
+     * GameStatus constructor.
+     * @param side Side the status is of.
+     * @param checked Whether King of the side is attacked.
+     * @param attackers Pieces checking King of the side, not counting enemy King.
+     * @param legalMoveCount Number of legal moves of the side.
+     */
+    public GameStatus(int side, boolean checked, List<ChessPiece> attackers, int legalMoveCount) {
+        SIDE = side;
+        ATTACKERS = Collections.unmodifiableList(attackers);
+        LEGAL_MOVE_COUNT = legalMoveCount;
+        if(legalMoveCount == 0) {
+            STATUS = checked ? CHECKMATE : STALEMATE;
+        } else {
+            STATUS = checked ? CHECK : NONE;
+        }
+    }
+
+    /**
+     * Gets side the status is of.
+     * @return 0 for black, 1 for white.
+     */
+    public int getSide() {
+        return SIDE;
+    }
+
+    /**
+     * Gets check status.
+     * @return NONE, CHECK, CHECKMATE or STALEMATE.
+     */
+    public int getStatus() {
+        return STATUS;
+    }
+
+    /**
+     * Gets pieces checking King of the side, in same order as ChessBoard.checkIfCheck.
+     * @return Unmodifiable list of attackers. Empty if not checked.
+     */
+    public List<ChessPiece> getAttackers() {
+        return ATTACKERS;
+    }
+
+    /**
+     * Gets number of legal moves of the side.
+     * @return Number of legal moves.
+     */
+    public int getLegalMoveCount() {
+        return LEGAL_MOVE_COUNT;
+    }
+}
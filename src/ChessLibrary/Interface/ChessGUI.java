@@ -1,12 +1,15 @@
 package ChessLibrary.Interface;
 
 import ChessLibrary.ChessBoard;
+import ChessLibrary.Engine.Engine;
 import ChessLibrary.Game;
 import ChessLibrary.Pieces.ChessPiece;
 import ChessLibrary.Util.IntPair;
+import ChessLibrary.Util.Move;
 import ChessLibrary.Util.TurnData;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
@@ -35,6 +38,11 @@ public class ChessGUI {
     private JButton previousButton = null;
     private List<IntPair> previousMovesList = null;
     private String previousId = null;
+    // private variables for playing against computer. computerSide is -1 if both sides are played by humans.
+    private static final long COMPUTER_TIME_LIMIT = 1000;
+    private Engine computer = new Engine();
+    private int computerSide = -1;
+    private boolean computerThinking = false;
 
     /**
      * Class constructor. JFrame and JPanel is created and set up here.
@@ -51,6 +59,7 @@ public class ChessGUI {
      * @param source Existing ChessBoard object.
      */
     public ChessGUI(int turn, ChessBoard source) {
+        source.setPieceMovesCache(true);
         currentGame = new Game(turn, source);
         setupFrame();
     }
@@ -93,10 +102,21 @@ public class ChessGUI {
         reset.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                computerSide = -1;
                 startNewGame();
             }
         });
         fileMenu.add(reset);
+        JMenuItem playComputer = new JMenuItem("Play vs Computer");
+        playComputer.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                // Human plays white and moves first, computer plays black
+                computerSide = 0;
+                startNewGame();
+            }
+        });
+        fileMenu.add(playComputer);
         JMenuItem exit = new JMenuItem("Exit..");
         exit.addActionListener(new ActionListener() {
             @Override
@@ -114,6 +134,10 @@ public class ChessGUI {
         undoItem.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                if(computerThinking) {
+                    JOptionPane.showMessageDialog(gameWindow, "Wait for computer to move.", "Warning", JOptionPane.OK_OPTION);
+                    return;
+                }
                 if(currentGame.getTurn() == 0) {
                     if(control.isBlackStackEmpty()) {
                         JOptionPane.showMessageDialog(gameWindow, "There is no move to undo.", "Warning", JOptionPane.OK_OPTION);
@@ -126,6 +150,7 @@ public class ChessGUI {
                     }
                 }
                 control.undo(currentGame.getTurn(), currentGame.getBoard());
+                currentGame.invalidateMoves();
                 chessboardPanel.removeAll();
                 buttonArray = addButtons(chessboardPanel, BOARD_ROWS, BOARD_COLUMNS);
                 setupIcons(buttonArray, BOARD_ROWS, BOARD_COLUMNS);
@@ -226,7 +251,7 @@ public class ChessGUI {
                     buttons[index_y][index_x].setIcon(new ImageIcon(imgNull));
                     setActionListener(buttons[index_y][index_x], null);
                 } else {
-                    Image imgIcon = getImageIconByType(piece.getIdentifier());
+                    Image imgIcon = getImageIconByType(piece);
                     buttons[index_y][index_x].setIcon(new ImageIcon(imgIcon));
                     setActionListener(buttons[index_y][index_x], piece.getIdentifier());
                 }
@@ -286,26 +311,8 @@ public class ChessGUI {
                         int moveIndex;
                         for(moveIndex = 0; moveIndex < previousMovesList.size(); moveIndex++) {
                             if(buttonIndex.equals(previousMovesList.get(moveIndex))) {
-                                // Push chessboard to stack before moving
-                                ChessPiece movingPiece = currentGame.getBoard().getChessPieceById(previousId);
-                                ChessPiece capturedPiece = currentGame.getBoard().getChessPiece(buttonIndex.left(), buttonIndex.right());
-                                IntPair origPosition = movingPiece.getPosition();
-                                TurnData turnItem = new TurnData(origPosition, buttonIndex, movingPiece, capturedPiece);
-                                if(currentGame.getTurn() == 0) { // black's turn
-                                    control.pushBlackStack(turnItem);
-                                } else {
-                                    control.pushWhiteStack(turnItem);
-                                }
-                                // Move piece on chessBoard and refresh JPanel
-                                currentGame.movePieceInterface(moveIndex, previousMovesList, previousId);
-                                chessboardPanel.removeAll();
-                                buttonArray = addButtons(chessboardPanel, BOARD_ROWS, BOARD_COLUMNS);
-                                setupIcons(buttonArray, BOARD_ROWS, BOARD_COLUMNS);
-                                previousMovesList = null;
-                                previousId = null;
-                                previousButton = null;
-                                nextTurnHandler();
-                                endGameHandler();
+                                playMove(moveIndex, previousMovesList, previousId);
+                                startComputerTurn();
                                 return;
                             }
                         }
@@ -338,12 +345,115 @@ public class ChessGUI {
         });
     }
 
+    /**
+     * Helper function to move piece, push it to undo stack and hand turn over to the other side.
+     * @param moveIndex Index of destination in movesList.
+     * @param movesList List of possible moves returned by Game.getMovesInterface.
+     * @param id Identifier of the moving piece.
+     */
+    private void playMove(int moveIndex, List<IntPair> movesList, String id) {
+        // Push chessboard to stack before moving
+        IntPair destination = movesList.get(moveIndex);
+        ChessPiece movingPiece = currentGame.getBoard().getChessPieceById(id);
+        ChessPiece capturedPiece = currentGame.getBoard().getChessPiece(destination.left(), destination.right());
+        IntPair origPosition = movingPiece.getPosition();
+        TurnData turnItem = new TurnData(origPosition, destination, movingPiece, capturedPiece);
+        if(currentGame.getTurn() == 0) { // black's turn
+            control.pushBlackStack(turnItem);
+        } else {
+            control.pushWhiteStack(turnItem);
+        }
+        // Move piece on chessBoard and refresh JPanel
+        currentGame.movePieceInterface(moveIndex, movesList, id);
+        chessboardPanel.removeAll();
+        buttonArray = addButtons(chessboardPanel, BOARD_ROWS, BOARD_COLUMNS);
+        setupIcons(buttonArray, BOARD_ROWS, BOARD_COLUMNS);
+        previousMovesList = null;
+        previousId = null;
+        previousButton = null;
+        nextTurnHandler();
+        endGameHandler();
+    }
+
+    /**
+     * Helper function to let computer search its move in background, if it is computer's turn.
+     * Move is played on the event dispatch thread once search is done, unless a new game has been started meanwhile.
+     */
+    private void startComputerTurn() {
+        int CONTINUE = 3;
+        if(computerSide != currentGame.getTurn() || currentGame.checkGameEnd() != CONTINUE) {
+            return;
+        }
+        Game searchedGame = currentGame;
+        computerThinking = true;
+        gameWindow.setTitle("Computer is thinking... - WonChess");
+        SwingWorker<Long, Void> worker = new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() {
+                return computer.bestMove(searchedGame, COMPUTER_TIME_LIMIT);
+            }
+
+            @Override
+            protected void done() {
+                computerThinking = false;
+                if(searchedGame != currentGame) {
+                    return;
+                }
+                try {
+                    long move = get();
+                    if(move != Engine.NO_MOVE) {
+                        playComputerMove(move);
+                    }
+                } catch (ExecutionException e) {
+                    computerFailureHandler(e.getCause());
+                } catch (InterruptedException | IllegalStateException e) {
+                    computerFailureHandler(e);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * Helper function to play packed move found by the engine, through same interface as moves of human player.
+     * @param move Packed move of ChessLibrary.Util.Move.
+     * @throws IllegalStateException If move is not a legal move of current game.
+     */
+    private void playComputerMove(long move) {
+        ChessBoard board = currentGame.getBoard();
+        int from = Move.getFrom(move);
+        int to = Move.getTo(move);
+        ChessPiece movingPiece = board.getChessPiece(from % board.getColumns(), from / board.getColumns());
+        IntPair destination = IntPair.of(to % board.getColumns(), to / board.getColumns());
+        if(movingPiece == null) {
+            throw new IllegalStateException("Computer moved from empty cell (" + (from % board.getColumns()) + ", " + (from / board.getColumns()) + ")");
+        }
+        List<IntPair> movesList = currentGame.getMovesInterface(movingPiece.getIdentifier());
+        for(int moveIndex = 0; moveIndex < movesList.size(); moveIndex++) {
+            if(destination.equals(movesList.get(moveIndex))) {
+                playMove(moveIndex, movesList, movingPiece.getIdentifier());
+                return;
+            }
+        }
+        throw new IllegalStateException("Computer move of " + movingPiece.getIdentifier() + " to ("
+                + destination.left() + ", " + destination.right() + ") is not legal");
+    }
+
+    /**
+     * Helper function to report failed computer move and give its turn to human player, so game can go on.
+     * @param cause Exception thrown while searching or playing the move.
+     */
+    private void computerFailureHandler(Throwable cause) {
+        computerSide = -1;
+        updateTitle();
+        JOptionPane.showMessageDialog(gameWindow, "Computer could not move: " + cause + "\nBoth sides are played by humans now.",
+                "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
     /**
      * Helper function to handle changing turn and displaying visual alerts for check / checkmate.
      */
     private void nextTurnHandler() {
-        int TURN_BLACK = 0;
-        int TURN_WHITE = 1;
         int CHECK = 1;
         int CHECKMATE = 2;
 
@@ -351,18 +461,22 @@ public class ChessGUI {
         currentGame.updateCheckStatus();
         int checkStatus = currentGame.getCheckStatus();
         if(checkStatus == CHECK || checkStatus == CHECKMATE) { // Visual alert for check / checkmate
-            if(currentGame.getTurn() == TURN_BLACK) {
-                IntPair kingPosition = currentGame.getBoard().getChessPieceById(TURN_BLACK + "K0").getPosition();
-                paintThreatColor(kingPosition);
-            } else {
-                IntPair kingPosition = currentGame.getBoard().getChessPieceById(TURN_WHITE + "K0").getPosition();
-                paintThreatColor(kingPosition);
-            }
-            List<ChessPiece> attackerList = currentGame.getBoard().checkIfCheck(currentGame.getTurn());
+            IntPair kingPosition = currentGame.getBoard().getKing(currentGame.getTurn()).getPosition();
+            paintThreatColor(kingPosition);
+            List<ChessPiece> attackerList = currentGame.getStatus().getAttackers();
             for(int count = 0; count < attackerList.size(); count++) {
                 paintThreatColor(attackerList.get(count).getPosition());
             }
         }
+        updateTitle();
+    }
+
+    /**
+     * Helper function to show whose turn it is on window title.
+     */
+    private void updateTitle() {
+        int TURN_BLACK = 0;
+
         if(currentGame.getTurn() == TURN_BLACK) {
             gameWindow.setTitle("Turn of " + control.getBlackName() + " - WonChess");
         } else {
@@ -407,76 +521,76 @@ public class ChessGUI {
     }
 
     /**
-     * Helper function to get ImageIcon by type specified in identifier.
-     * @param id Identifier of the piece.
+     * Helper function to get ImageIcon by side and type of the piece.
+     * @param piece ChessLibrary.Pieces.ChessPiece to get ImageIcon of. Null for empty cell.
      * @return Image object to make an ImageIcon.
      */
-    private Image getImageIconByType(String id) {
-        if(id == null) {
+    private Image getImageIconByType(ChessPiece piece) {
+        if(piece == null) {
             return getImageIcon("/null.png");
         }
-        char pieceType = id.charAt(1);
-        char pieceSide = id.charAt(0);
+        int pieceType = piece.getType();
+        int pieceSide = piece.getSide();
         Image img;
         switch (pieceType) {
-            case 'p': {
-                if (pieceSide == '0') {
+            case ChessPiece.PAWN: {
+                if (pieceSide == 0) {
                     img = getImageIcon("/Black_Pawn.png");
                 } else {
                     img = getImageIcon("/White_Pawn.png");
                 }
                 return img;
             }
-            case 'r': {
-                if (pieceSide == '0') {
+            case ChessPiece.ROOK: {
+                if (pieceSide == 0) {
                     img = getImageIcon("/Black_Rook.png");
                 } else {
                     img = getImageIcon("/White_Rook.png");
                 }
                 return img;
             }
-            case 'k': {
-                if (pieceSide == '0') {
+            case ChessPiece.KNIGHT: {
+                if (pieceSide == 0) {
                     img = getImageIcon("/Black_Knight.png");
                 } else {
                     img = getImageIcon("/White_Knight.png");
                 }
                 return img;
             }
-            case 'l': {
-                if (pieceSide == '0') {
+            case ChessPiece.LEAPER: {
+                if (pieceSide == 0) {
                     img = getImageIcon("/Black_Leaper.png");
                 } else {
                     img = getImageIcon("/White_Leaper.png");
                 }
                 return img;
             }
-            case 'b': {
-                if (pieceSide == '0') {
+            case ChessPiece.BISHOP: {
+                if (pieceSide == 0) {
                     img = getImageIcon("/Black_Bishop.png");
                 } else {
                     img = getImageIcon("/White_Bishop.png");
                 }
                 return img;
             }
-            case 'Q': {
-                if (pieceSide == '0') {
+            case ChessPiece.QUEEN: {
+                if (pieceSide == 0) {
                     img = getImageIcon("/Black_Queen.png");
                                   } else {
                     img = getImageIcon("/White_Queen.png");
                  }
                 return img;
             }
-            case 'c': {
-                if (pieceSide == '0') {
+            case ChessPiece.CHARGER: {
+                if (pieceSide == 0) {
                     img = getImageIcon("/Black_Charger.png");
                 } else {
                     img = getImageIcon("/White_Charger.png");
                 }
                 return img;
             }
-            case 'K': {
-                if (pieceSide == '0') {
+            case ChessPiece.KING: {
+                if (pieceSide == 0) {
                     img = getImageIcon("/Black_King.png");
                 } else {
                     img = getImageIcon("/White_King.png");
@@ -537,7 +651,7 @@ public class ChessGUI {
         for(int index_y = 0; index_y < BOARD_ROWS; index_y++) {
             for (int index_x = 0; index_x < BOARD_COLUMNS; index_x++) {
                 if(buttonArray[index_y][index_x] == button) {
-                    return new IntPair(index_x, index_y);
+                    return IntPair.of(index_x, index_y);
                 }
             }
         }
@@ -2,7 +2,6 @@ package ChessLibrary.Interface;
 
 import ChessLibrary.ChessBoard;
 import ChessLibrary.Game;
-import ChessLibrary.Pieces.ChessPiece;
 import ChessLibrary.Util.IntPair;
 import ChessLibrary.Util.TurnData;
 
@@ -198,14 +197,10 @@ public class InterfaceController {
      * @param currentBoard ChessBoard object.
      */
     private void undoPieceSetter(TurnData turnItem, ChessBoard currentBoard) {
-        ChessPiece movedPiece = turnItem.getMovedPiece();
-        ChessPiece capturedPiece = turnItem.getCapturedPiece();
         IntPair originalPosition = turnItem.getOriginalPosition();
         IntPair newPosition = turnItem.getNewPosition();
-        currentBoard.deleteChessPiece(newPosition.left(), newPosition.right());
-        if(capturedPiece != null) {
-            currentBoard.setChessPiece(capturedPiece, newPosition.left(), newPosition.right());
-        }
-        currentBoard.setChessPiece(movedPiece, originalPosition.left(), originalPosition.right());
+        long record = currentBoard.createUndoRecord(originalPosition.left(), originalPosition.right(),
+                newPosition.left(), newPosition.right(), turnItem.getCapturedPiece());
+        currentBoard.unmakeMove(record);
     }
 }
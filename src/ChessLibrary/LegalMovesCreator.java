@@ -0,0 +1,330 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.Move;
+import ChessLibrary.Util.MoveBuffer;
+
+import java.util.List;
+
+/**
+ * ChessLibrary.LegalMovesCreator -- Creates legal moves only, without trying moves on the board.
+ * Before creating moves of a side, pieces checking its King, cells blocking or capturing a single checker,
+ * and pieces pinned to its King are found. Moves of ChessLibrary.MovesListCreator are then kept only if
+ * they resolve the check and keep pinned pieces on their pin line. King moves are kept if target cell is not attacked,
+ * also counting cells behind the King on the line of a sliding checker.
+ * Check and pin lines run straight from the King, so they are kept as direction and far end only, and a cell is
+ * on a line if its direction from the King matches and it is not farther; nothing is stored per cell.
+ * Only sliding pieces (Queen, Rook, Bishop and Charger) can pin or be blocked; Knight, Leaper and Pawn attacks
+ * do not depend on other pieces, so moving a piece never uncovers them.
+ * Sides without King have no illegal moves.
+ * Board is only read, never changed, so threads may create moves on the same board at once
+ * as long as each uses its own creator and nothing changes the board meanwhile.
+ * Possible moves are taken from ChessLibrary.PieceMovesCache of the board if enabled, in which case
+ * only one thread may create moves on the board.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class LegalMovesCreator {
+    // Directions of ChessLibrary.MoveTables: E, SE, NE, W, SW, NW, S, N
+    private static final int[] DIRECTION_X = {1, 1, 1, -1, -1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 1, -1, 0, 1, -1, 1, -1};
+
+    private ChessBoard CURRENT_BOARD;
+    private int BOARD_ROWS;
+    private int BOARD_COLUMNS;
+    private MovesListCreator MOVES_CREATOR;
+    // Cell of pinned piece and of its pinning piece in each direction from King, NONE if nothing is pinned there.
+    private int[] PINNED_SQUARES = new int[8];
+    private int[] PINNER_SQUARES = new int[8];
+    private int side;
+    private int kingSquare;
+    private int checkerCount;
+    // Cell of the only checker, and its direction from King if it can be blocked (NONE if it can only be captured).
+    private int checkerSquare;
+    private int checkDirection;
+    // Cells right behind King on the line of sliding checkers, which are attacked once King leaves its cell.
+    private int[] kingXrays = new int[8];
+    private int xrayCount;
+    // Scratch buffer of hasLegalMove and countMoves.
+    private MoveBuffer scratchBuffer = new MoveBuffer();
+    // Cells of pieces of side whose moves are created, in row order.
+    private int[] pieceSquares = new int[16];
+
+    /**
+     * LegalMovesCreator constructor.
+     * @param board ChessLibrary.ChessBoard object for LegalMovesCreator to examine.
+     * @param rows Number of rows of chessboard.
+     * @param columns Number of columns of chessboard.
+     */
+    public LegalMovesCreator(ChessBoard board, int rows, int columns) {
+        CURRENT_BOARD = board;
+        BOARD_ROWS = rows;
+        BOARD_COLUMNS = columns;
+        // Own creator, so scratch state is not shared with other creators of the board
+        MOVES_CREATOR = new MovesListCreator(board, rows, columns);
+    }
+
+    /**
+     * Creates legal moves of given piece into given buffer. Moves are appended after moves already in buffer.
+     * @param piece ChessLibrary.Pieces.ChessPiece object to determine legal moves.
+     * @param buffer Buffer to append packed moves to.
+     * @return No return value.
+     */
+    public void createMoves(ChessPiece piece, MoveBuffer buffer) {
+        update(piece.getSide());
+        addLegalMoves(piece, buffer);
+    }
+
+    /**
+     * Creates legal moves of every piece of given side into given buffer, piece by piece in row order.
+     * Only pieces of the side are visited, not every cell. Moves are appended after moves already in buffer.
+     * @param side Side to create moves of.
+     * @param buffer Buffer to append packed moves to.
+     * @return No return value.
+     */
+    public void createAllMoves(int side, MoveBuffer buffer) {
+        update(side);
+        pieceSquares = CURRENT_BOARD.getPieceSquares(side, pieceSquares);
+        for(int index = 0; index < CURRENT_BOARD.getPieceCount(side); index++) {
+            addLegalMoves(getPiece(pieceSquares[index]), buffer);
+        }
+    }
+
+    /**
+     * Checks if given side has any legal move. Stops at first legal move found.
+     * @param side Side to check.
+     * @return True if there is a legal move, false if not.
+     */
+    public boolean hasLegalMove(int side) {
+        update(side);
+        // While in double check, only King can move
+        if(checkerCount > 1) {
+            scratchBuffer.clear();
+            addLegalMoves(CURRENT_BOARD.getKing(side), scratchBuffer);
+            return scratchBuffer.size() > 0;
+        }
+        pieceSquares = CURRENT_BOARD.getPieceSquares(side, pieceSquares);
+        for(int index = 0; index < CURRENT_BOARD.getPieceCount(side); index++) {
+            scratchBuffer.clear();
+            addLegalMoves(getPiece(pieceSquares[index]), scratchBuffer);
+            if(scratchBuffer.size() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts legal moves of given side.
+     * @param side Side to count moves of.
+     * @return Number of legal moves.
+     */
+    public int countMoves(int side) {
+        scratchBuffer.clear();
+        createAllMoves(side, scratchBuffer);
+        return scratchBuffer.size();
+    }
+
+    /**
+     * Gets number of pieces checking King of side whose moves were created last.
+     * @return Number of checkers, 2 or more for double check.
+     */
+    public int getCheckerCount() {
+        return checkerCount;
+    }
+
+    /**
+     * Checks if piece on given cell is pinned to King of side whose moves were created last.
+     * @param square Cell index (y * columns + x) of the piece.
+     * @return True if pinned, false if not.
+     */
+    public boolean isPinned(int square) {
+        return getPinDirection(square) != MoveTables.NONE;
+    }
+
+    /**
+     * Helper function to get piece on given cell index.
+     */
+    private ChessPiece getPiece(int square) {
+        return CURRENT_BOARD.getChessPiece(square % BOARD_COLUMNS, square / BOARD_COLUMNS);
+    }
+
+    /**
+     * Helper function to find checkers, check-resolving cells and pins of given side.
+     */
+    private void update(int side) {
+        this.side = side;
+        checkerCount = 0;
+        checkDirection = MoveTables.NONE;
+        xrayCount = 0;
+        for(int direction = 0; direction < 8; direction++) {
+            PINNED_SQUARES[direction] = MoveTables.NONE;
+        }
+        ChessPiece king = CURRENT_BOARD.getKing(side);
+        if(king == null) {
+            kingSquare = MoveTables.NONE;
+            return;
+        }
+        int kingX = king.getXCoordinate();
+        int kingY = king.getYCoordinate();
+        kingSquare = kingY * BOARD_COLUMNS + kingX;
+        if(CURRENT_BOARD.isInCheck(side)) {
+            List<ChessPiece> checkers = CURRENT_BOARD.getAttackers(kingX, kingY, 1 - side);
+            checkerCount = checkers.size();
+            for(int count = 0; count < checkers.size(); count++) {
+                markChecker(checkers.get(count), kingX, kingY);
+            }
+        }
+        for(int direction = 0; direction < 8; direction++) {
+            int first = CURRENT_BOARD.getFirstBlocker(kingSquare, direction);
+            if(first == MoveTables.NONE || CURRENT_BOARD.checkOccupied(side, first % BOARD_COLUMNS, first / BOARD_COLUMNS) != 1) {
+                continue;
+            }
+            int second = CURRENT_BOARD.getFirstBlocker(first, direction);
+            if(second == MoveTables.NONE) {
+                continue;
+            }
+            ChessPiece pinner = CURRENT_BOARD.getChessPiece(second % BOARD_COLUMNS, second / BOARD_COLUMNS);
+            if(pinner.getSide() != side && slides(pinner.getType(), direction)) {
+                PINNED_SQUARES[direction] = first;
+                PINNER_SQUARES[direction] = second;
+            }
+        }
+    }
+
+    /**
+     * Helper function to keep line resolving check of given checker, and cell behind King on its line.
+     * Line resolving check is only kept for a single checker, since double check is resolved by King moves only.
+     */
+    private void markChecker(ChessPiece checker, int kingX, int kingY) {
+        checkerSquare = checker.getYCoordinate() * BOARD_COLUMNS + checker.getXCoordinate();
+        int direction = getDirection(checker.getXCoordinate() - kingX, checker.getYCoordinate() - kingY);
+        if(direction == MoveTables.NONE || !slides(checker.getType(), direction)) {
+            return;
+        }
+        checkDirection = direction;
+        int behindX = kingX - DIRECTION_X[direction];
+        int behindY = kingY - DIRECTION_Y[direction];
+        if(behindX >= 0 && behindX < BOARD_COLUMNS && behindY >= 0 && behindY < BOARD_ROWS) {
+            kingXrays[xrayCount++] = behindY * BOARD_COLUMNS + behindX;
+        }
+    }
+
+    /**
+     * Helper function to append moves of given piece, keeping legal moves only.
+     */
+    private void addLegalMoves(ChessPiece piece, MoveBuffer buffer) {
+        int start = buffer.size();
+        if(piece.getType() == ChessPiece.KING) {
+            MOVES_CREATOR.createKingMovesWithoutCheck(piece, buffer);
+        } else if(checkerCount > 1) {
+            return;
+        } else if(CURRENT_BOARD.getPieceMovesCache() != null) {
+            CURRENT_BOARD.getPieceMovesCache().addMoves(piece, buffer);
+        } else {
+            MOVES_CREATOR.createMoves(piece, buffer);
+        }
+        // Pin line does not depend on the move, so it is found once for every move of the piece
+        int pinDirection = getPinDirection(piece.getYCoordinate() * BOARD_COLUMNS + piece.getXCoordinate());
+        int legalMoves = start;
+        for(int count = start; count < buffer.size(); count++) {
+            long move = buffer.get(count);
+            if(isLegal(piece, move, pinDirection)) {
+                buffer.set(legalMoves, move);
+                legalMoves++;
+            }
+        }
+        buffer.truncate(legalMoves);
+    }
+
+    /**
+     * Helper function to check if move of given piece is legal, based on last update.
+     */
+    private boolean isLegal(ChessPiece piece, long move, int pinDirection) {
+        if(kingSquare == MoveTables.NONE) {
+            return true;
+        }
+        int to = Move.getTo(move);
+        if(piece.getType() == ChessPiece.KING) {
+            if(CURRENT_BOARD.isAttacked(to % BOARD_COLUMNS, to / BOARD_COLUMNS, 1 - side)) {
+                return false;
+            }
+            for(int index = 0; index < xrayCount; index++) {
+                if(kingXrays[index] == to) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if(checkerCount == 1 && to != checkerSquare
+                && (checkDirection == MoveTables.NONE || !isOnLine(to, checkDirection, checkerSquare))) {
+            return false;
+        }
+        if(pinDirection != MoveTables.NONE) {
+            return isOnLine(to, pinDirection, PINNER_SQUARES[pinDirection]);
+        }
+        return true;
+    }
+
+    /**
+     * Helper function to get direction from King of pin line of piece on given cell, NONE if it is not pinned.
+     */
+    private int getPinDirection(int square) {
+        if(kingSquare == MoveTables.NONE || square == kingSquare) {
+            return MoveTables.NONE;
+        }
+        for(int direction = 0; direction < 8; direction++) {
+            if(PINNED_SQUARES[direction] == square) {
+                return direction;
+            }
+        }
+        return MoveTables.NONE;
+    }
+
+    /**
+     * Helper function to check if given cell is on line from King in given direction, not farther than given end.
+     */
+    private boolean isOnLine(int square, int direction, int end) {
+        int offsetX = square % BOARD_COLUMNS - kingSquare % BOARD_COLUMNS;
+        int offsetY = square / BOARD_COLUMNS - kingSquare / BOARD_COLUMNS;
+        if(getDirection(offsetX, offsetY) != direction) {
+            return false;
+        }
+        int endX = end % BOARD_COLUMNS - kingSquare % BOARD_COLUMNS;
+        int endY = end / BOARD_COLUMNS - kingSquare / BOARD_COLUMNS;
+        return Math.max(Math.abs(offsetX), Math.abs(offsetY)) <= Math.max(Math.abs(endX), Math.abs(endY));
+    }
+
+    /**
+     * Helper function to get direction index of given offset, NONE if offset is not on a straight or diagonal line.
+     */
+    private int getDirection(int offsetX, int offsetY) {
+        if(offsetX != 0 && offsetY != 0 && Math.abs(offsetX) != Math.abs(offsetY)) {
+            return MoveTables.NONE;
+        }
+        for(int direction = 0; direction < 8; direction++) {
+            if(DIRECTION_X[direction] == Integer.signum(offsetX) && DIRECTION_Y[direction] == Integer.signum(offsetY)) {
+                return direction;
+            }
+        }
+        return MoveTables.NONE;
+    }
+
+    /**
+     * Helper function to check if piece of given type attacks along given direction beyond adjacent cell.
+     * Charger captures first enemy piece on its path, so it attacks like a queen.
+     */
+    private boolean slides(int type, int direction) {
+        boolean straight = (DIRECTION_X[direction] == 0 || DIRECTION_Y[direction] == 0);
+        switch(type) {
+            case ChessPiece.QUEEN:
+            case ChessPiece.CHARGER:
+                return true;
+            case ChessPiece.ROOK:
+                return straight;
+            case ChessPiece.BISHOP:
+                return !straight;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package ChessLibrary;
+
+/**
+ * ChessLibrary.LineIndex -- Occupied cells of every row, column and diagonal of a board, as one bitset per line.
+ * Nearest occupied cell from a cell in any direction is found by scanning 64 cells of the line at a time,
+ * so finding the blocker of a sliding piece does not depend on its distance on boards up to 64 cells wide.
+ * Bitset of a line is created when a cell of that line is first occupied, so empty lines of large boards take no memory.
+ * Cells of rows are numbered by x, cells of columns and both kinds of diagonals by y.
+ * Directions are indexed in order E, SE, NE, W, SW, NW, S, N, same as ChessLibrary.MoveTables.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class LineIndex {
+    private int BOARD_ROWS;
+    private int BOARD_COLUMNS;
+    // ROW_BITS[y], COLUMN_BITS[x], DIAGONAL_BITS[x - y + rows - 1] (towards SE) and ANTI_DIAGONAL_BITS[x + y] (towards SW).
+    // Null for lines never occupied.
+    private long[][] ROW_BITS;
+    private long[][] COLUMN_BITS;
+    private long[][] DIAGONAL_BITS;
+    private long[][] ANTI_DIAGONAL_BITS;
+
+    /**
+     * LineIndex constructor. Creates empty index for board of given size.
+     * @param rows Number of rows of chessboard.
+     * @param columns Number of columns of chessboard.
+     */
+    public LineIndex(int rows, int columns) {
+        BOARD_ROWS = rows;
+        BOARD_COLUMNS = columns;
+        ROW_BITS = new long[rows][];
+        COLUMN_BITS = new long[columns][];
+        DIAGONAL_BITS = new long[rows + columns - 1][];
+        ANTI_DIAGONAL_BITS = new long[rows + columns - 1][];
+    }
+
+    /**
+     * Marks given cell occupied.
+     * @param square Cell index (y * columns + x).
+     * @return No return value.
+     */
+    public void add(int square) {
+        int x = square % BOARD_COLUMNS;
+        int y = square / BOARD_COLUMNS;
+        getLine(ROW_BITS, y, BOARD_COLUMNS)[x >>> 6] |= 1L << x;
+        getLine(COLUMN_BITS, x, BOARD_ROWS)[y >>> 6] |= 1L << y;
+        getLine(DIAGONAL_BITS, x - y + BOARD_ROWS - 1, BOARD_ROWS)[y >>> 6] |= 1L << y;
+        getLine(ANTI_DIAGONAL_BITS, x + y, BOARD_ROWS)[y >>> 6] |= 1L << y;
+    }
+
+    /**
+     * Marks given cell empty.
+     * @param square Cell index (y * columns + x).
+     * @return No return value.
+     */
+    public void remove(int square) {
+        int x = square % BOARD_COLUMNS;
+        int y = square / BOARD_COLUMNS;
+        clearBit(ROW_BITS[y], x);
+        clearBit(COLUMN_BITS[x], y);
+        clearBit(DIAGONAL_BITS[x - y + BOARD_ROWS - 1], y);
+        clearBit(ANTI_DIAGONAL_BITS[x + y], y);
+    }
+
+    /**
+     * Marks every cell empty.
+     * @return No return value.
+     */
+    public void clear() {
+        clearLines(ROW_BITS);
+        clearLines(COLUMN_BITS);
+        clearLines(DIAGONAL_BITS);
+        clearLines(ANTI_DIAGONAL_BITS);
+    }
+
+    /**
+     * Finds nearest occupied cell from given cell in given direction. Given cell itself is not counted.
+     * @param square Cell index (y * columns + x) to look from.
+     * @param direction Direction index, in order E, SE, NE, W, SW, NW, S, N.
+     * @return Cell index of nearest occupied cell. ChessLibrary.MoveTables.NONE if path to the border is empty.
+     */
+    public int findFirst(int square, int direction) {
+        int x = square % BOARD_COLUMNS;
+        int y = square / BOARD_COLUMNS;
+        int found;
+        switch(direction) {
+            case 0: {
+                found = findNext(ROW_BITS[y], x);
+                return (found < 0) ? MoveTables.NONE : y * BOARD_COLUMNS + found;
+            }
+            case 3: {
+                found = findPrevious(ROW_BITS[y], x);
+                return (found < 0) ? MoveTables.NONE : y * BOARD_COLUMNS + found;
+            }
+            case 6: {
+                found = findNext(COLUMN_BITS[x], y);
+                return (found < 0) ? MoveTables.NONE : found * BOARD_COLUMNS + x;
+            }
+            case 7: {
+                found = findPrevious(COLUMN_BITS[x], y);
+                return (found < 0) ? MoveTables.NONE : found * BOARD_COLUMNS + x;
+            }
+            case 1:
+            case 5: {
+                long[] line = DIAGONAL_BITS[x - y + BOARD_ROWS - 1];
+                found = (direction == 1) ? findNext(line, y) : findPrevious(line, y);
+                return (found < 0) ? MoveTables.NONE : found * BOARD_COLUMNS + (x - y + found);
+            }
+            default: {
+                long[] line = ANTI_DIAGONAL_BITS[x + y];
+                found = (direction == 4) ? findNext(line, y) : findPrevious(line, y);
+                return (found < 0) ? MoveTables.NONE : found * BOARD_COLUMNS + (x + y - found);
+            }
+        }
+    }
+
+    /**
+     * Helper function to find lowest set bit above given position, -1 if none or line was never occupied.
+     * Bits outside the board are never set, so no bound of the line is needed.
+     */
+    private int findNext(long[] bits, int position) {
+        if(bits == null) {
+            return -1;
+        }
+        int start = position + 1;
+        int word = start >>> 6;
+        if(word >= bits.length) {
+            return -1;
+        }
+        long current = bits[word] & (-1L << start);
+        while(current == 0) {
+            word++;
+            if(word == bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(current);
+    }
+
+    /**
+     * Helper function to find highest set bit below given position, -1 if none.
+     */
+    private int findPrevious(long[] bits, int position) {
+        if(bits == null || position == 0) {
+            return -1;
+        }
+        int start = position - 1;
+        int word = start >>> 6;
+        long current = bits[word] & (-1L >>> (63 - (start & 63)));
+        while(current == 0) {
+            word--;
+            if(word < 0) {
+                return -1;
+            }
+            current = bits[word];
+        }
+        return (word << 6) + 63 - Long.numberOfLeadingZeros(current);
+    }
+
+    /**
+     * Helper function to get bitset of given line, creating it on first use.
+     */
+    private long[] getLine(long[][] lines, int index, int length) {
+        if(lines[index] == null) {
+            lines[index] = new long[(length + 63) / 64];
+        }
+        return lines[index];
+    }
+
+    /**
+     * Helper function to clear given bit of a line, if the line was ever occupied.
+     */
+    private void clearBit(long[] bits, int position) {
+        if(bits != null) {
+            bits[position >>> 6] &= ~(1L << position);
+        }
+    }
+
+    /**
+     * Helper function to clear every created bitset of given lines. Bitsets are kept for reuse.
+     */
+    private void clearLines(long[][] lines) {
+        for(int index = 0; index < lines.length; index++) {
+            if(lines[index] == null) {
+                continue;
+            }
+            for(int word = 0; word < lines[index].length; word++) {
+                lines[index][word] = 0L;
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package ChessLibrary;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * ChessLibrary.MagicTables -- Magic-multiplication attack tables of sliding pieces on 8x8 board.
+ * Attacks of a rook-like or bishop-like slider on a cell only depend on pieces on its relevant cells
+ * (cells of its rays, without the border cell of each ray). Multiplying those pieces by magic number of the cell
+ * and shifting gives a unique index into attack table of the cell, so attacks are found without walking rays.
+ * Bit index of a cell is (y * 8 + x), same as ChessLibrary.BitBoard.
+ * Magic numbers are searched once and saved to a cache file, so later runs only fill the tables.
+ * Every table is checked against walked rays when filled; magic numbers failing the check are searched again.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class MagicTables {
+    /**
+     * System property naming the cache file of magic numbers. Default is chess_magics.bin in temporary directory.
+     */
+    public static final String CACHE_PROPERTY = "chess.magic.cache";
+    private static final int SIZE = 8;
+    private static final int CACHE_VERSION = 1;
+    private static final int[] ROOK_X = {1, -1, 0, 0};
+    private static final int[] ROOK_Y = {0, 0, 1, -1};
+    private static final int[] BISHOP_X = {1, 1, -1, -1};
+    private static final int[] BISHOP_Y = {1, -1, 1, -1};
+    // Fixed seed, so magic numbers found are same on every run
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+    private static int SEARCHED_COUNT;
+    private static boolean CACHE_LOADED;
+
+    static {
+        for(int square = 0; square < 64; square++) {
+            ROOK_MASKS[square] = buildMask(square, ROOK_X, ROOK_Y);
+            BISHOP_MASKS[square] = buildMask(square, BISHOP_X, BISHOP_Y);
+            ROOK_SHIFTS[square] = 64 - Long.bitCount(ROOK_MASKS[square]);
+            BISHOP_SHIFTS[square] = 64 - Long.bitCount(BISHOP_MASKS[square]);
+            ROOK_ATTACKS[square] = new long[1 << Long.bitCount(ROOK_MASKS[square])];
+            BISHOP_ATTACKS[square] = new long[1 << Long.bitCount(BISHOP_MASKS[square])];
+        }
+        File cacheFile = getCacheFile();
+        CACHE_LOADED = readCache(cacheFile);
+        Random random = new Random(SEED);
+        for(int square = 0; square < 64; square++) {
+            ROOK_MAGICS[square] = setUpTable(ROOK_ATTACKS[square], ROOK_MASKS[square], ROOK_MAGICS[square],
+                    ROOK_SHIFTS[square], square, ROOK_X, ROOK_Y, random);
+            BISHOP_MAGICS[square] = setUpTable(BISHOP_ATTACKS[square], BISHOP_MASKS[square], BISHOP_MAGICS[square],
+                    BISHOP_SHIFTS[square], square, BISHOP_X, BISHOP_Y, random);
+        }
+        if(SEARCHED_COUNT > 0) {
+            writeCache(cacheFile);
+        }
+    }
+
+    /**
+     * Gets mask of cells attacked by rook-like movement from given cell.
+     * @param square Bit index of the cell.
+     * @param occupied Mask of occupied cells.
+     * @return Mask of attacked cells, including first blocker of each direction.
+     */
+    public static long getRookAttacks(int square, long occupied) {
+        return ROOK_ATTACKS[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * Gets mask of cells attacked by bishop-like movement from given cell.
+     * @param square Bit index of the cell.
+     * @param occupied Mask of occupied cells.
+     * @return Mask of attacked cells, including first blocker of each direction.
+     */
+    public static long getBishopAttacks(int square, long occupied) {
+        return BISHOP_ATTACKS[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    /**
+     * Gets mask of cells attacked by Queen from given cell, which is union of rook and bishop attacks.
+     * @param square Bit index of the cell.
+     * @param occupied Mask of occupied cells.
+     * @return Mask of attacked cells, including first blocker of each direction.
+     */
+    public static long getQueenAttacks(int square, long occupied) {
+        return getRookAttacks(square, occupied) | getBishopAttacks(square, occupied);
+    }
+
+    /**
+     * Gets number of magic numbers searched while loading this class, instead of taken from cache file.
+     * @return 0 if every magic number was taken from cache file, up to 128.
+     */
+    public static int getSearchedCount() {
+        return SEARCHED_COUNT;
+    }
+
+    /**
+     * Checks if cache file of magic numbers was read while loading this class.
+     * @return True if cache file was read, false if it was missing or malformed.
+     */
+    public static boolean isCacheLoaded() {
+        return CACHE_LOADED;
+    }
+
+    /**
+     * Walks rays from given cell to get attacks without the tables. Used to check the tables.
+     * @param square Bit index of the cell.
+     * @param occupied Mask of occupied cells.
+     * @param rook True for rook-like movement, false for bishop-like movement.
+     * @return Mask of attacked cells, including first blocker of each direction.
+     */
+    public static long walkAttacks(int square, long occupied, boolean rook) {
+        if(rook) {
+            return walkAttacks(square, occupied, ROOK_X, ROOK_Y);
+        }
+        return walkAttacks(square, occupied, BISHOP_X, BISHOP_Y);
+    }
+
+    /**
+     * Helper function to fill attack table of a cell with given magic number.
+     * Slots whose stamp is not given stamp are unused, so the table needs no clearing between tries.
+     * Returns false if two occupancies with different attacks share an index, leaving the table partly filled.
+     */
+    private static boolean fillTable(long[] table, int[] stamps, int stamp, long[] occupancies, long[] attacks,
+                                     long magic, int shift) {
+        if(magic == 0) {
+            return false;
+        }
+        for(int count = 0; count < occupancies.length; count++) {
+            int index = (int) ((occupancies[count] * magic) >>> shift);
+            if(stamps[index] != stamp) {
+                stamps[index] = stamp;
+                table[index] = attacks[count];
+            } else if(table[index] != attacks[count]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Helper function to set up table of a cell, with cached magic number if it passes, or a newly searched one.
+     * Returns magic number used, leaving table filled.
+     */
+    private static long setUpTable(long[] table, long mask, long magic, int shift, int square, int[] offsetX, int[] offsetY,
+                                   Random random) {
+        // Every subset of the mask and its attacks found by walking rays
+        long[] occupancies = new long[table.length];
+        long[] attacks = new long[table.length];
+        long occupied = 0L;
+        for(int count = 0; count < table.length; count++) {
+            occupancies[count] = occupied;
+            attacks[count] = walkAttacks(square, occupied, offsetX, offsetY);
+            occupied = (occupied - mask) & mask;
+        }
+        int[] stamps = new int[table.length];
+        int stamp = 1;
+        if(fillTable(table, stamps, stamp, occupancies, attacks, magic, shift)) {
+            return magic;
+        }
+        SEARCHED_COUNT++;
+        while(true) {
+            magic = random.nextLong() & random.nextLong() & random.nextLong();
+            // Magic numbers spreading too few bits of the mask to top byte rarely work
+            if(Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            stamp++;
+            if(fillTable(table, stamps, stamp, occupancies, attacks, magic, shift)) {
+                return magic;
+            }
+        }
+    }
+
+    /**
+     * Helper function to get attacks of given directions by walking cell by cell.
+     */
+    private static long walkAttacks(int square, long occupied, int[] offsetX, int[] offsetY) {
+        long attacks = 0L;
+        for(int direction = 0; direction < offsetX.length; direction++) {
+            int x = square % SIZE + offsetX[direction];
+            int y = square / SIZE + offsetY[direction];
+            while(x >= 0 && x < SIZE && y >= 0 && y < SIZE) {
+                long cell = 1L << (y * SIZE + x);
+                attacks |= cell;
+                if((occupied & cell) != 0) {
+                    break;
+                }
+                x += offsetX[direction];
+                y += offsetY[direction];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Helper function to get mask of relevant cells: cells of given directions, without the border cell of each.
+     */
+    private static long buildMask(int square, int[] offsetX, int[] offsetY) {
+        long mask = 0L;
+        for(int direction = 0; direction < offsetX.length; direction++) {
+            int x = square % SIZE + offsetX[direction];
+            int y = square / SIZE + offsetY[direction];
+            // Cell is relevant if ray goes on after it
+            while(x + offsetX[direction] >= 0 && x + offsetX[direction] < SIZE
+                    && y + offsetY[direction] >= 0 && y + offsetY[direction] < SIZE) {
+                mask |= 1L << (y * SIZE + x);
+                x += offsetX[direction];
+                y += offsetY[direction];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Helper function to get location of cache file.
+     */
+    private static File getCacheFile() {
+        String fileName = System.getProperty(CACHE_PROPERTY);
+        if(fileName == null) {
+            return new File(System.getProperty("java.io.tmpdir"), "chess_magics.bin");
+        }
+        return new File(fileName);
+    }
+
+    /**
+     * Helper function to read magic numbers from cache file. Returns false and leaves magic numbers 0 on any failure.
+     */
+    private static boolean readCache(File cacheFile) {
+        if(!cacheFile.isFile()) {
+            return false;
+        }
+        try(DataInputStream input = new DataInputStream(new FileInputStream(cacheFile))) {
+            if(input.readInt() != CACHE_VERSION) {
+                return false;
+            }
+            long[] magics = new long[128];
+            for(int index = 0; index < magics.length; index++) {
+                magics[index] = input.readLong();
+            }
+            System.arraycopy(magics, 0, ROOK_MAGICS, 0, 64);
+            System.arraycopy(magics, 64, BISHOP_MAGICS, 0, 64);
+            return true;
+        } catch(IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Helper function to write magic numbers to cache file. Tables work without cache, so failure is ignored.
+     */
+    private static void writeCache(File cacheFile) {
+        // Written to a temporary file first, so other programs never read a half-written cache
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        try(DataOutputStream output = new DataOutputStream(new FileOutputStream(tempFile))) {
+            output.writeInt(CACHE_VERSION);
+            for(int square = 0; square < 64; square++) {
+                output.writeLong(ROOK_MAGICS[square]);
+            }
+            for(int square = 0; square < 64; square++) {
+                output.writeLong(BISHOP_MAGICS[square]);
+            }
+        } catch(IOException e) {
+            tempFile.delete();
+            return;
+        }
+        if(!tempFile.renameTo(cacheFile)) {
+            tempFile.delete();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.MoveBuffer;
+
+/**
+ * ChessLibrary.MoveGenerator -- Creates possible moves of one piece type, registered in ChessLibrary.MoveGenerators.
+ * Generators keep no state of their own; board and scratch state are reached through the given creator,
+ * so one generator object is shared by every board.
+ * Moves of a type must match its attacks known to ChessLibrary.AttackMap, or check detection goes wrong.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public interface MoveGenerator {
+    /**
+     * Creates possible moves of given piece into given buffer, after moves already in buffer.
+     * @param creator ChessLibrary.MovesListCreator of the board the piece is on, offering helpers such as addMove.
+     * @param piece ChessLibrary.Pieces.ChessPiece object to determine possible moves.
+     * @param buffer Buffer to append packed moves to.
+     * @return No return value.
+     */
+    void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer);
+}
@@ -0,0 +1,135 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.MoveBuffer;
+
+/**
+ * ChessLibrary.MoveGenerators -- Registry of ChessLibrary.MoveGenerator of each piece type.
+ * Every type index of ChessLibrary.Pieces.ChessPiece starts with its built-in generator.
+ * ChessLibrary.MovesListCreator copies the registry when created, so a generator registered later
+ * is only used by boards whose creator is created after registering.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class MoveGenerators {
+    // Direction indexes of ChessLibrary.MoveTables, in order moves are listed: E, SE, NE, W, SW, NW, S, N
+    private static final int[] QUEEN_DIRECTIONS = {0, 1, 2, 3, 4, 5, 6, 7};
+    private static final int[] ROOK_DIRECTIONS = {0, 3, 6, 7};
+    private static final int[] BISHOP_DIRECTIONS = {1, 2, 4, 5};
+
+    /**
+     * King moves 1 block in any direction, except to cells where it would be checked.
+     */
+    public static final MoveGenerator KING = new MoveGenerator() {
+        @Override
+        public void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer) {
+            creator.addKingMoves(piece, buffer, true, true);
+        }
+    };
+
+    /**
+     * Queen slides in all 8 directions.
+     */
+    public static final MoveGenerator QUEEN = new MoveGenerator() {
+        @Override
+        public void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer) {
+            creator.addSlidingMoves(piece, buffer, QUEEN_DIRECTIONS);
+        }
+    };
+
+    /**
+     * Rook slides horizontally and vertically.
+     */
+    public static final MoveGenerator ROOK = new MoveGenerator() {
+        @Override
+        public void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer) {
+            creator.addSlidingMoves(piece, buffer, ROOK_DIRECTIONS);
+        }
+    };
+
+    /**
+     * Bishop slides diagonally.
+     */
+    public static final MoveGenerator BISHOP = new MoveGenerator() {
+        @Override
+        public void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer) {
+            creator.addSlidingMoves(piece, buffer, BISHOP_DIRECTIONS);
+        }
+    };
+
+    /**
+     * Knight jumps to its 8 targets.
+     */
+    public static final MoveGenerator KNIGHT = new MoveGenerator() {
+        @Override
+        public void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer) {
+            int square = piece.getYCoordinate() * creator.getColumns() + piece.getXCoordinate();
+            creator.addTargetMoves(piece, buffer, creator.getMoveTables().getKnightTargets(square));
+        }
+    };
+
+    /**
+     * Pawn moves forward, captures diagonally forward.
+     */
+    public static final MoveGenerator PAWN = new MoveGenerator() {
+        @Override
+        public void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer) {
+            creator.addPawnMoves(piece, buffer);
+        }
+    };
+
+    /**
+     * Leaper steps 1 block to empty cells, captures by leaping 2 blocks.
+     */
+    public static final MoveGenerator LEAPER = new MoveGenerator() {
+        @Override
+        public void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer) {
+            creator.addLeaperMoves(piece, buffer);
+        }
+    };
+
+    /**
+     * Charger charges in all 8 directions, stopping at one cell per direction.
+     */
+    public static final MoveGenerator CHARGER = new MoveGenerator() {
+        @Override
+        public void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer) {
+            creator.addChargerMoves(piece, buffer);
+        }
+    };
+
+    private static final MoveGenerator[] GENERATORS = {KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN, LEAPER, CHARGER};
+
+    /**
+     * Registers generator of given piece type, replacing current one.
+     * @param type Type index of ChessLibrary.Pieces.ChessPiece.
+     * @param generator Generator to create moves of pieces of the type.
+     * @return No return value.
+     * @throws IllegalArgumentException If type index is unknown or generator is null.
+     */
+    public static synchronized void register(int type, MoveGenerator generator) {
+        if(type < 0 || type >= ChessPiece.TYPE_COUNT) {
+            throw new IllegalArgumentException("Unknown piece type " + type);
+        }
+        if(generator == null) {
+            throw new IllegalArgumentException("Generator of piece type " + type + " is null");
+        }
+        GENERATORS[type] = generator;
+    }
+
+    /**
+     * Gets generator of given piece type.
+     * @param type Type index of ChessLibrary.Pieces.ChessPiece.
+     * @return Registered generator.
+     */
+    public static synchronized MoveGenerator get(int type) {
+        return GENERATORS[type];
+    }
+
+    /**
+     * Copies generators of every piece type, indexed by type index.
+     * @return New array of registered generators.
+     */
+    public static synchronized MoveGenerator[] getAll() {
+        return GENERATORS.clone();
+    }
+}
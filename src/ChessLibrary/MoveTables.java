@@ -0,0 +1,224 @@
+package ChessLibrary;
+
+import ChessLibrary.Util.CellMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ChessLibrary.MoveTables -- Target cells of jumping pieces and rays of sliding pieces from every cell, for one board size.
+ * Tables are built once for each (rows, columns) and shared by every board of that size, so they must not be changed.
+ * Boards larger than ChessLibrary.Util.CellMap.DENSE_LIMIT get no tables, since they would grow with board area;
+ * their targets are listed on each call instead. Rays are never stored: a ray is its length and the cell offset
+ * of one step, see getRayLength and getStep.
+ * Cell index is (y * columns + x). Only cells inside the board are listed.
+ * Targets are listed in same order as ChessLibrary.MovesListCreator examines them, so generated moves keep their order.
+ * Directions are indexed in order E, SE, NE, W, SW, NW, S, N, where S is towards larger y.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class MoveTables {
+    /**
+     * Marks a missing target in parallel tables, such as Leaper jump off the board.
+     */
+    public static final int NONE = -1;
+    // Directions in order moves are listed: E, SE, NE, W, SW, NW, S, N
+    private static final int[] DIRECTION_X = {1, 1, 1, -1, -1, -1, 0, 0};
+    private static final int[] DIRECTION_Y = {0, 1, -1, 0, 1, -1, 1, -1};
+    private static final int[] KNIGHT_X = {1, 1, 2, 2, -1, -1, -2, -2};
+    private static final int[] KNIGHT_Y = {2, -2, 1, -1, 2, -2, 1, -1};
+    // Leaper directions: E, S, W, N
+    private static final int[] LEAPER_X = {1, 0, -1, 0};
+    private static final int[] LEAPER_Y = {0, 1, 0, -1};
+    private static final ConcurrentHashMap<Long, MoveTables> TABLES = new ConcurrentHashMap<>();
+
+    private int BOARD_ROWS;
+    private int BOARD_COLUMNS;
+    // Targets of every cell, null on boards larger than ChessLibrary.Util.CellMap.DENSE_LIMIT.
+    private int[][] KING_TARGETS;
+    private int[][] KNIGHT_TARGETS;
+    private int[][] LEAPER_STEPS;
+    private int[][] LEAPER_JUMPS;
+    // Cell offset of one step in each direction.
+    private int[] STEPS;
+
+    /**
+     * Gets tables for given board size, building them on first use.
+     * @param rows Number of rows of chessboard.
+     * @param columns Number of columns of chessboard.
+     * @return Shared tables for given size.
+     */
+    public static MoveTables get(int rows, int columns) {
+        Long key = ((long) rows << 32) | columns;
+        MoveTables tables = TABLES.get(key);
+        if(tables == null) {
+            tables = new MoveTables(rows, columns);
+            MoveTables existing = TABLES.putIfAbsent(key, tables);
+            if(existing != null) {
+                tables = existing;
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * MoveTables constructor. Use get, so tables of each size are built only once.
+     */
+    private MoveTables(int rows, int columns) {
+        BOARD_ROWS = rows;
+        BOARD_COLUMNS = columns;
+        STEPS = new int[DIRECTION_X.length];
+        for(int direction = 0; direction < DIRECTION_X.length; direction++) {
+            STEPS[direction] = DIRECTION_Y[direction] * columns + DIRECTION_X[direction];
+        }
+        int cells = rows * columns;
+        if(!CellMap.isDense(cells)) {
+            return;
+        }
+        KING_TARGETS = new int[cells][];
+        KNIGHT_TARGETS = new int[cells][];
+        LEAPER_STEPS = new int[cells][];
+        LEAPER_JUMPS = new int[cells][];
+        for(int square = 0; square < cells; square++) {
+            int x = square % columns;
+            int y = square / columns;
+            KING_TARGETS[square] = buildTargets(x, y, DIRECTION_X, DIRECTION_Y);
+            KNIGHT_TARGETS[square] = buildTargets(x, y, KNIGHT_X, KNIGHT_Y);
+            LEAPER_STEPS[square] = buildTargets(x, y, LEAPER_X, LEAPER_Y);
+            LEAPER_JUMPS[square] = buildJumps(x, y);
+        }
+    }
+
+    /**
+     * Gets cells King on given cell can move to, in order E, SE, NE, W, SW, NW, S, N.
+     * @param square Cell index of the King.
+     * @return Array of cell indexes, shared on boards up to ChessLibrary.Util.CellMap.DENSE_LIMIT cells.
+     */
+    public int[] getKingTargets(int square) {
+        if(KING_TARGETS == null) {
+            return buildTargets(square % BOARD_COLUMNS, square / BOARD_COLUMNS, DIRECTION_X, DIRECTION_Y);
+        }
+        return KING_TARGETS[square];
+    }
+
+    /**
+     * Gets cells Knight on given cell can move to.
+     * @param square Cell index of the Knight.
+     * @return Array of cell indexes, shared on boards up to ChessLibrary.Util.CellMap.DENSE_LIMIT cells.
+     */
+    public int[] getKnightTargets(int square) {
+        if(KNIGHT_TARGETS == null) {
+            return buildTargets(square % BOARD_COLUMNS, square / BOARD_COLUMNS, KNIGHT_X, KNIGHT_Y);
+        }
+        return KNIGHT_TARGETS[square];
+    }
+
+    /**
+     * Gets cells 1 block away from given cell in order E, S, W, N, where Leaper makes quiet moves.
+     * @param square Cell index of the Leaper.
+     * @return Array of cell indexes, shared on boards up to ChessLibrary.Util.CellMap.DENSE_LIMIT cells.
+     */
+    public int[] getLeaperSteps(int square) {
+        if(LEAPER_STEPS == null) {
+            return buildTargets(square % BOARD_COLUMNS, square / BOARD_COLUMNS, LEAPER_X, LEAPER_Y);
+        }
+        return LEAPER_STEPS[square];
+    }
+
+    /**
+     * Gets cells 2 blocks away from given cell, where Leaper captures, in same order as getLeaperSteps.
+     * @param square Cell index of the Leaper.
+     * @return Array parallel to getLeaperSteps, holding NONE where jump lands off the board.
+     */
+    public int[] getLeaperJumps(int square) {
+        if(LEAPER_JUMPS == null) {
+            return buildJumps(square % BOARD_COLUMNS, square / BOARD_COLUMNS);
+        }
+        return LEAPER_JUMPS[square];
+    }
+
+    /**
+     * Gets cells sliding piece on given cell passes in given direction on empty board, from nearest to the border.
+     * Array is created on every call, so use getRayLength and getStep where speed matters.
+     * @param direction Direction index.
+     * @param square Cell index of the piece.
+     * @return New array of cell indexes. Empty if given cell is on the border in that direction.
+     */
+    public int[] getRay(int direction, int square) {
+        int[] ray = new int[getRayLength(direction, square)];
+        for(int step = 1; step <= ray.length; step++) {
+            ray[step - 1] = square + STEPS[direction] * step;
+        }
+        return ray;
+    }
+
+    /**
+     * Gets number of cells sliding piece on given cell passes in given direction on empty board.
+     * @param direction Direction index.
+     * @param square Cell index of the piece.
+     * @return Distance to the border. 0 if given cell is on the border in that direction.
+     */
+    public int getRayLength(int direction, int square) {
+        int x = square % BOARD_COLUMNS;
+        int y = square / BOARD_COLUMNS;
+        int length = Integer.MAX_VALUE;
+        if(DIRECTION_X[direction] != 0) {
+            length = (DIRECTION_X[direction] > 0) ? BOARD_COLUMNS - 1 - x : x;
+        }
+        if(DIRECTION_Y[direction] != 0) {
+            length = Math.min(length, (DIRECTION_Y[direction] > 0) ? BOARD_ROWS - 1 - y : y);
+        }
+        return length;
+    }
+
+    /**
+     * Gets difference of cell index made by one step in given direction. Cell n steps away is square + n * getStep.
+     * @param direction Direction index.
+     * @return Cell offset of one step.
+     */
+    public int getStep(int direction) {
+        return STEPS[direction];
+    }
+
+    /**
+     * Helper function to list cells inside the board reached by given offsets.
+     */
+    private int[] buildTargets(int x, int y, int[] offsetX, int[] offsetY) {
+        int[] buffer = new int[offsetX.length];
+        int count = 0;
+        for(int index = 0; index < offsetX.length; index++) {
+            int targetX = x + offsetX[index];
+            int targetY = y + offsetY[index];
+            if(isInside(targetX, targetY)) {
+                buffer[count++] = targetY * BOARD_COLUMNS + targetX;
+            }
+        }
+        int[] targets = new int[count];
+        System.arraycopy(buffer, 0, targets, 0, count);
+        return targets;
+    }
+
+    /**
+     * Helper function to list cell 2 blocks away for each Leaper step inside the board, NONE if it lands off the board.
+     */
+    private int[] buildJumps(int x, int y) {
+        int[] buffer = new int[LEAPER_X.length];
+        int count = 0;
+        for(int direction = 0; direction < LEAPER_X.length; direction++) {
+            if(!isInside(x + LEAPER_X[direction], y + LEAPER_Y[direction])) {
+                continue;
+            }
+            int jumpX = x + LEAPER_X[direction] * 2;
+            int jumpY = y + LEAPER_Y[direction] * 2;
+            buffer[count++] = isInside(jumpX, jumpY) ? jumpY * BOARD_COLUMNS + jumpX : NONE;
+        }
+        int[] jumps = new int[count];
+        System.arraycopy(buffer, 0, jumps, 0, count);
+        return jumps;
+    }
+
+    /**
+     * Helper function to check if given coordinate is inside the board.
+     */
+    private boolean isInside(int x, int y) {
+        return x >= 0 && x < BOARD_COLUMNS && y >= 0 && y < BOARD_ROWS;
+    }
+}
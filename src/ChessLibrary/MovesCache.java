@@ -0,0 +1,81 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.IntPair;
+import ChessLibrary.Util.Move;
+import ChessLibrary.Util.MoveBuffer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * ChessLibrary.MovesCache -- Legal moves of every piece of one side in one position, looked up by piece code.
+ * Cache is filled once when created and never changed, so it can be created on one thread and read on another.
+ * Lists hold same destinations, in same order, as ChessLibrary.Game.getMovesInterface returns.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class MovesCache {
+    private long HASH;
+    private int SIDE;
+    // null value for pieces that cannot move at all, empty list for pieces whose moves all leave King checked.
+    private HashMap<Integer, List<IntPair>> MOVES = new HashMap<>();
+
+    /**
+     * MovesCache constructor. Creates legal moves of given side on given board.
+     * Board is only read, but must not be changed by other threads meanwhile.
+     * @param board Chessboard to create moves on.
+     * @param side Side to create moves of.
+     */
+    public MovesCache(ChessBoard board, int side) {
+        HASH = board.hash();
+        SIDE = side;
+        int columns = board.getColumns();
+        MoveBuffer legalMoves = new MoveBuffer();
+        MoveBuffer possibleMoves = new MoveBuffer();
+        board.getLegalMoves(side, legalMoves);
+        // Legal moves are listed piece by piece, in row order of pieces
+        int count = 0;
+        int[] pieceSquares = board.getPieceSquares(side, new int[board.getPieceCount(side)]);
+        for(int index = 0; index < board.getPieceCount(side); index++) {
+            int from = pieceSquares[index];
+            ChessPiece piece = board.getChessPiece(from % columns, from / columns);
+            List<IntPair> movesList = new ArrayList<>();
+            while(count < legalMoves.size() && Move.getFrom(legalMoves.get(count)) == from) {
+                int to = Move.getTo(legalMoves.get(count));
+                movesList.add(IntPair.of(to % columns, to / columns));
+                count++;
+            }
+            if(movesList.isEmpty()) {
+                board.getMoves(piece, possibleMoves);
+                if(possibleMoves.size() == 0) {
+                    movesList = null;
+                }
+            }
+            MOVES.put(piece.getCode(), movesList);
+        }
+    }
+
+    /**
+     * Checks if this cache holds moves of given position and side.
+     * @param hash Zobrist hash of the position, see ChessBoard.hash.
+     * @param side Side to move.
+     * @return True if cache can be used, false if not.
+     */
+    public boolean matches(long hash, int side) {
+        return HASH == hash && SIDE == side;
+    }
+
+    /**
+     * Gets legal moves of piece with given identifier.
+     * @param id Unique identifier of the piece.
+     * @return New list of destinations, which caller may change. null if piece cannot move at all or is not in cache.
+     */
+    public List<IntPair> getMoves(String id) {
+        List<IntPair> movesList = MOVES.get(ChessPiece.toCode(id));
+        if(movesList == null) {
+            return null;
+        }
+        return new ArrayList<>(movesList);
+    }
+}
@@ -1,32 +1,86 @@
 package ChessLibrary;
 
 import ChessLibrary.Pieces.ChessPiece;
-import ChessLibrary.Pieces.King;
 import ChessLibrary.Util.IntPair;
+import ChessLibrary.Util.Move;
+import ChessLibrary.Util.MoveBuffer;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * ChessLibrary.MovesListCreator -- Contains methods to return list of possible moves of given a piece.
- *                     ChessLibrary.MovesListCreator must be initialized every turn.
+ * Creator always examines current state of its board, so one creator can be kept for the lifetime of the board.
+ * Creating moves only reads the board. Scratch state is kept in the creator, so threads reading the same board
+ * each need their own creator.
+ * Targets of King, Knight and Leaper and ray lengths of sliding pieces are read from shared ChessLibrary.MoveTables
+ * of the board size.
+ * Sliding pieces and Charger move up to the border of the board, on boards of any size.
+ * On 8x8 board, their stops are found from attacks of ChessLibrary.MagicTables instead of walking rays.
+ * Moves are created as packed ints of ChessLibrary.Util.Move into a caller-supplied ChessLibrary.Util.MoveBuffer.
+ * Methods returning List of ChessLibrary.Util.IntPair convert the buffer, for callers such as GUI.
+ * createMoves dispatches to ChessLibrary.MoveGenerator of the piece type, taken from ChessLibrary.MoveGenerators
+ * when the creator is created. Public add methods are the helpers generators build moves with.
  * @author Wonwoo Seo (wonwooseo@hotmail.com)
  */
 public class MovesListCreator {
     private ChessBoard CURRENT_BOARD;
     private int BOARD_ROWS;
     private int BOARD_COLUMNS;
+    private MoveTables MOVE_TABLES;
+    // Generator of each piece type, indexed by type index.
+    private MoveGenerator[] GENERATORS;
+    // Number of cells sliding piece can move to in each direction, for addSlidingMoves.
+    private int[] slideLimits = new int[8];
 
     /**
      * MoveListCreator constructor.
      * @param board ChessLibrary.ChessBoard object for MoveListCreator to examine.
      * @param rows Number of rows of chessboard.
      * @param columns Number of columns of chessboard.
+     * @throws IllegalArgumentException If chessboard has more cells than ChessLibrary.Util.Move can hold.
      */
     public MovesListCreator(ChessBoard board, int rows, int columns) {
+        if((long) rows * columns > Move.MAX_CELLS) {
+            throw new IllegalArgumentException("Chessboard of " + rows + "x" + columns + " is too large");
+        }
         CURRENT_BOARD = board;
         BOARD_ROWS = rows;
         BOARD_COLUMNS = columns;
+        MOVE_TABLES = MoveTables.get(rows, columns);
+        GENERATORS = MoveGenerators.getAll();
+    }
+
+    /**
+     * Gets chessboard this creator examines.
+     * @return ChessLibrary.ChessBoard object.
+     */
+    public ChessBoard getBoard() {
+        return CURRENT_BOARD;
+    }
+
+    /**
+     * Gets number of columns of chessboard, to convert cell index (y * columns + x) to coordinates.
+     * @return Number of columns.
+     */
+    public int getColumns() {
+        return BOARD_COLUMNS;
+    }
+
+    /**
+     * Gets shared tables of targets and rays of chessboard size.
+     * @return ChessLibrary.MoveTables object.
+     */
+    public MoveTables getMoveTables() {
+        return MOVE_TABLES;
+    }
+
+    /**
+     * Gets generator this creator uses for given piece type.
+     * @param type Type index of ChessLibrary.Pieces.ChessPiece.
+     * @return Generator copied from ChessLibrary.MoveGenerators when the creator was created.
+     */
+    public MoveGenerator getGenerator(int type) {
+        return GENERATORS[type];
     }
 
     /**
@@ -36,51 +90,40 @@ public class MovesListCreator {
      * @return 0 if not occupied, 1 if ally occupies given position, 2 if enemy occupies given position.
      */
     public int checkOccupied(int side, IntPair position) {
-        ChessPiece target = CURRENT_BOARD.getChessPiece(position.left(), position.right());
-        if(target == null) {
-            return 0;
-        } else if(target.getSide() == side) {
-            return 1;
-        } else {
-            return 2;
-        }
+        return CURRENT_BOARD.checkOccupied(side, position.left(), position.right());
     }
 
     /**
-     * Checks if move to destination results in being checked.
+     * Checks if move to destination results in being checked. Board is not changed while checking.
      * This method is only used to determine illegal moves of ChessLibrary.Pieces.King piece.
      * @param piece ChessLibrary.Pieces.ChessPiece to move(ChessLibrary.Pieces.King).
      * @param destination Destination to move.
      * @return Whether move results in check.
      */
     public boolean checkNextMoveIsCheck(ChessPiece piece, IntPair destination) {
-        IntPair currentPosition = piece.getPosition();
-        // Temporarily move piece to destination
-        CURRENT_BOARD.deleteChessPiece(currentPosition.left(), currentPosition.right());
-        ChessPiece deleted = CURRENT_BOARD.getChessPiece(destination.left(), destination.right());
-        CURRENT_BOARD.setChessPiece(piece, destination.left(), destination.right());
-        List<ChessPiece> attackerList = CURRENT_BOARD.checkIfCheck(piece.getSide());
-        // Check if enemy king can attack own king
-        List<IntPair> movesList = createKingMovesOnlyBorderCheck(piece);
-        for(int count = 0; count < movesList.size(); count++) {
-            IntPair possibleMove = movesList.get(count);
-            ChessPiece attacker = CURRENT_BOARD.getChessPiece(possibleMove.left(), possibleMove.right());
-            if(attacker instanceof King && attacker.getSide() != piece.getSide()) {
-                attackerList.add(attacker);
-            }
-        }
-        // Undo move
-        CURRENT_BOARD.deleteChessPiece(destination.left(), destination.right());
-        if(deleted != null) {
-            CURRENT_BOARD.setChessPiece(deleted, destination.left(), destination.right());
-        }
-        CURRENT_BOARD.setChessPiece(piece, currentPosition.left(), currentPosition.right());
+        return checkNextMoveIsCheck(piece, destination.left(), destination.right());
+    }
 
-        if(attackerList.size() == 0) {
-            return false;
-        } else {
-            return true;
-        }
+    /**
+     * Creates currently possible moves of given piece into given buffer. Moves are appended after moves already in buffer.
+     * Only ChessLibrary.Pieces.King moves are checked for resulting in check.
+     * @param piece ChessLibrary.Pieces.ChessPiece object to determine possible moves.
+     * @param buffer Buffer to append packed moves to.
+     * @return No return value.
+     */
+    public void createMoves(ChessPiece piece, MoveBuffer buffer) {
+        GENERATORS[piece.getType()].addMoves(this, piece, buffer);
+    }
+
+    /**
+     * Creates moves of given ChessLibrary.Pieces.King piece into given buffer, without checking if they result in check.
+     * Moves are appended after moves already in buffer. Used by ChessLibrary.LegalMovesCreator, which checks them itself.
+     * @param piece ChessLibrary.Pieces.ChessPiece object to determine possible moves.
+     * @param buffer Buffer to append packed moves to.
+     * @return No return value.
+     */
+    public void createKingMovesWithoutCheck(ChessPiece piece, MoveBuffer buffer) {
+        addKingMoves(piece, buffer, true, false);
     }
 
     /**
@@ -90,82 +133,9 @@ public class MovesListCreator {
      * @return List of possible moves of given piece.
      */
     public List<IntPair> createKingMoves(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        // Check if ChessLibrary.Pieces.King can move 1 block horizontally / vertically / diagonally.
-        if(currentPosition.left() + 1 < BOARD_COLUMNS) { // 1 block East
-            IntPair moveEast = new IntPair(currentPosition.left() + 1, currentPosition.right());
-            int occupyCheckE = checkOccupied(piece.getSide(), moveEast);
-            if(occupyCheckE == 0 || occupyCheckE == 2) { // target cell is empty or occupied with enemy piece
-                if(!checkNextMoveIsCheck(piece, moveEast)) {
-                    movesList.add(moveEast);
-                }
-            }
-            if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South-East
-                IntPair moveSouthEast = new IntPair(currentPosition.left() + 1, currentPosition.right() + 1);
-                int occupyCheckSE = checkOccupied(piece.getSide(), moveSouthEast);
-                if(occupyCheckSE == 0 || occupyCheckSE == 2) {
-                    if(!checkNextMoveIsCheck(piece, moveSouthEast)) {
-                        movesList.add(moveSouthEast);
-                    }
-                }
-            }
-            if(currentPosition.right() - 1 >= 0) { // 1 block North-East
-                IntPair moveNorthEast = new IntPair(currentPosition.left() + 1, currentPosition.right() - 1);
-                int occupyCheckNE = checkOccupied(piece.getSide(), moveNorthEast);
-                if(occupyCheckNE == 0 || occupyCheckNE == 2) {
-                    if(!checkNextMoveIsCheck(piece, moveNorthEast)) {
-                        movesList.add(moveNorthEast);
-                    }
-                }
-            }
-        }
-        if(currentPosition.left() - 1 >= 0) { // 1 block West
-            IntPair moveWest = new IntPair(currentPosition.left() - 1, currentPosition.right());
-            int occupyCheckW = checkOccupied(piece.getSide(), moveWest);
-            if(occupyCheckW == 0 || occupyCheckW == 2) {
-                if(!checkNextMoveIsCheck(piece, moveWest)) {
-                    movesList.add(moveWest);
-                }
-            }
-            if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South-West
-                IntPair moveSouthWest = new IntPair(currentPosition.left() - 1, currentPosition.right() + 1);
-                int occupyCheckSW = checkOccupied(piece.getSide(), moveSouthWest);
-                if(occupyCheckSW == 0 || occupyCheckSW == 2) {
-                    if(!checkNextMoveIsCheck(piece, moveSouthWest)) {
-                        movesList.add(moveSouthWest);
-                    }
-                }
-            }
-            if(currentPosition.right() - 1 >= 0) { // 1 block North-West
-                IntPair moveNorthWest = new IntPair(currentPosition.left() - 1, currentPosition.right() - 1);
-                int occupyCheckNW = checkOccupied(piece.getSide(), moveNorthWest);
-                if(occupyCheckNW == 0 || occupyCheckNW == 2) {
-                    if(!checkNextMoveIsCheck(piece, moveNorthWest)) {
-                        movesList.add(moveNorthWest);
-                    }
-                }
-            }
-        }
-        if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South
-            IntPair moveSouth = new IntPair(currentPosition.left(), currentPosition.right() + 1);
-            int occupyCheckS = checkOccupied(piece.getSide(), moveSouth);
-            if(occupyCheckS == 0 || occupyCheckS == 2) {
-                if(!checkNextMoveIsCheck(piece, moveSouth)) {
-                    movesList.add(moveSouth);
-                }
-            }
-        }
-        if(currentPosition.right() - 1 >= 0) { // 1 block North
-            IntPair moveNorth = new IntPair(currentPosition.left(), currentPosition.right() - 1);
-            int occupyCheckN = checkOccupied(piece.getSide(), moveNorth);
-            if(occupyCheckN == 0 || occupyCheckN == 2) {
-                if(!checkNextMoveIsCheck(piece, moveNorth)) {
-                    movesList.add(moveNorth);
-                }
-            }
-        }
-        return movesList;
+        MoveBuffer buffer = new MoveBuffer();
+        addKingMoves(piece, buffer, true, true);
+        return buffer.getDestinations(BOARD_COLUMNS);
     }
 
     /**
@@ -175,58 +145,9 @@ public class MovesListCreator {
      * @return List of possible moves of given piece, with only out-of-border and check cases checked.
      */
     public List<IntPair> createKingMovesWithoutOccupyCheck(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        // Check if ChessLibrary.Pieces.King can move 1 block horizontally / vertically / diagonally.
-        if(currentPosition.left() + 1 < BOARD_COLUMNS) { // 1 block East
-            IntPair moveEast = new IntPair(currentPosition.left() + 1, currentPosition.right());
-            if(!checkNextMoveIsCheck(piece, moveEast)) {
-                movesList.add(moveEast);
-            }
-            if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South-East
-                IntPair moveSouthEast = new IntPair(currentPosition.left() + 1, currentPosition.right() + 1);
-                if(!checkNextMoveIsCheck(piece, moveSouthEast)) {
-                    movesList.add(moveSouthEast);
-                }
-            }
-            if(currentPosition.right() - 1 >= 0) { // 1 block North-East
-                IntPair moveNorthEast = new IntPair(currentPosition.left() + 1, currentPosition.right() - 1);
-                if(!checkNextMoveIsCheck(piece, moveNorthEast)) {
-                    movesList.add(moveNorthEast);
-                }
-            }
-        }
-        if(currentPosition.left() - 1 >= 0) { // 1 block West
-            IntPair moveWest = new IntPair(currentPosition.left() - 1, currentPosition.right());
-            if(!checkNextMoveIsCheck(piece, moveWest)) {
-                movesList.add(moveWest);
-            }
-            if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South-West
-                IntPair moveSouthWest = new IntPair(currentPosition.left() - 1, currentPosition.right() + 1);
-                if(!checkNextMoveIsCheck(piece, moveSouthWest)) {
-                    movesList.add(moveSouthWest);
-                }
-            }
-            if(currentPosition.right() - 1 >= 0) { // 1 block North-West
-                IntPair moveNorthWest = new IntPair(currentPosition.left() - 1, currentPosition.right() - 1);
-                if(!checkNextMoveIsCheck(piece, moveNorthWest)) {
-                    movesList.add(moveNorthWest);
-                }
-            }
-        }
-        if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South
-            IntPair moveSouth = new IntPair(currentPosition.left(), currentPosition.right() + 1);
-            if(!checkNextMoveIsCheck(piece, moveSouth)) {
-                movesList.add(moveSouth);
-            }
-        }
-        if(currentPosition.right() - 1 >= 0) { // 1 block North
-            IntPair moveNorth = new IntPair(currentPosition.left(), currentPosition.right() - 1);
-            if(!checkNextMoveIsCheck(piece, moveNorth)) {
-                movesList.add(moveNorth);
-            }
-        }
-        return movesList;
+        MoveBuffer buffer = new MoveBuffer();
+        addKingMoves(piece, buffer, false, true);
+        return buffer.getDestinations(BOARD_COLUMNS);
     }
 
     /**
@@ -236,45 +157,9 @@ public class MovesListCreator {
      * @return List of possible moves of given piece, with only out-of-border cases checked.
      */
     public List<IntPair> createKingMovesOnlyBorderCheck(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        // Check if ChessLibrary.Pieces.King can move 1 block horizontally / vertically / diagonally.
-        if(currentPosition.left() + 1 < BOARD_COLUMNS) { // 1 block East
-            IntPair moveEast = new IntPair(currentPosition.left() + 1, currentPosition.right());
-            movesList.add(moveEast);
-            if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South-East
-                IntPair moveSouthEast = new IntPair(currentPosition.left() + 1, currentPosition.right() + 1);
-                movesList.add(moveSouthEast);
-            }
-            if(currentPosition.right() - 1 >= 0) { // 1 block North-East
-                IntPair moveNorthEast = new IntPair(currentPosition.left() + 1, currentPosition.right() - 1);
-                movesList.add(moveNorthEast);
-            }
-        }
-        if(currentPosition.left() - 1 >= 0) { // 1 block West
-            IntPair moveWest = new IntPair(currentPosition.left() - 1, currentPosition.right());
-            movesList.add(moveWest);
-
-            if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South-West
-                IntPair moveSouthWest = new IntPair(currentPosition.left() - 1, currentPosition.right() + 1);
-                movesList.add(moveSouthWest);
-
-            }
-            if(currentPosition.right() - 1 >= 0) { // 1 block North-West
-                IntPair moveNorthWest = new IntPair(currentPosition.left() - 1, currentPosition.right() - 1);
-                movesList.add(moveNorthWest);
-
-            }
-        }
-        if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South
-            IntPair moveSouth = new IntPair(currentPosition.left(), currentPosition.right() + 1);
-            movesList.add(moveSouth);
-        }
-        if(currentPosition.right() - 1 >= 0) { // 1 block North
-            IntPair moveNorth = new IntPair(currentPosition.left(), currentPosition.right() - 1);
-            movesList.add(moveNorth);
-        }
-        return movesList;
+        MoveBuffer buffer = new MoveBuffer();
+        addKingMoves(piece, buffer, false, false);
+        return buffer.getDestinations(BOARD_COLUMNS);
     }
 
     /**
@@ -284,61 +169,9 @@ public class MovesListCreator {
      * @return List of possible moves of given piece.
      */
     public List<IntPair> createQueenMoves(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        // Variables to determine if path is blocked
-        int blockedEast = Integer.MAX_VALUE;
-        int blockedSouthEast = Integer.MAX_VALUE;
-        int blockedNorthEast = Integer.MAX_VALUE;
-        int blockedWest = Integer.MAX_VALUE;
-        int blockedSouthWest = Integer.MAX_VALUE;
-        int blockedNorthWest = Integer.MAX_VALUE;
-        int blockedNorth = Integer.MAX_VALUE;
-        int blockedSouth = Integer.MAX_VALUE;
-        // Check if ChessLibrary.Pieces.Queen can move horizontally / vertically / diagonally from 1 block to 7 blocks.
-        for(int count = 1; count <= 7; count++) {
-            if(currentPosition.left() + count < BOARD_COLUMNS) { // East
-                if(count < blockedEast) {
-                    blockedEast = getBlockedEast(piece, movesList, currentPosition, blockedEast, count);
-                }
-                if(currentPosition.right() + count < BOARD_ROWS) { // South-East
-                    if(count < blockedSouthEast) {
-                        blockedSouthEast = getBlockedSouthEast(piece, movesList, currentPosition, blockedSouthEast, count);
-                    }
-                }
-                if(currentPosition.right() - count >= 0) { // North-East
-                    if(count < blockedNorthEast) {
-                        blockedNorthEast = getBlockedNorthEast(piece, movesList, currentPosition, blockedNorthEast, count);
-                    }
-                }
-            }
-            if(currentPosition.left() - count >= 0) { // West
-                if(count < blockedWest) {
-                    blockedWest = getBlockedWest(piece, movesList, currentPosition, blockedWest, count);
-                }
-                if(currentPosition.right() + count < BOARD_ROWS) { // South-West
-                    if(count < blockedSouthWest) {
-                        blockedSouthWest = getBlockedSouthWest(piece, movesList, currentPosition, blockedSouthWest, count);
-                    }
-                }
-                if(currentPosition.right() - count >= 0) { // North-West
-                    if(count < blockedNorthWest) {
-                        blockedNorthWest = getBlockedNorthWest(piece, movesList, currentPosition, blockedNorthWest, count);
-                    }
-                }
-            }
-            if(currentPosition.right() + count < BOARD_ROWS) { // South
-                if(count < blockedSouth) {
-                    blockedSouth = getBlockedSouth(piece, movesList, currentPosition, blockedSouth, count);
-                }
-            }
-            if(currentPosition.right() - count >= 0) { // North
-                if(count < blockedNorth) {
-                    blockedNorth = getBlockedNorth(piece, movesList, currentPosition, blockedNorth, count);
-                }
-            }
-        }
-        return movesList;
+        MoveBuffer buffer = new MoveBuffer();
+        MoveGenerators.QUEEN.addMoves(this, piece, buffer);
+        return buffer.getDestinations(BOARD_COLUMNS);
     }
 
     /**
@@ -348,37 +181,9 @@ public class MovesListCreator {
      * @return List of possible moves of given piece.
      */
     public List<IntPair> createRookMoves(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        // Values to determine if path is blocked
-        int blockedEast = Integer.MAX_VALUE;
-        int blockedWest = Integer.MAX_VALUE;
-        int blockedNorth = Integer.MAX_VALUE;
-        int blockedSouth = Integer.MAX_VALUE;
-        // Check if ChessLibrary.Pieces.Rook can move horizontally / vertically from 1 block to 7 blocks.
-        for(int count = 1; count <= 7; count++) {
-            if(currentPosition.left() + count < BOARD_COLUMNS) { // East
-                if(count < blockedEast) {
-                    blockedEast = getBlockedEast(piece, movesList, currentPosition, blockedEast, count);
-                }
-            }
-            if(currentPosition.left() - count >= 0) { // West
-                if(count < blockedWest) {
-                    blockedWest = getBlockedWest(piece, movesList, currentPosition, blockedWest, count);
-                }
-            }
-            if(currentPosition.right() + count < BOARD_ROWS) { // South
-                if(count < blockedSouth) {
-                    blockedSouth = getBlockedSouth(piece, movesList, currentPosition, blockedSouth, count);
-                }
-            }
-            if(currentPosition.right() - count >= 0) { // North
-                if(count < blockedNorth) {
-                    blockedNorth = getBlockedNorth(piece, movesList, currentPosition, blockedNorth, count);
-                }
-            }
-        }
-        return movesList;
+        MoveBuffer buffer = new MoveBuffer();
+        MoveGenerators.ROOK.addMoves(this, piece, buffer);
+        return buffer.getDestinations(BOARD_COLUMNS);
     }
 
     /**
@@ -388,41 +193,9 @@ public class MovesListCreator {
      * @return List of possible moves of given piece.
      */
     public List<IntPair> createBishopMoves(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        // Values to determine if path is blocked
-        int blockedSouthEast = Integer.MAX_VALUE;
-        int blockedNorthEast = Integer.MAX_VALUE;
-        int blockedSouthWest = Integer.MAX_VALUE;
-        int blockedNorthWest = Integer.MAX_VALUE;
-        // Check if bishop can move diagonally from 1 block to 7 blocks.
-        for(int count = 1; count <= 7; count++) {
-            if(currentPosition.left() + count < BOARD_COLUMNS) { // out of border check
-                if(currentPosition.right() + count < BOARD_ROWS) { // South-East
-                    if(count < blockedSouthEast) {
-                        blockedSouthEast = getBlockedSouthEast(piece, movesList, currentPosition, blockedSouthEast, count);
-                    }
-                }
-                if(currentPosition.right() - count >= 0) { // North-East
-                    if(count < blockedNorthEast) {
-                        blockedNorthEast = getBlockedNorthEast(piece, movesList, currentPosition, blockedNorthEast, count);
-                    }
-                }
-            }
-            if(currentPosition.left() - count >= 0) {
-                if(currentPosition.right() + count < BOARD_ROWS) { // South-West
-                    if(count < blockedSouthWest) {
-                        blockedSouthWest = getBlockedSouthWest(piece, movesList, currentPosition, blockedSouthWest, count);
-                    }
-                }
-                if(currentPosition.right() - count >= 0) { // North-West
-                    if(count < blockedNorthWest) {
-                        blockedNorthWest = getBlockedNorthWest(piece, movesList, currentPosition, blockedNorthWest, count);
-                    }
-                }
-            }
-        }
-        return movesList;
+        MoveBuffer buffer = new MoveBuffer();
+        MoveGenerators.BISHOP.addMoves(this, piece, buffer);
+        return buffer.getDestinations(BOARD_COLUMNS);
     }
 
     /**
@@ -432,73 +205,9 @@ public class MovesListCreator {
      * @return List of possible moves of given piece.
      */
     public List<IntPair> createKnightMoves(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        if(currentPosition.left() + 1 < BOARD_COLUMNS) { // out of border check
-            if(currentPosition.right() + 2 < BOARD_ROWS) { // 1 block East, 2 blocks South
-                IntPair moveEast1South2 = new IntPair(currentPosition.left() + 1, currentPosition.right() + 2);
-                int occupyCheckE1S2 = checkOccupied(piece.getSide(), moveEast1South2);
-                if(occupyCheckE1S2 == 0 || occupyCheckE1S2 == 2) {
-                    movesList.add(moveEast1South2);
-                }
-            }
-            if(currentPosition.right() - 2 >= 0) { // 1 block East, 2 blocks North
-                IntPair moveEast1North2 = new IntPair(currentPosition.left() + 1, currentPosition.right() - 2);
-                int occupyCheckE1N2 = checkOccupied(piece.getSide(), moveEast1North2);
-                if(occupyCheckE1N2 == 0 || occupyCheckE1N2 == 2) {
-                    movesList.add(moveEast1North2);
-                }
-            }
-        }
-        if(currentPosition.left() + 2 < BOARD_COLUMNS) {
-            if(currentPosition.right() + 1 < BOARD_ROWS) { // 2 blocks East, 1 block South
-                IntPair moveEast2South1 = new IntPair(currentPosition.left() + 2, currentPosition.right() + 1);
-                int occupyCheckE2S1 = checkOccupied(piece.getSide(), moveEast2South1);
-                if(occupyCheckE2S1 == 0 || occupyCheckE2S1 == 2) {
-                    movesList.add(moveEast2South1);
-                }
-            }
-            if(currentPosition.right() - 1 >= 0) { // 2 blocks East, 1 block North
-                IntPair moveEast2North1 = new IntPair(currentPosition.left() + 2, currentPosition.right() - 1);
-                int occupyCheckE2N1 = checkOccupied(piece.getSide(), moveEast2North1);
-                if(occupyCheckE2N1 == 0 || occupyCheckE2N1 == 2) {
-                    movesList.add(moveEast2North1);
-                }
-            }
-        }
-        if(currentPosition.left() - 1 >= 0) {
-            if(currentPosition.right() + 2 < BOARD_ROWS) { // 1 block West, 2 blocks South
-                IntPair moveWest1South2 = new IntPair(currentPosition.left() - 1, currentPosition.right() + 2);
-                int occupyCheckW1S2 = checkOccupied(piece.getSide(), moveWest1South2);
-                if(occupyCheckW1S2 == 0 || occupyCheckW1S2 == 2) {
-                    movesList.add(moveWest1South2);
-                }
-            }
-            if(currentPosition.right() - 2 >= 0) { // 1 block West, 2 blocks North
-                IntPair moveWest1North2 = new IntPair(currentPosition.left() - 1, currentPosition.right() - 2);
-                int occupyCheckW1N2 = checkOccupied(piece.getSide(), moveWest1North2);
-                if(occupyCheckW1N2 == 0 || occupyCheckW1N2 == 2) {
-                    movesList.add(moveWest1North2);
-                }
-            }
-        }
-        if(currentPosition.left() - 2 >= 0) {
-            if(currentPosition.right() + 1 < BOARD_ROWS) { // 2 blocks West, 1 block South
-                IntPair moveWest2South1 = new IntPair(currentPosition.left() - 2, currentPosition.right() + 1);
-                int occupyCheckW2S1 = checkOccupied(piece.getSide(), moveWest2South1);
-                if(occupyCheckW2S1 == 0 || occupyCheckW2S1 == 2) {
-                    movesList.add(moveWest2South1);
-                }
-            }
-            if(currentPosition.right() - 1 >= 0) { // 2 blocks West, 1 block North
-                IntPair moveWest2North1 = new IntPair(currentPosition.left() - 2, currentPosition.right() - 1);
-                int occupyCheckW2N1 = checkOccupied(piece.getSide(), moveWest2North1);
-                if(occupyCheckW2N1 == 0 || occupyCheckW2N1 == 2) {
-                    movesList.add(moveWest2North1);
-                }
-            }
-        }
-        return movesList;
+        MoveBuffer buffer = new MoveBuffer();
+        MoveGenerators.KNIGHT.addMoves(this, piece, buffer);
+        return buffer.getDestinations(BOARD_COLUMNS);
     }
 
     /**
@@ -508,79 +217,9 @@ public class MovesListCreator {
      * @return List of possible moves of given piece.
      */
     public List<IntPair> createPawnMoves(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        // ChessLibrary.Pieces.Pawn is on black side
-        if(piece.getSide() == 0) {
-            if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block to South
-                IntPair moveSouth = new IntPair(currentPosition.left(), currentPosition.right() + 1);
-                int occupyCheckS = checkOccupied(piece.getSide(), moveSouth);
-                if(occupyCheckS == 0) {
-                    movesList.add(moveSouth);
-                }
-                if(currentPosition.left() + 1 < BOARD_COLUMNS) { // 1 block to South-East only if capturing
-                    IntPair moveSouthEast = new IntPair(currentPosition.left() + 1, currentPosition.right() + 1);
-                    int occupyCheckSE = checkOccupied(piece.getSide(), moveSouthEast);
-                    if(occupyCheckSE == 2) {
-                        movesList.add(moveSouthEast);
-                    }
-                }
-                if(currentPosition.left() - 1 >= 0) { // 1 block to South-West only if capturing
-                    IntPair moveSouthWest = new IntPair(currentPosition.left() - 1, currentPosition.right() + 1);
-                    int occupyCheckSW = checkOccupied(piece.getSide(), moveSouthWest);
-                    if(occupyCheckSW == 2) {
-                        movesList.add(moveSouthWest);
-                    }
-                }
-            }
-            if(piece.getPosition().right() == 1) { // 2 blocks to South
-                IntPair moveSouth = new IntPair(currentPosition.left(), currentPosition.right() + 1);
-                int occupyCheckS = checkOccupied(piece.getSide(), moveSouth);
-                if(occupyCheckS == 0) { // path is not blocked
-                    IntPair moveSouthTwo = new IntPair(currentPosition.left(), currentPosition.right() + 2);
-                    int occupyCheckS2 = checkOccupied(piece.getSide(), moveSouthTwo);
-                    if (occupyCheckS2 == 0) {
-                        movesList.add(moveSouthTwo);
-                    }
-                }
-            }
-        }
-        // ChessLibrary.Pieces.Pawn is on white side
-        if(piece.getSide() == 1) {
-            if(currentPosition.right() - 1 >= 0) { // 1 block to North
-                IntPair moveNorth = new IntPair(currentPosition.left(), currentPosition.right() - 1);
-                int occupyCheckN = checkOccupied(piece.getSide(), moveNorth);
-                if(occupyCheckN == 0) {
-                    movesList.add(moveNorth);
-                }
-                if(currentPosition.left() + 1 < BOARD_COLUMNS) { // 1 block to North-East
-                    IntPair moveNorthEast = new IntPair(currentPosition.left() + 1, currentPosition.right() - 1);
-                    int occupyCheckNE = checkOccupied(piece.getSide(), moveNorthEast);
-                    if(occupyCheckNE == 2) {
-                        movesList.add(moveNorthEast);
-                    }
-                }
-                if(currentPosition.left() - 1 >= 0) { // 1 block to North-West
-                    IntPair moveNorthWest = new IntPair(currentPosition.left() - 1, currentPosition.right() - 1);
-                    int occupyCheckNW = checkOccupied(piece.getSide(), moveNorthWest);
-                    if(occupyCheckNW == 2) {
-                        movesList.add(moveNorthWest);
-                    }
-                }
-            }
-            if(piece.getPosition().right() == 6) { // 2 blocks to North
-                IntPair moveNorth = new IntPair(currentPosition.left(), currentPosition.right() - 1);
-                int occupyCheckN = checkOccupied(piece.getSide(), moveNorth);
-                if(occupyCheckN == 0) { // path is not blocked
-                    IntPair moveNorthTwo = new IntPair(currentPosition.left(), currentPosition.right() - 2);
-                    int occupyCheckN2 = checkOccupied(piece.getSide(), moveNorthTwo);
-                    if (occupyCheckN2 == 0) {
-                        movesList.add(moveNorthTwo);
-                    }
-                }
-            }
-        }
-        return movesList;
+        MoveBuffer buffer = new MoveBuffer();
+        MoveGenerators.PAWN.addMoves(this, piece, buffer);
+        return buffer.getDestinations(BOARD_COLUMNS);
     }
 
     /**
@@ -590,65 +229,9 @@ public class MovesListCreator {
      * @return List of possible moves of given piece.
      */
     public List<IntPair> createLeaperMoves(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        if(currentPosition.left() + 1 < BOARD_COLUMNS) { // 1 block East
-            IntPair moveEast1 = new IntPair(currentPosition.left() + 1, currentPosition.right());
-            int occupyCheckE1 = checkOccupied(piece.getSide(), moveEast1);
-            if(occupyCheckE1 == 0) { // capture only if 2 blocks away
-                movesList.add(moveEast1);
-            }
-            if(currentPosition.left() + 2 < BOARD_COLUMNS) { // 2 blocks East
-                IntPair moveEast2 = new IntPair(currentPosition.left() + 2, currentPosition.right());
-                int occupyCheckE2 = checkOccupied(piece.getSide(), moveEast2);
-                if(occupyCheckE2 == 2) { // moves only if capturing
-                    movesList.add(moveEast2);
-                }
-            }
-        }
-        if(currentPosition.right() + 1 < BOARD_ROWS) { // 1 block South
-            IntPair moveSouth1 = new IntPair(currentPosition.left(), currentPosition.right() + 1);
-            int occupyCheckS1 = checkOccupied(piece.getSide(), moveSouth1);
-            if(occupyCheckS1 == 0) { // capture only if 2 blocks away
-                movesList.add(moveSouth1);
-            }
-            if(currentPosition.right() + 2 < BOARD_ROWS) { // 2 blocks South
-                IntPair moveSouth2 = new IntPair(currentPosition.left(), currentPosition.right() + 2);
-                int occupyCheckS2 = checkOccupied(piece.getSide(), moveSouth2);
-                if(occupyCheckS2 == 2) { // moves only if capturing
-                    movesList.add(moveSouth2);
-                }
-            }
-        }
-        if(currentPosition.left() - 1 >= 0) { // 1 block West
-            IntPair moveWest1 = new IntPair(currentPosition.left() - 1, currentPosition.right());
-            int occupyCheckW1 = checkOccupied(piece.getSide(), moveWest1);
-            if(occupyCheckW1 == 0) { // capture only if 2 blocks away
-                movesList.add(moveWest1);
-            }
-            if(currentPosition.left() - 2 >= 0) { // 2 blocks West
-                IntPair moveWest2 = new IntPair(currentPosition.left() - 2, currentPosition.right());
-                int occupyCheckW2 = checkOccupied(piece.getSide(), moveWest2);
-                if(occupyCheckW2 == 2) { // moves only if capturing
-                    movesList.add(moveWest2);
-                }
-            }
-        }
-        if(currentPosition.right() - 1 >= 0) { // 1 block North
-            IntPair moveNorth1 = new IntPair(currentPosition.left(), currentPosition.right() - 1);
-            int occupyCheckN1 = checkOccupied(piece.getSide(), moveNorth1);
-            if(occupyCheckN1 == 0) { // capture only if 2 blocks away
-                movesList.add(moveNorth1);
-            }
-            if(currentPosition.right() - 2 >= 0) { // 2 blocks North
-                IntPair moveNorth2 = new IntPair(currentPosition.left(), currentPosition.right() - 2);
-                int occupyCheckN2 = checkOccupied(piece.getSide(), moveNorth2);
-                if(occupyCheckN2 == 2) { // moves only if capturing
-                    movesList.add(moveNorth2);
-                }
-            }
-        }
-        return movesList;
+        MoveBuffer buffer = new MoveBuffer();
+        MoveGenerators.LEAPER.addMoves(this, piece, buffer);
+        return buffer.getDestinations(BOARD_COLUMNS);
     }
 
     /**
@@ -658,307 +241,225 @@ public class MovesListCreator {
      * @return List of possible moves of given piece.
      */
     public List<IntPair> createChargerMoves(ChessPiece piece) {
-        List<IntPair> movesList = new ArrayList<>();
-        IntPair currentPosition = piece.getPosition();
-        // Check if ChessLibrary.Pieces.Queen can move horizontally / vertically / diagonally from 1 block to 7 blocks.
-        for(int count = 1; count <= 7; count++) {
-            if(currentPosition.left() + count < BOARD_COLUMNS) { // East
-                IntPair moveEast = new IntPair(currentPosition.left() + count, currentPosition.right());
-                int occupyCheckE = checkOccupied(piece.getSide(), moveEast);
-                if(occupyCheckE == 2) {
-                    movesList.add(moveEast);
-                    break;
-                } else if(occupyCheckE == 1) {
-                    if(count == 1) {
-                        break;
-                    }
-                    moveEast = new IntPair(currentPosition.left() + count - 1, currentPosition.right());
-                    movesList.add(moveEast);
-                    break;
-                } else if(moveEast.left() == BOARD_COLUMNS - 1) {
-                    movesList.add(moveEast);
-                    break;
-                }
-            }
-        }
-        for(int count = 1; count <= 7; count++) {
-            if(currentPosition.left() + count < BOARD_COLUMNS) {
-                if(currentPosition.right() + count < BOARD_ROWS) { // South-East
-                    IntPair moveSouthEast = new IntPair(currentPosition.left() + count, currentPosition.right() + count);
-                    int occupyCheckSE = checkOccupied(piece.getSide(), moveSouthEast);
-                    if(occupyCheckSE == 2) {
-                        movesList.add(moveSouthEast);
-                        break;
-                    } else if(occupyCheckSE == 1) {
-                        if(count == 1) {
-                            break;
-                        }
-                        moveSouthEast = new IntPair(currentPosition.left() + count - 1, currentPosition.right() + count - 1);
-                        movesList.add(moveSouthEast);
-                        break;
-                    } else if(moveSouthEast.left() == BOARD_COLUMNS - 1 || moveSouthEast.right() == BOARD_ROWS - 1) {
-                        movesList.add(moveSouthEast);
-                        break;
-                    }
-                }
-            }
-        }
-        for(int count = 1; count <= 7; count++) {
-            if(currentPosition.left() + count < BOARD_COLUMNS) {
-                if(currentPosition.right() - count >= 0) { // North-East
-                    IntPair moveNorthEast = new IntPair(currentPosition.left() + count, currentPosition.right() - count);
-                    int occupyCheckNE = checkOccupied(piece.getSide(), moveNorthEast);
-                    if(occupyCheckNE == 2) {
-                        movesList.add(moveNorthEast);
-                        break;
-                    } else if(occupyCheckNE == 1) {
-                        if(count == 1) {
-                            break;
-                        }
-                        moveNorthEast = new IntPair(currentPosition.left() + count - 1, currentPosition.right() - count + 1);
-                        movesList.add(moveNorthEast);
-                        break;
-                    } else if(moveNorthEast.left() == BOARD_COLUMNS - 1 || moveNorthEast.right() == 0) {
-                        movesList.add(moveNorthEast);
-                    }
-                }
-            }
-        }
-        for(int count = 1; count <= 7; count++) {
-            if(currentPosition.left() - count >= 0) { // West
-                IntPair moveWest = new IntPair(currentPosition.left() - count, currentPosition.right());
-                int occupyCheckW = checkOccupied(piece.getSide(), moveWest);
-                if(occupyCheckW == 2) {
-                    movesList.add(moveWest);
-                    break;
-                } else if(occupyCheckW == 1) {
-                    if(count == 1) {
-                        break;
-                    }
-                    moveWest = new IntPair(currentPosition.left() - count + 1, currentPosition.right());
-                    movesList.add(moveWest);
-                    break;
-                } else if(moveWest.left() == 0) {
-                    movesList.add(moveWest);
-                }
-            }
-        }
-        for(int count = 1; count <= 7; count++) {
-            if(currentPosition.left() - count >= 0) {
-                if(currentPosition.right() + count < BOARD_ROWS) { // South-West
-                    IntPair moveSouthWest = new IntPair(currentPosition.left() - count, currentPosition.right() + count);
-                    int occupyCheckSW = checkOccupied(piece.getSide(), moveSouthWest);
-                    if(occupyCheckSW == 2) {
-                        movesList.add(moveSouthWest);
-                        break;
-                    } else if(occupyCheckSW == 1) {
-                        if(count == 1) {
-                            break;
-                        }
-                        moveSouthWest = new IntPair(currentPosition.left() - count + 1, currentPosition.right() + count - 1);
-                        movesList.add(moveSouthWest);
-                        break;
-                    } else if(moveSouthWest.left() == 0 || moveSouthWest.right() == BOARD_ROWS - 1) {
-                        movesList.add(moveSouthWest);
-                    }
-                }
+        MoveBuffer buffer = new MoveBuffer();
+        MoveGenerators.CHARGER.addMoves(this, piece, buffer);
+        return buffer.getDestinations(BOARD_COLUMNS);
+    }
+
+    /**
+     * Helper function to add moves of King 1 block horizontally / vertically / diagonally.
+     * occupyCheck filters out cells occupied by ally, checkCheck filters out moves resulting in check.
+     */
+    void addKingMoves(ChessPiece piece, MoveBuffer buffer, boolean occupyCheck, boolean checkCheck) {
+        int[] targets = MOVE_TABLES.getKingTargets(piece.getYCoordinate() * BOARD_COLUMNS + piece.getXCoordinate());
+        for(int index = 0; index < targets.length; index++) {
+            int targetX = targets[index] % BOARD_COLUMNS;
+            int targetY = targets[index] / BOARD_COLUMNS;
+            if(occupyCheck && CURRENT_BOARD.checkOccupied(piece.getSide(), targetX, targetY) == 1) {
+                continue;
             }
-        }
-        for(int count = 1; count <= 7; count++) {
-            if(currentPosition.left() - count >= 0) {
-                if(currentPosition.right() - count >= 0) { // North-West
-                    IntPair moveNorthWest = new IntPair(currentPosition.left() - count, currentPosition.right() - count);
-                    int occupyCheckNW = checkOccupied(piece.getSide(), moveNorthWest);
-                    if(occupyCheckNW == 2) {
-                        movesList.add(moveNorthWest);
-                        break;
-                    } else if(occupyCheckNW == 1) {
-                        if(count == 1) {
-                            break;
-                        }
-                        moveNorthWest = new IntPair(currentPosition.left() - count + 1, currentPosition.right() - count + 1);
-                        movesList.add(moveNorthWest);
-                        break;
-                    } else if(moveNorthWest.left() == 0 || moveNorthWest.right() == 0) {
-                        movesList.add(moveNorthWest);
-                    }
-                }
+            if(checkCheck && checkNextMoveIsCheck(piece, targetX, targetY)) {
+                continue;
             }
+            addMove(piece, buffer, targetX, targetY);
         }
-        for(int count = 1; count <= 7; count++) {
-            if (currentPosition.right() + count < BOARD_ROWS) { // South
-                IntPair moveSouth = new IntPair(currentPosition.left(), currentPosition.right() + count);
-                int occupyCheckS = checkOccupied(piece.getSide(), moveSouth);
-                if (occupyCheckS == 2) {
-                    movesList.add(moveSouth);
-                    break;
-                } else if(occupyCheckS == 1) {
-                    if(count == 1) {
-                        break;
-                    }
-                    moveSouth = new IntPair(currentPosition.left(), currentPosition.right() + count - 1);
-                    movesList.add(moveSouth);
-                    break;
-                } else if(moveSouth.right() == BOARD_ROWS - 1) {
-                    movesList.add(moveSouth);
-                }
-            }
-        }
-        for(int count = 1; count <= 7; count++) {
-            if (currentPosition.right() - count >= 0) { // North
-                IntPair moveNorth = new IntPair(currentPosition.left(), currentPosition.right() - count);
-                int occupyCheckN = checkOccupied(piece.getSide(), moveNorth);
-                if (occupyCheckN == 2) {
-                    movesList.add(moveNorth);
-                    break;
-                } else if(occupyCheckN == 1) {
-                    if(count == 1) {
-                        break;
-                    }
-                    moveNorth = new IntPair(currentPosition.left(), currentPosition.right() - count + 1);
-                    movesList.add(moveNorth);
-                    break;
-                } else if(moveNorth.right() == 0) {
-                    movesList.add(moveNorth);
+    }
+
+    /**
+     * Adds moves of sliding piece in given directions, up to first piece or border of the board.
+     * Moves are listed by distance first, then by direction.
+     * @param piece ChessLibrary.Pieces.ChessPiece object to determine possible moves.
+     * @param buffer Buffer to append packed moves to.
+     * @param directions Direction indexes of ChessLibrary.MoveTables to slide in.
+     * @return No return value.
+     */
+    public void addSlidingMoves(ChessPiece piece, MoveBuffer buffer, int[] directions) {
+        int currentX = piece.getXCoordinate();
+        int currentY = piece.getYCoordinate();
+        int square = currentY * BOARD_COLUMNS + currentX;
+        int maxLimit = 0;
+        BitBoard bitBoard = CURRENT_BOARD.getBitBoard();
+        // Cells of each direction are counted on attacks looked up at once, without walking rays
+        long targets = 0L;
+        if(bitBoard != null) {
+            targets = BitBoard.getQueenAttacks(square, bitBoard.getOccupied()) & ~bitBoard.getSideMask(piece.getSide());
+        }
+        for(int index = 0; index < directions.length; index++) {
+            int direction = directions[index];
+            int limit;
+            if(bitBoard != null) {
+                limit = Long.bitCount(targets & BitBoard.getRay(direction, square));
+            } else {
+                limit = getSlideLimit(piece, square, direction);
+            }
+            slideLimits[direction] = limit;
+            maxLimit = Math.max(maxLimit, limit);
+        }
+        for(int count = 1; count <= maxLimit; count++) {
+            for(int index = 0; index < directions.length; index++) {
+                int direction = directions[index];
+                if(count <= slideLimits[direction]) {
+                    int target = square + MOVE_TABLES.getStep(direction) * count;
+                    addMove(piece, buffer, target % BOARD_COLUMNS, target / BOARD_COLUMNS);
                 }
             }
         }
-        return movesList;
     }
 
     /**
-     * Helper function to check if piece can move north and updates blockedNorth if path is blocked.
+     * Helper function to get number of cells sliding piece can move to in given direction, by finding first blocker.
      */
-    private int getBlockedNorth(ChessPiece piece, List<IntPair> movesList, IntPair currentPosition, int blockedNorth, int count) {
-        IntPair moveNorth = new IntPair(currentPosition.left(), currentPosition.right() - count);
-        int occupyCheckN = checkOccupied(piece.getSide(), moveNorth);
-        if(occupyCheckN == 0) {
-            movesList.add(moveNorth);
-        } else if(occupyCheckN == 1) {
-            blockedNorth = count;
-        } else {
-            movesList.add(moveNorth);
-            blockedNorth = count;
-        }
-        return blockedNorth;
+    private int getSlideLimit(ChessPiece piece, int square, int direction) {
+        int blocker = CURRENT_BOARD.getFirstBlocker(square, direction);
+        if(blocker == MoveTables.NONE) {
+            return MOVE_TABLES.getRayLength(direction, square);
+        }
+        int blockerX = blocker % BOARD_COLUMNS;
+        int blockerY = blocker / BOARD_COLUMNS;
+        int limit = Math.max(Math.abs(blockerX - piece.getXCoordinate()), Math.abs(blockerY - piece.getYCoordinate()));
+        // Enemy piece is captured, ally piece is not
+        if(CURRENT_BOARD.checkOccupied(piece.getSide(), blockerX, blockerY) == 1) {
+            limit--;
+        }
+        return limit;
     }
 
     /**
-     * Helper function to check if piece can move south and updates blockedSouth if path is blocked.
+     * Adds moves of jumping piece to given target cells, skipping cells occupied by ally, as Knight moves.
+     * @param piece ChessLibrary.Pieces.ChessPiece object to determine possible moves.
+     * @param buffer Buffer to append packed moves to.
+     * @param targets Cell indexes (y * columns + x) inside the board, such as targets of ChessLibrary.MoveTables.
+     * @return No return value.
      */
-    private int getBlockedSouth(ChessPiece piece, List<IntPair> movesList, IntPair currentPosition, int blockedSouth, int count) {
-        IntPair moveSouth = new IntPair(currentPosition.left(), currentPosition.right() + count);
-        int occupyCheckS = checkOccupied(piece.getSide(), moveSouth);
-        if(occupyCheckS == 0) {
-            movesList.add(moveSouth);
-        } else if(occupyCheckS == 1) {
-            blockedSouth = count;
-        } else {
-            movesList.add(moveSouth);
-            blockedSouth = count;
+    public void addTargetMoves(ChessPiece piece, MoveBuffer buffer, int[] targets) {
+        for(int index = 0; index < targets.length; index++) {
+            int targetX = targets[index] % BOARD_COLUMNS;
+            int targetY = targets[index] / BOARD_COLUMNS;
+            if(CURRENT_BOARD.checkOccupied(piece.getSide(), targetX, targetY) != 1) {
+                addMove(piece, buffer, targetX, targetY);
+            }
         }
-        return blockedSouth;
     }
 
     /**
-     * Helper function to check if piece can move northwest and updates blockedNorthWest if path is blocked.
+     * Helper function to add moves of Pawn. Black pawns move towards South, white pawns towards North.
+     * Pawns capture 1 block diagonally forward, and may move 2 blocks from their starting row.
      */
-    private int getBlockedNorthWest(ChessPiece piece, List<IntPair> movesList, IntPair currentPosition, int blockedNorthWest, int count) {
-        IntPair moveNorthWest = new IntPair(currentPosition.left() - count, currentPosition.right() - count);
-        int occupyCheckNW = checkOccupied(piece.getSide(), moveNorthWest);
-        if(occupyCheckNW == 0) {
-            movesList.add(moveNorthWest);
-        } else if(occupyCheckNW == 1) {
-            blockedNorthWest = count;
+    void addPawnMoves(ChessPiece piece, MoveBuffer buffer) {
+        int currentX = piece.getXCoordinate();
+        int currentY = piece.getYCoordinate();
+        int forward;
+        int startRow;
+        if(piece.getSide() == 0) {
+            forward = 1;
+            startRow = 1;
+        } else if(piece.getSide() == 1) {
+            forward = -1;
+            startRow = 6;
         } else {
-            movesList.add(moveNorthWest);
-            blockedNorthWest = count;
+            return;
+        }
+        int targetY = currentY + forward;
+        if(!isInside(currentX, targetY)) {
+            return;
+        }
+        boolean pathBlocked = (CURRENT_BOARD.checkOccupied(piece.getSide(), currentX, targetY) != 0);
+        if(!pathBlocked) {
+            addMove(piece, buffer, currentX, targetY);
+        }
+        // 1 block East / West forward only if capturing
+        if(currentX + 1 < BOARD_COLUMNS && CURRENT_BOARD.checkOccupied(piece.getSide(), currentX + 1, targetY) == 2) {
+            addMove(piece, buffer, currentX + 1, targetY);
+        }
+        if(currentX - 1 >= 0 && CURRENT_BOARD.checkOccupied(piece.getSide(), currentX - 1, targetY) == 2) {
+            addMove(piece, buffer, currentX - 1, targetY);
+        }
+        if(currentY == startRow && !pathBlocked && isInside(currentX, targetY + forward)) {
+            if(CURRENT_BOARD.checkOccupied(piece.getSide(), currentX, targetY + forward) == 0) {
+                addMove(piece, buffer, currentX, targetY + forward);
+            }
         }
-        return blockedNorthWest;
     }
 
     /**
-     * Helper function to check if piece can move southwest and updates blockedSouthWest if path is blocked.
+     * Helper function to add moves of Leaper. Leaper moves 1 block to empty cell,
+     * and captures only by leaping 2 blocks in N/E/S/W direction.
      */
-    private int getBlockedSouthWest(ChessPiece piece, List<IntPair> movesList, IntPair currentPosition, int blockedSouthWest, int count) {
-        IntPair moveSouthWest = new IntPair(currentPosition.left() - count, currentPosition.right() + count);
-        int occupyCheckSW = checkOccupied(piece.getSide(), moveSouthWest);
-        if(occupyCheckSW == 0) {
-            movesList.add(moveSouthWest);
-        } else if(occupyCheckSW == 1) {
-            blockedSouthWest = count;
-        } else {
-            movesList.add(moveSouthWest);
-            blockedSouthWest = count;
+    void addLeaperMoves(ChessPiece piece, MoveBuffer buffer) {
+        int square = piece.getYCoordinate() * BOARD_COLUMNS + piece.getXCoordinate();
+        int[] steps = MOVE_TABLES.getLeaperSteps(square);
+        int[] jumps = MOVE_TABLES.getLeaperJumps(square);
+        for(int index = 0; index < steps.length; index++) {
+            int targetX = steps[index] % BOARD_COLUMNS;
+            int targetY = steps[index] / BOARD_COLUMNS;
+            if(CURRENT_BOARD.checkOccupied(piece.getSide(), targetX, targetY) == 0) {
+                addMove(piece, buffer, targetX, targetY);
+            }
+            if(jumps[index] == MoveTables.NONE) {
+                continue;
+            }
+            targetX = jumps[index] % BOARD_COLUMNS;
+            targetY = jumps[index] / BOARD_COLUMNS;
+            if(CURRENT_BOARD.checkOccupied(piece.getSide(), targetX, targetY) == 2) {
+                addMove(piece, buffer, targetX, targetY);
+            }
         }
-        return blockedSouthWest;
     }
 
     /**
-     * Helper function to check if piece can move west and updates blockedWest if path is blocked.
+     * Helper function to add moves of Charger. In each direction, Charger charges until it captures first enemy piece,
+     * stops right before ally piece, or reaches border of the board.
      */
-    private int getBlockedWest(ChessPiece piece, List<IntPair> movesList, IntPair currentPosition, int blockedWest, int count) {
-        IntPair moveWest = new IntPair(currentPosition.left() - count, currentPosition.right());
-        int occupyCheckW = checkOccupied(piece.getSide(), moveWest);
-        if(occupyCheckW == 0) {
-            movesList.add(moveWest);
-        } else if(occupyCheckW == 1) {
-            blockedWest = count;
-        } else {
-            movesList.add(moveWest);
-            blockedWest = count;
+    void addChargerMoves(ChessPiece piece, MoveBuffer buffer) {
+        int square = piece.getYCoordinate() * BOARD_COLUMNS + piece.getXCoordinate();
+        for(int direction = 0; direction < 8; direction++) {
+            int target = CURRENT_BOARD.getChargerStop(piece.getSide(), square, direction);
+            if(target != MoveTables.NONE) {
+                addMove(piece, buffer, target % BOARD_COLUMNS, target / BOARD_COLUMNS);
+            }
         }
-        return blockedWest;
     }
 
     /**
-     * Helper function to check if piece can move northeast and updates blockedNorthEast if path is blocked.
+     * Helper function to check if moving piece to given cell results in being checked, without changing the board.
+     * King is checked on its destination if attacked there once it leaves its cell. Enemy king is counted as attacker.
+     * Other pieces leave King checked if move is missing from legal moves of ChessLibrary.LegalMovesCreator.
      */
-    private int getBlockedNorthEast(ChessPiece piece, List<IntPair> movesList, IntPair currentPosition, int blockedNorthEast, int count) {
-        IntPair moveNorthEast = new IntPair(currentPosition.left() + count, currentPosition.right() - count);
-        int occupyCheckNE = checkOccupied(piece.getSide(), moveNorthEast);
-        if(occupyCheckNE == 0) {
-            movesList.add(moveNorthEast);
-        } else if(occupyCheckNE == 1) {
-            blockedNorthEast = count;
-        } else {
-            movesList.add(moveNorthEast);
-            blockedNorthEast = count;
+    private boolean checkNextMoveIsCheck(ChessPiece piece, int xCoordinate, int yCoordinate) {
+        if(piece.getType() == ChessPiece.KING) {
+            return CURRENT_BOARD.isAttackedWithout(xCoordinate, yCoordinate, 1 - piece.getSide(),
+                    piece.getXCoordinate(), piece.getYCoordinate());
         }
-        return blockedNorthEast;
+        MoveBuffer buffer = new MoveBuffer();
+        CURRENT_BOARD.getLegalMoves(piece, buffer);
+        int to = yCoordinate * BOARD_COLUMNS + xCoordinate;
+        for(int count = 0; count < buffer.size(); count++) {
+            if(Move.getTo(buffer.get(count)) == to) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Helper function to check if piece can move southeast and updates blockedSouthEast if path is blocked.
+     * Packs move of piece to given cell, capturing piece on it if any, and appends it to buffer.
+     * @param piece ChessLibrary.Pieces.ChessPiece object to move.
+     * @param buffer Buffer to append packed move to.
+     * @param xCoordinate Destination x-coordinate
+     * @param yCoordinate Destination y-coordinate
+     * @return No return value.
      */
-    private int getBlockedSouthEast(ChessPiece piece, List<IntPair> movesList, IntPair currentPosition, int blockedSouthEast, int count) {
-        IntPair moveSouthEast = new IntPair(currentPosition.left() + count, currentPosition.right() + count);
-        int occupyCheckSE = checkOccupied(piece.getSide(), moveSouthEast);
-        if(occupyCheckSE == 0) {
-            movesList.add(moveSouthEast);
-        } else if(occupyCheckSE == 1) {
-            blockedSouthEast = count;
-        } else {
-            movesList.add(moveSouthEast);
-            blockedSouthEast = count;
-        }
-        return blockedSouthEast;
+    public void addMove(ChessPiece piece, MoveBuffer buffer, int xCoordinate, int yCoordinate) {
+        ChessPiece captured = CURRENT_BOARD.getChessPiece(xCoordinate, yCoordinate);
+        int from = piece.getYCoordinate() * BOARD_COLUMNS + piece.getXCoordinate();
+        int to = yCoordinate * BOARD_COLUMNS + xCoordinate;
+        buffer.add(Move.create(from, to, piece.getType(), (captured == null) ? -1 : captured.getType()));
     }
 
     /**
-     * Helper function to check if piece can move east and updates blockedEast if path is blocked.
+     * Helper function to check if given coordinate is inside the board.
      */
-    private int getBlockedEast(ChessPiece piece, List<IntPair> movesList, IntPair currentPosition, int blockedEast, int count) {
-        IntPair moveEast = new IntPair(currentPosition.left() + count, currentPosition.right());
-        int occupyCheckE = checkOccupied(piece.getSide(), moveEast);
-        if(occupyCheckE == 0) {
-            movesList.add(moveEast);
-        } else if(occupyCheckE == 1) {
-            blockedEast = count;
-        } else {
-            movesList.add(moveEast);
-            blockedEast = count;
-        }
-        return blockedEast;
+    private boolean isInside(int xCoordinate, int yCoordinate) {
+        return xCoordinate >= 0 && xCoordinate < BOARD_COLUMNS && yCoordinate >= 0 && yCoordinate < BOARD_ROWS;
     }
 }
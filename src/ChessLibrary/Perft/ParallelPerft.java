@@ -0,0 +1,99 @@
+package ChessLibrary.Perft;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Game;
+import ChessLibrary.Util.MoveBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ChessLibrary.Perft.ParallelPerft -- Counts perft leaf nodes on a ForkJoinPool.
+ * Root moves are always split into tasks. Deeper subtrees are split further only while workers are short of queued tasks,
+ * otherwise they are counted by ChessLibrary.Perft.Perft on the worker's own ChessBoard copy.
+ * Counts are identical to ChessLibrary.Perft.Perft, since every task works on a copy of the board after its moves.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class ParallelPerft {
+    // Subtrees shallower than this are always counted sequentially.
+    private static final int MIN_SPLIT_DEPTH = 3;
+    // Subtrees are split only if a worker has fewer queued tasks than this.
+    private static final int SURPLUS_LIMIT = 2;
+
+    private ChessBoard BOARD;
+    private int ROOT_SIDE;
+
+    /**
+     * ParallelPerft constructor. Board of given game is not changed by counting.
+     * @param game Game to count nodes from. Nodes are counted from current turn of the game.
+     */
+    public ParallelPerft(Game game) {
+        BOARD = game.getBoard();
+        ROOT_SIDE = game.getTurn();
+    }
+
+    /**
+     * Counts leaf nodes up to given depth using given pool.
+     * @param depth Number of plies to search.
+     * @param pool Pool to run tasks on.
+     * @return Number of leaf nodes. 1 if depth is 0.
+     */
+    public long count(int depth, ForkJoinPool pool) {
+        if(depth == 0) {
+            return 1;
+        }
+        return pool.invoke(new PerftTask(new ChessBoard(BOARD), ROOT_SIDE, depth, true));
+    }
+
+    /**
+     * Task counting leaf nodes of one subtree on its own ChessBoard.
+     */
+    private static class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+        private ChessBoard BOARD;
+        private int SIDE;
+        private int DEPTH;
+        private boolean FORCE_SPLIT;
+
+        /**
+         * PerftTask constructor.
+         * @param board Chessboard owned by this task.
+         * @param side Side to move.
+         * @param depth Number of plies to search.
+         * @param forceSplit Whether subtree should be split regardless of queued tasks.
+         */
+        PerftTask(ChessBoard board, int side, int depth, boolean forceSplit) {
+            BOARD = board;
+            SIDE = side;
+            DEPTH = depth;
+            FORCE_SPLIT = forceSplit;
+        }
+
+        /**
+         * Counts leaf nodes, splitting subtree into a task for each legal move if worth it.
+         * @return Number of leaf nodes.
+         */
+        @Override
+        protected Long compute() {
+            if(!FORCE_SPLIT && (DEPTH < MIN_SPLIT_DEPTH || getSurplusQueuedTaskCount() >= SURPLUS_LIMIT)) {
+                return new Perft(BOARD, SIDE).count(DEPTH);
+            }
+            List<PerftTask> tasks = new ArrayList<>();
+            MoveBuffer buffer = new MoveBuffer();
+            BOARD.getLegalMoves(SIDE, buffer);
+            for(int count = 0; count < buffer.size(); count++) {
+                long record = BOARD.makeMove(buffer.get(count));
+                tasks.add(new PerftTask(new ChessBoard(BOARD), 1 - SIDE, DEPTH - 1, false));
+                BOARD.unmakeMove(record);
+            }
+            invokeAll(tasks);
+            long nodes = 0;
+            for(int index = 0; index < tasks.size(); index++) {
+                nodes += tasks.get(index).join();
+            }
+            return nodes;
+        }
+    }
+}
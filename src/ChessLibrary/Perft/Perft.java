@@ -0,0 +1,124 @@
+package ChessLibrary.Perft;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Game;
+import ChessLibrary.Util.Move;
+import ChessLibrary.Util.MoveBuffer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ChessLibrary.Perft.Perft -- Counts leaf nodes of the tree of legal moves up to given depth.
+ * Legal moves are created by ChessLibrary.LegalMovesCreator, same as moves returned by ChessLibrary.Game.getMovesInterface,
+ * so the counts validate move generation.
+ * Moves are applied with ChessBoard.makeMove / unmakeMove, so board is left unchanged after counting.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class Perft {
+    private ChessBoard BOARD;
+    private int ROOT_SIDE;
+    // One buffer for each ply, so moves of outer plies are kept while inner plies are searched.
+    private MoveBuffer[] MOVE_BUFFERS = new MoveBuffer[0];
+
+    /**
+     * Perft constructor. Nodes are counted on a copy of the game's board, without ChessLibrary.PieceMovesCache,
+     * since keeping moves of each piece only slows down making and unmaking every move.
+     * @param game Game to count nodes from. Nodes are counted from current turn of the game.
+     */
+    public Perft(Game game) {
+        this(new ChessBoard(game.getBoard()), game.getTurn());
+    }
+
+    /**
+     * Perft constructor.
+     * @param board Chessboard to count nodes from.
+     * @param side Side to move first.
+     */
+    public Perft(ChessBoard board, int side) {
+        BOARD = board;
+        ROOT_SIDE = side;
+    }
+
+    /**
+     * Counts leaf nodes up to given depth.
+     * @param depth Number of plies to search.
+     * @return Number of leaf nodes. 1 if depth is 0.
+     */
+    public long count(int depth) {
+        if(depth == 0) {
+            return 1;
+        }
+        ensureBuffers(depth);
+        return count(depth, 0, ROOT_SIDE);
+    }
+
+    /**
+     * Counts leaf nodes under each legal move of side to move.
+     * @param depth Number of plies to search, including the root move.
+     * @return Number of leaf nodes for each root move, in algebraic notation such as "e2e4", in order moves are generated.
+     */
+    public Map<String, Long> divide(int depth) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        if(depth == 0) {
+            return result;
+        }
+        ensureBuffers(depth);
+        MoveBuffer buffer = MOVE_BUFFERS[0];
+        BOARD.getLegalMoves(ROOT_SIDE, buffer);
+        for(int count = 0; count < buffer.size(); count++) {
+            long move = buffer.get(count);
+            long record = BOARD.makeMove(move);
+            long nodes = (depth == 1) ? 1 : count(depth - 1, 1, 1 - ROOT_SIDE);
+            result.put(toNotation(move), nodes);
+            BOARD.unmakeMove(record);
+        }
+        return result;
+    }
+
+    /**
+     * Writes packed move in algebraic notation, such as "e2e4".
+     * @param move Packed move created on chessboard of this Perft.
+     * @return Move in algebraic notation.
+     */
+    public String toNotation(long move) {
+        int from = Move.getFrom(move);
+        int to = Move.getTo(move);
+        int columns = BOARD.getColumns();
+        return Position.toNotation(from % columns, from / columns, BOARD.getRows())
+                + Position.toNotation(to % columns, to / columns, BOARD.getRows());
+    }
+
+    /**
+     * Helper function to count leaf nodes recursively. Moves are created for all pieces of side to move at once,
+     * and only legal moves are created, so moves of last ply are counted without making them.
+     */
+    private long count(int depth, int ply, int side) {
+        MoveBuffer buffer = MOVE_BUFFERS[ply];
+        BOARD.getLegalMoves(side, buffer);
+        if(depth == 1) {
+            return buffer.size();
+        }
+        long nodes = 0;
+        for(int count = 0; count < buffer.size(); count++) {
+            long record = BOARD.makeMove(buffer.get(count));
+            nodes += count(depth - 1, ply + 1, 1 - side);
+            BOARD.unmakeMove(record);
+        }
+        return nodes;
+    }
+
+    /**
+     * Helper function to make sure there is a move buffer for each ply.
+     */
+    private void ensureBuffers(int depth) {
+        if(MOVE_BUFFERS.length >= depth) {
+            return;
+        }
+        MoveBuffer[] buffers = new MoveBuffer[depth];
+        for(int ply = 0; ply < depth; ply++) {
+            buffers[ply] = (ply < MOVE_BUFFERS.length) ? MOVE_BUFFERS[ply] : new MoveBuffer();
+        }
+        MOVE_BUFFERS = buffers;
+    }
+}
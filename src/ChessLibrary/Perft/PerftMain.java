@@ -0,0 +1,259 @@
+package ChessLibrary.Perft;
+
+import ChessLibrary.Game;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ChessLibrary.Perft.PerftMain -- Command line tool to run perft and check results against expected counts.
+ * Usage:
+ *   PerftMain [-position POSITION] [-depth N] [-divide] [-threads N]
+ *   PerftMain -scaling [-position POSITION] [-depth N] [-threads N]
+ *   PerftMain -check FILE [-depth N]
+ * POSITION is "standard", "custom" or position text of ChessLibrary.Perft.Position (quote it, since it has a space).
+ * Expected-count file has one position per line: "name | position | count of depth 1, count of depth 2, ...".
+ * Empty lines and lines starting with '#' are skipped. With -check, -depth limits depth of each position.
+ * -threads runs ChessLibrary.Perft.ParallelPerft on given number of threads.
+ * -scaling runs it on 1, 2, 4, ... threads up to -threads (default: number of processors) and reports speedup.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class PerftMain {
+    private static final int DEFAULT_DEPTH = 4;
+
+    /**
+     * Starting point of perft tool.
+     */
+    public static void main(String[] args) throws IOException {
+        String position = "standard";
+        String checkFile = null;
+        int depth = -1;
+        boolean divide = false;
+        boolean scaling = false;
+        int threads = 0;
+        try {
+            for(int index = 0; index < args.length; index++) {
+                if(args[index].equals("-position") && index + 1 < args.length) {
+                    position = args[++index];
+                } else if(args[index].equals("-depth") && index + 1 < args.length) {
+                    depth = Integer.parseInt(args[++index]);
+                } else if(args[index].equals("-check") && index + 1 < args.length) {
+                    checkFile = args[++index];
+                } else if(args[index].equals("-threads") && index + 1 < args.length) {
+                    threads = Integer.parseInt(args[++index]);
+                } else if(args[index].equals("-divide")) {
+                    divide = true;
+                } else if(args[index].equals("-scaling")) {
+                    scaling = true;
+                } else {
+                    exitWithUsage();
+                }
+            }
+        } catch(NumberFormatException e) {
+            System.err.println("Not a number: " + e.getMessage());
+            exitWithUsage();
+        }
+        // Position is checked before running, so malformed text ends with usage instead of a stack trace
+        if(checkFile == null) {
+            try {
+                Position.parse(position);
+            } catch(IllegalArgumentException e) {
+                System.err.println("Malformed position: " + e.getMessage());
+                exitWithUsage();
+            }
+        }
+        if(checkFile != null) {
+            boolean passed = check(checkFile, (depth < 0) ? Integer.MAX_VALUE : depth);
+            System.exit(passed ? 0 : 1);
+        }
+        if(scaling) {
+            int maxThreads = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+            boolean passed = scaling(position, (depth < 0) ? DEFAULT_DEPTH : depth, maxThreads);
+            System.exit(passed ? 0 : 1);
+        }
+        if(threads > 0) {
+            runParallel(position, (depth < 0) ? DEFAULT_DEPTH : depth, threads);
+        } else {
+            run(position, (depth < 0) ? DEFAULT_DEPTH : depth, divide);
+        }
+    }
+
+    /**
+     * Runs perft on given position and prints number of nodes and nodes per second.
+     * @param position Position text, "standard" or "custom".
+     * @param depth Number of plies to search.
+     * @param divide Whether number of nodes under each root move should be printed.
+     * @return No return value.
+     */
+    public static void run(String position, int depth, boolean divide) {
+        Game game = Position.parse(position);
+        Perft perft = new Perft(game);
+        System.out.println("Position: " + Position.toString(game));
+        long start = System.nanoTime();
+        long nodes;
+        if(divide) {
+            nodes = 0;
+            Map<String, Long> result = perft.divide(depth);
+            for(Map.Entry<String, Long> entry : result.entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+            System.out.println("Moves: " + result.size());
+        } else {
+            nodes = perft.count(depth);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Depth " + depth + ": " + nodes + " nodes, " + formatTime(elapsed)
+                + ", " + getNodesPerSecond(nodes, elapsed) + " nodes/s");
+    }
+
+    /**
+     * Runs parallel perft on given position and prints number of nodes and nodes per second.
+     * @param position Position text, "standard" or "custom".
+     * @param depth Number of plies to search.
+     * @param threads Number of worker threads.
+     * @return No return value.
+     */
+    public static void runParallel(String position, int depth, int threads) {
+        Game game = Position.parse(position);
+        System.out.println("Position: " + Position.toString(game));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            long nodes = new ParallelPerft(game).count(depth, pool);
+            long elapsed = System.nanoTime() - start;
+            System.out.println("Depth " + depth + ": " + nodes + " nodes, " + formatTime(elapsed)
+                    + ", " + getNodesPerSecond(nodes, elapsed) + " nodes/s on " + threads + " threads");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs parallel perft on 1, 2, 4, ... threads and prints speedup and efficiency of each number of threads.
+     * Sequential perft runs first, to warm up and to give the count to compare with.
+     * Speedup is relative to 1 thread; efficiency is speedup divided by number of threads.
+     * @param position Position text, "standard" or "custom".
+     * @param depth Number of plies to search.
+     * @param maxThreads Largest number of threads to run.
+     * @return True if all parallel counts match sequential count, false if not.
+     */
+    public static boolean scaling(String position, int depth, int maxThreads) {
+        Game game = Position.parse(position);
+        System.out.println("Position: " + Position.toString(game));
+        long start = System.nanoTime();
+        long expected = new Perft(game).count(depth);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Sequential: " + expected + " nodes, " + formatTime(elapsed)
+                + ", " + getNodesPerSecond(expected, elapsed) + " nodes/s");
+        System.out.println("threads\ttime\tnodes/s\tspeedup\tefficiency");
+        boolean passed = true;
+        long singleThreadTime = 0;
+        int threads = 1;
+        while(threads <= maxThreads) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                start = System.nanoTime();
+                long nodes = new ParallelPerft(game).count(depth, pool);
+                elapsed = System.nanoTime() - start;
+                if(threads == 1) {
+                    singleThreadTime = elapsed;
+                }
+                double speedup = (double) singleThreadTime / elapsed;
+                System.out.println(threads + "\t" + formatTime(elapsed) + "\t" + getNodesPerSecond(nodes, elapsed)
+                        + "\t" + String.format("%.2f", speedup) + "\t" + String.format("%.0f%%", speedup / threads * 100));
+                if(nodes != expected) {
+                    System.out.println("Count differs from sequential count: " + nodes);
+                    passed = false;
+                }
+            } finally {
+                pool.shutdown();
+            }
+            // 1, 2, 4, ... and finally maxThreads
+            if(threads == maxThreads) {
+                break;
+            }
+            threads = Math.min(threads * 2, maxThreads);
+        }
+        return passed;
+    }
+
+    /**
+     * Runs perft on every position of expected-count file and compares results.
+     * @param fileName Path of expected-count file.
+     * @param maxDepth Largest depth to run for each position.
+     * @return True if all counts match, false if not.
+     * @throws IOException If file cannot be read.
+     */
+    public static boolean check(String fileName, int maxDepth) throws IOException {
+        boolean passed = true;
+        long totalNodes = 0;
+        long totalTime = 0;
+        BufferedReader reader = new BufferedReader(new FileReader(fileName));
+        try {
+            String line;
+            while((line = reader.readLine()) != null) {
+                line = line.trim();
+                if(line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\|");
+                if(fields.length != 3) {
+                    throw new IOException("Malformed line in " + fileName + ": " + line);
+                }
+                String name = fields[0].trim();
+                Perft perft = new Perft(Position.parse(fields[1].trim()));
+                String[] counts = fields[2].trim().split("[\\s,]+");
+                for(int depth = 1; depth <= counts.length && depth <= maxDepth; depth++) {
+                    long expected = Long.parseLong(counts[depth - 1]);
+                    long start = System.nanoTime();
+                    long nodes = perft.count(depth);
+                    long elapsed = System.nanoTime() - start;
+                    totalNodes += nodes;
+                    totalTime += elapsed;
+                    if(nodes == expected) {
+                        System.out.println(name + " depth " + depth + ": " + nodes + " OK (" + formatTime(elapsed) + ")");
+                    } else {
+                        System.out.println(name + " depth " + depth + ": " + nodes + " FAILED, expected " + expected);
+                        passed = false;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        System.out.println((passed ? "All counts match" : "Some counts do not match") + ", "
+                + getNodesPerSecond(totalNodes, totalTime) + " nodes/s");
+        return passed;
+    }
+
+    /**
+     * Helper function to print usage and end the program with exit code 2.
+     */
+    private static void exitWithUsage() {
+        System.err.println("Usage: PerftMain [-position POSITION] [-depth N] [-divide] [-threads N]");
+        System.err.println("       PerftMain -scaling [-position POSITION] [-depth N] [-threads N]");
+        System.err.println("       PerftMain -check FILE [-depth N]");
+        System.exit(2);
+    }
+
+    /**
+     * Helper function to compute nodes per second.
+     */
+    private static long getNodesPerSecond(long nodes, long nanoseconds) {
+        if(nanoseconds == 0) {
+            return 0;
+        }
+        return (long) (nodes * 1e9 / nanoseconds);
+    }
+
+    /**
+     * Helper function to format nanoseconds as milliseconds.
+     */
+    private static String formatTime(long nanoseconds) {
+        return (nanoseconds / 1000000) + " ms";
+    }
+}
@@ -0,0 +1,139 @@
+package ChessLibrary.Perft;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Game;
+import ChessLibrary.Pieces.ChessPiece;
+
+/**
+ * ChessLibrary.Perft.Position -- Reads and writes positions in FEN-like text.
+ * Rows are listed from row 0 (top, black side) to last row, separated by '/'.
+ * Each row lists its cells from column 0; a number stands for that many empty cells.
+ * Pieces are K(ing), Q(ueen), R(ook), B(ishop), N (knight), P(awn), L(eaper) and C(harger),
+ * upper case for white and lower case for black. Side to move follows after a space, "w" or "b".
+ * Example: standard setup is "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w".
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class Position {
+    public static final String STANDARD = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w";
+    public static final String CUSTOM = "rlbckblr/pppppppp/8/8/8/8/PPPPPPPP/RLBCKBLR w";
+    // Piece letters in order of type index of ChessLibrary.Pieces.ChessPiece.
+    private static final String PIECE_LETTERS = "kqrbnplc";
+
+    /**
+     * Creates game from given position. "standard" and "custom" stand for default setups of 8x8 board.
+     * Pieces are numbered in order they appear, so default setups get same identifiers as ChessLibrary.ChessBoard.
+     * @param position Position text.
+     * @return Game on given position, with turn set to side to move.
+     * @throws IllegalArgumentException If position text is malformed.
+     */
+    public static Game parse(String position) {
+        if(position.equals("standard")) {
+            position = STANDARD;
+        } else if(position.equals("custom")) {
+            position = CUSTOM;
+        }
+        String[] fields = position.trim().split("\\s+");
+        if(fields.length > 2) {
+            throw new IllegalArgumentException("Unexpected text after side to move: " + position);
+        }
+        int turn = 1;
+        if(fields.length == 2) {
+            if(fields[1].equals("b")) {
+                turn = 0;
+            } else if(!fields[1].equals("w")) {
+                throw new IllegalArgumentException("Side to move must be w or b: " + fields[1]);
+            }
+        }
+        String[] rows = fields[0].split("/");
+        int columns = countColumns(rows[0]);
+        ChessBoard board = new ChessBoard(rows.length, columns);
+        int[][] pieceCounts = new int[2][PIECE_LETTERS.length()];
+        for(int index_y = 0; index_y < rows.length; index_y++) {
+            if(countColumns(rows[index_y]) != columns) {
+                throw new IllegalArgumentException("Row " + index_y + " does not have " + columns + " columns");
+            }
+            int index_x = 0;
+            int empty = 0;
+            for(int index = 0; index < rows[index_y].length(); index++) {
+                char letter = rows[index_y].charAt(index);
+                if(Character.isDigit(letter)) {
+                    empty = empty * 10 + (letter - '0');
+                    continue;
+                }
+                index_x += empty;
+                empty = 0;
+                int side = Character.isUpperCase(letter) ? 1 : 0;
+                int type = PIECE_LETTERS.indexOf(Character.toLowerCase(letter));
+                int id = pieceCounts[side][type]++;
+                board.setChessPiece(ChessPiece.create(type, side, id, index_x, index_y), index_x, index_y);
+                index_x++;
+            }
+        }
+        return new Game(turn, board);
+    }
+
+    /**
+     * Writes position of given game.
+     * @param game Game to write position of.
+     * @return Position text, readable by parse.
+     */
+    public static String toString(Game game) {
+        ChessBoard board = game.getBoard();
+        StringBuilder builder = new StringBuilder();
+        for(int index_y = 0; index_y < board.getRows(); index_y++) {
+            if(index_y > 0) {
+                builder.append('/');
+            }
+            int empty = 0;
+            for(int index_x = 0; index_x < board.getColumns(); index_x++) {
+                ChessPiece piece = board.getChessPiece(index_x, index_y);
+                if(piece == null) {
+                    empty++;
+                    continue;
+                }
+                if(empty > 0) {
+                    builder.append(empty);
+                    empty = 0;
+                }
+                char letter = PIECE_LETTERS.charAt(piece.getType());
+                builder.append((piece.getSide() == 1) ? Character.toUpperCase(letter) : letter);
+            }
+            if(empty > 0) {
+                builder.append(empty);
+            }
+        }
+        builder.append((game.getTurn() == 1) ? " w" : " b");
+        return builder.toString();
+    }
+
+    /**
+     * Writes cell in algebraic notation. Columns are letters from 'a', rows are numbered from bottom row as 1.
+     * @param xCoordinate
+     * @param yCoordinate
+     * @param rows Number of rows of chessboard.
+     * @return Cell in algebraic notation, such as "e2".
+     */
+    public static String toNotation(int xCoordinate, int yCoordinate, int rows) {
+        return (char) ('a' + xCoordinate) + Integer.toString(rows - yCoordinate);
+    }
+
+    /**
+     * Helper function to count columns of a row.
+     */
+    private static int countColumns(String row) {
+        int columns = 0;
+        int empty = 0;
+        for(int index = 0; index < row.length(); index++) {
+            char letter = row.charAt(index);
+            if(Character.isDigit(letter)) {
+                empty = empty * 10 + (letter - '0');
+            } else if(PIECE_LETTERS.indexOf(Character.toLowerCase(letter)) >= 0) {
+                columns += empty + 1;
+                empty = 0;
+            } else {
+                throw new IllegalArgumentException("Unknown piece letter: " + letter);
+            }
+        }
+        return columns + empty;
+    }
+}
@@ -0,0 +1,177 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.CellMap;
+import ChessLibrary.Util.MoveBuffer;
+
+import java.util.Arrays;
+
+/**
+ * ChessLibrary.PieceMovesCache -- Possible moves of each piece of a board, kept between moves.
+ * Moves of a piece are created by ChessLibrary.MovesListCreator when first asked for, and kept until a cell
+ * they depend on changes. ChessLibrary.ChessBoard reports every changed cell, and only pieces whose reach covers it
+ * are dropped: first piece in each of 8 directions from the cell (sliding pieces, Charger, and 1-block steps of
+ * Pawn and Leaper), Knights a Knight jump away, and Leapers a Leaper jump away.
+ * King moves depend on attacks of the whole board, and moves of types with a generator registered in
+ * ChessLibrary.MoveGenerators have unknown reach, so those are created again every time.
+ * Kept moves are held in slots, found by cell through a ChessLibrary.Util.CellMap, so only cells of pieces whose moves
+ * are kept take memory on large boards.
+ * Cache changes while creating moves, so a board with the cache enabled must be used by one thread at a time.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class PieceMovesCache {
+    // Built-in generator of each type whose reach is known, null for King.
+    private static final MoveGenerator[] KNOWN_GENERATORS = {null, MoveGenerators.QUEEN, MoveGenerators.ROOK,
+            MoveGenerators.BISHOP, MoveGenerators.KNIGHT, MoveGenerators.PAWN, MoveGenerators.LEAPER, MoveGenerators.CHARGER};
+
+    private ChessBoard CURRENT_BOARD;
+    private int BOARD_COLUMNS;
+    private MoveTables MOVE_TABLES;
+    private MovesListCreator MOVES_CREATOR;
+    // Whether moves of each piece type are kept.
+    private boolean[] CACHED_TYPES;
+    // Slot + 1 of kept moves of piece on each cell (y * columns + x), 0 if moves of the cell are not kept.
+    private CellMap CELL_SLOTS;
+    // Packed moves held by each slot, and slots free for reuse.
+    private long[][] SLOT_MOVES;
+    private int[] MOVE_COUNTS;
+    private int[] FREE_SLOTS;
+    private int freeCount;
+    private int slotCount;
+    private MoveBuffer scratchBuffer = new MoveBuffer();
+
+    /**
+     * PieceMovesCache constructor. Creates empty cache of given board.
+     * @param board ChessLibrary.ChessBoard object whose moves are kept.
+     * @param rows Number of rows of chessboard.
+     * @param columns Number of columns of chessboard.
+     * @throws IllegalArgumentException If chessboard has more cells than ChessLibrary.Util.Move can hold.
+     */
+    public PieceMovesCache(ChessBoard board, int rows, int columns) {
+        CURRENT_BOARD = board;
+        BOARD_COLUMNS = columns;
+        MOVE_TABLES = MoveTables.get(rows, columns);
+        MOVES_CREATOR = new MovesListCreator(board, rows, columns);
+        CACHED_TYPES = new boolean[ChessPiece.TYPE_COUNT];
+        for(int type = 0; type < ChessPiece.TYPE_COUNT; type++) {
+            CACHED_TYPES[type] = (KNOWN_GENERATORS[type] != null && MOVES_CREATOR.getGenerator(type) == KNOWN_GENERATORS[type]);
+        }
+        CELL_SLOTS = new CellMap(rows * columns);
+        SLOT_MOVES = new long[32][];
+        MOVE_COUNTS = new int[32];
+        FREE_SLOTS = new int[32];
+    }
+
+    /**
+     * Appends possible moves of given piece to given buffer, same moves in same order as
+     * ChessLibrary.MovesListCreator.createMoves. Moves are created only if not kept since last change of their cells.
+     * @param piece ChessLibrary.Pieces.ChessPiece object on the board.
+     * @param buffer Buffer to append packed moves to.
+     * @return No return value.
+     */
+    public void addMoves(ChessPiece piece, MoveBuffer buffer) {
+        if(!CACHED_TYPES[piece.getType()]) {
+            MOVES_CREATOR.createMoves(piece, buffer);
+            return;
+        }
+        int square = piece.getYCoordinate() * BOARD_COLUMNS + piece.getXCoordinate();
+        int slot = CELL_SLOTS.get(square) - 1;
+        if(slot < 0) {
+            scratchBuffer.clear();
+            MOVES_CREATOR.createMoves(piece, scratchBuffer);
+            slot = allocateSlot();
+            if(SLOT_MOVES[slot] == null || SLOT_MOVES[slot].length < scratchBuffer.size()) {
+                SLOT_MOVES[slot] = new long[Math.max(8, scratchBuffer.size())];
+            }
+            for(int count = 0; count < scratchBuffer.size(); count++) {
+                SLOT_MOVES[slot][count] = scratchBuffer.get(count);
+            }
+            MOVE_COUNTS[slot] = scratchBuffer.size();
+            CELL_SLOTS.put(square, slot + 1);
+        }
+        long[] moves = SLOT_MOVES[slot];
+        for(int count = 0; count < MOVE_COUNTS[slot]; count++) {
+            buffer.add(moves[count]);
+        }
+    }
+
+    /**
+     * Checks if moves of piece on given cell are kept.
+     * @param square Cell index (y * columns + x).
+     * @return True if kept, false if they will be created when asked for.
+     */
+    public boolean isCached(int square) {
+        return CELL_SLOTS.get(square) != 0;
+    }
+
+    /**
+     * Drops moves of the piece on given cell and of pieces whose moves depend on it.
+     * Must be called after the cell changed, with the rest of the board already up to date.
+     * @param square Cell index (y * columns + x) that was set, emptied or changed.
+     * @return No return value.
+     */
+    public void invalidate(int square) {
+        drop(square);
+        for(int direction = 0; direction < 8; direction++) {
+            int blocker = CURRENT_BOARD.getFirstBlocker(square, direction);
+            if(blocker != MoveTables.NONE) {
+                drop(blocker);
+            }
+        }
+        invalidateType(MOVE_TABLES.getKnightTargets(square), ChessPiece.KNIGHT);
+        invalidateType(MOVE_TABLES.getLeaperJumps(square), ChessPiece.LEAPER);
+    }
+
+    /**
+     * Drops moves of every piece.
+     * @return No return value.
+     */
+    public void clear() {
+        CELL_SLOTS.clear();
+        freeCount = 0;
+        slotCount = 0;
+    }
+
+    /**
+     * Helper function to drop moves of pieces of given type on given cells, NONE entries skipped.
+     * Knight and Leaper jumps are symmetric, so cells a piece reaches are also cells reaching that piece.
+     */
+    private void invalidateType(int[] squares, int type) {
+        for(int index = 0; index < squares.length; index++) {
+            int target = squares[index];
+            if(target == MoveTables.NONE) {
+                continue;
+            }
+            int code = CURRENT_BOARD.getCellCode(target % BOARD_COLUMNS, target / BOARD_COLUMNS);
+            if(code != 0 && (code - 1) % ChessPiece.TYPE_COUNT == type) {
+                drop(target);
+            }
+        }
+    }
+
+    /**
+     * Helper function to drop kept moves of given cell, if any, and free their slot.
+     */
+    private void drop(int square) {
+        int slot = CELL_SLOTS.get(square) - 1;
+        if(slot >= 0) {
+            FREE_SLOTS[freeCount++] = slot;
+            CELL_SLOTS.put(square, 0);
+        }
+    }
+
+    /**
+     * Helper function to take a free slot for moves of a piece, adding slots if none is free.
+     */
+    private int allocateSlot() {
+        if(freeCount > 0) {
+            return FREE_SLOTS[--freeCount];
+        }
+        if(slotCount == SLOT_MOVES.length) {
+            SLOT_MOVES = Arrays.copyOf(SLOT_MOVES, slotCount * 2);
+            MOVE_COUNTS = Arrays.copyOf(MOVE_COUNTS, slotCount * 2);
+            FREE_SLOTS = Arrays.copyOf(FREE_SLOTS, slotCount * 2);
+        }
+        return slotCount++;
+    }
+}
@@ -14,6 +14,6 @@ public class Bishop extends ChessPiece {
     public Bishop(int side, int id, int x, int y) {
         setSide(side);
         setPosition(x, y);
-        setIdentifier(side + "b" + id);
+        setType(BISHOP, id);
     }
 }
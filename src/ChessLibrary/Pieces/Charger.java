@@ -18,6 +18,6 @@ public class Charger extends ChessPiece {
     public Charger(int side, int id, int x, int y) {
         setSide(side);
         setPosition(x, y);
-        setIdentifier(side + "c" + id);
+        setType(CHARGER, id);
     }
 }
@@ -6,41 +6,112 @@ import ChessLibrary.Util.IntPair;
  * ChessLibrary.Pieces.ChessPiece -- Representation of each chess piece.
  * @author       Wonwoo Seo (wseo2@illinois.edu)
  */
-public abstract class ChessPiece {
-    private int SIDE;
-    private int xCoordinate;
-    private int yCoordinate;
+public abstract class ChessPiece implements Cloneable {
+    /**
+     * Type indexes of pieces. Used by ChessLibrary.BitBoard to select occupancy mask of each piece type.
+     */
+    public static final int KING = 0;
+    public static final int QUEEN = 1;
+    public static final int ROOK = 2;
+    public static final int BISHOP = 3;
+    public static final int KNIGHT = 4;
+    public static final int PAWN = 5;
+    public static final int LEAPER = 6;
+    public static final int CHARGER = 7;
+    public static final int TYPE_COUNT = 8;
+
     /**
-     * Identifier is an unique 3-character string given to each piece.
-     * Follows format side / type / number.
-     * Example: Identifier for #3 black pawn would be "0p3".
-     * See subclasses for type identifier character.
+     * Type identifier characters of identifiers, indexed by type index.
      */
-    private String identifier;
+    public static final String TYPE_CHARACTERS = "KQrbkplc";
+    private static final int TYPE_BITS = 3;
+    private static final int ORDINAL_SHIFT = 4;
+
+    /**
+     * Code packs type index (bits 0-2), side (bit 3) and number of the piece among pieces of same side and type (bits 4-).
+     * Identifier string is derived from it when asked for, see getIdentifier.
+     */
+    private int CODE;
+    private int xCoordinate;
+    private int yCoordinate;
 
     /**
      * Gets which side this piece is on.
      * @return 0 if black, 1 if white.
      */
     public int getSide() {
-        return SIDE;
+        return (CODE >> TYPE_BITS) & 1;
     }
 
     /**
-     * Gets position of the piece.
+     * Gets position of the piece. Returned pair is shared (see ChessLibrary.Util.IntPair.of), so no object is created
+     * on boards up to 64x64.
      * @return Current position of the piece.
      */
     public IntPair getPosition() {
-        IntPair currentPosition = new IntPair(xCoordinate, yCoordinate);
-        return currentPosition;
+        return IntPair.of(xCoordinate, yCoordinate);
+    }
+
+    /**
+     * Gets x-coordinate of the piece. Same as getPosition().left().
+     * @return Current x-coordinate of the piece.
+     */
+    public int getXCoordinate() {
+        return xCoordinate;
     }
 
     /**
-     * Gets identifier of the piece.
+     * Gets y-coordinate of the piece. Same as getPosition().right().
+     * @return Current y-coordinate of the piece.
+     */
+    public int getYCoordinate() {
+        return yCoordinate;
+    }
+
+    /**
+     * Gets type index of the piece, kept in code of the piece.
+     * @return One of KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN, LEAPER, CHARGER.
+     */
+    public int getType() {
+        return CODE & ((1 << TYPE_BITS) - 1);
+    }
+
+    /**
+     * Gets number of the piece among pieces of same side and type.
+     * @return Number of the piece.
+     */
+    public int getOrdinal() {
+        return CODE >>> ORDINAL_SHIFT;
+    }
+
+    /**
+     * Gets code of the piece, which packs its side, type and number. Codes of pieces are unique like identifiers.
+     * @return Code of the piece.
+     */
+    public int getCode() {
+        return CODE;
+    }
+
+    /**
+     * Gets identifier of the piece, an unique string of format side / type / number.
+     * Example: Identifier for #3 black pawn would be "0p3". See TYPE_CHARACTERS for type identifier character.
+     * Identifier is created on every call, so use getCode where speed matters.
      * @return Identifier of the piece.
      */
     public String getIdentifier() {
-        return identifier;
+        return toIdentifier(CODE);
+    }
+
+    /**
+     * Creates copy of the piece with same side, identifier and position.
+     * @return New ChessPiece object of same class.
+     */
+    public ChessPiece copy() {
+        try {
+            return (ChessPiece) super.clone();
+        } catch(CloneNotSupportedException e) {
+            throw new AssertionError(e); // ChessPiece implements Cloneable
+        }
     }
 
     /**
@@ -49,7 +120,7 @@ public abstract class ChessPiece {
      * @return No return value.
      */
     public void setSide(int side) {
-        SIDE = side;
+        CODE = (CODE & ~(1 << TYPE_BITS)) | (side << TYPE_BITS);
     }
 
     /**
@@ -64,11 +135,143 @@ public abstract class ChessPiece {
     }
 
     /**
-     * Sets identifier of the piece to given String.
+     * Sets type and number of the piece, keeping its side.
+     * @param type Type index of the piece.
+     * @param ordinal Number of the piece among pieces of same side and type.
+     * @return No return value.
+     */
+    protected void setType(int type, int ordinal) {
+        CODE = (ordinal << ORDINAL_SHIFT) | (CODE & (1 << TYPE_BITS)) | type;
+    }
+
+    /**
+     * Sets identifier of the piece to given String, such as "0p3". Side, type and number are all taken from it.
+     * Kept for subclasses written before pieces were coded; new code should use setType.
      * @param id New identifier value in String.
      * @return No return value.
+     * @throws IllegalArgumentException If identifier is malformed, see toCode.
      */
     protected void setIdentifier(String id) {
-        identifier = id;
+        int code = toCode(id);
+        if(code < 0) {
+            throw new IllegalArgumentException("Malformed piece identifier " + id);
+        }
+        setSide((code >> TYPE_BITS) & 1);
+        setType(code & ((1 << TYPE_BITS) - 1), code >>> ORDINAL_SHIFT);
+    }
+
+    /**
+     * Creates code of a piece of given side, type and number, same as getCode of such piece.
+     * @param side 0 if black, 1 if white.
+     * @param type Type index of the piece.
+     * @param ordinal Number of the piece among pieces of same side and type.
+     * @return Code of the piece.
+     */
+    public static int toCode(int side, int type, int ordinal) {
+        return (ordinal << ORDINAL_SHIFT) | (side << TYPE_BITS) | type;
+    }
+
+    /**
+     * Converts code of a piece to its identifier.
+     * @param code Code of the piece.
+     * @return Identifier of the piece, such as "0p3".
+     */
+    public static String toIdentifier(int code) {
+        return ((code >> TYPE_BITS) & 1) + String.valueOf(TYPE_CHARACTERS.charAt(code & ((1 << TYPE_BITS) - 1))) + (code >>> ORDINAL_SHIFT);
+    }
+
+    /**
+     * Converts identifier of a piece to its code.
+     * @param id Identifier of the piece, such as "0p3".
+     * @return Code of the piece. -1 if identifier is malformed.
+     */
+    public static int toCode(String id) {
+        if(id == null || id.length() < 3 || (id.charAt(0) != '0' && id.charAt(0) != '1')) {
+            return -1;
+        }
+        int type = getTypeIndex(id.charAt(1));
+        if(type < 0) {
+            return -1;
+        }
+        int ordinal = 0;
+        for(int index = 2; index < id.length(); index++) {
+            char digit = id.charAt(index);
+            if(digit < '0' || digit > '9' || ordinal > (Integer.MAX_VALUE >>> ORDINAL_SHIFT) / 10) {
+                return -1;
+            }
+            ordinal = ordinal * 10 + (digit - '0');
+        }
+        return toCode(id.charAt(0) - '0', type, ordinal);
+    }
+
+    /**
+     * Creates piece of given type index.
+     * @param type Type index of the piece.
+     * @param side 0 if black, 1 if white.
+     * @param id Number of the piece among pieces of same side and type.
+     * @param x X-coordinate of position.
+     * @param y Y-coordinate of position.
+     * @return New ChessPiece object of class of the type.
+     * @throws IllegalArgumentException If type is not a known type index.
+     */
+    public static ChessPiece create(int type, int side, int id, int x, int y) {
+        switch(type) {
+            case ChessPiece.KING:
+                return new King(side, id, x, y);
+            case ChessPiece.QUEEN:
+                return new Queen(side, id, x, y);
+            case ChessPiece.ROOK:
+                return new Rook(side, id, x, y);
+            case ChessPiece.BISHOP:
+                return new Bishop(side, id, x, y);
+            case ChessPiece.KNIGHT:
+                return new Knight(side, id, x, y);
+            case ChessPiece.PAWN:
+                return new Pawn(side, id, x, y);
+            case ChessPiece.LEAPER:
+                return new Leaper(side, id, x, y);
+            case ChessPiece.CHARGER:
+                return new Charger(side, id, x, y);
+            default:
+                throw new IllegalArgumentException("Unknown piece type: " + type);
+        }
+    }
+
+    /**
+     * Creates piece of given code, such that getCode of the piece returns given code.
+     * @param code Code of the piece.
+     * @param x X-coordinate of position.
+     * @param y Y-coordinate of position.
+     * @return New ChessPiece object of class of the type.
+     */
+    public static ChessPiece create(int code, int x, int y) {
+        return create(code & ((1 << TYPE_BITS) - 1), (code >> TYPE_BITS) & 1, code >>> ORDINAL_SHIFT, x, y);
+    }
+
+    /**
+     * Converts type identifier character to type index.
+     * @param pieceType Type identifier character. (second character of identifier)
+     * @return Type index of the piece. -1 if character is not a known type.
+     */
+    public static int getTypeIndex(char pieceType) {
+        switch(pieceType) {
+            case 'K':
+                return KING;
+            case 'Q':
+                return QUEEN;
+            case 'r':
+                return ROOK;
+            case 'b':
+                return BISHOP;
+            case 'k':
+                return KNIGHT;
+            case 'p':
+                return PAWN;
+            case 'l':
+                return LEAPER;
+            case 'c':
+                return CHARGER;
+        }
+        return -1;
     }
 }
\ No newline at end of file
@@ -14,6 +14,6 @@ public class King extends ChessPiece {
     public King(int side, int id, int x, int y) {
         setSide(side);
         setPosition(x, y);
-        setIdentifier(side + "K" + id);
+        setType(KING, id);
     }
 }
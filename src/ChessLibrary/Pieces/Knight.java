@@ -14,6 +14,6 @@ public class Knight extends ChessPiece {
     public Knight(int side, int id, int x, int y) {
         setSide(side);
         setPosition(x, y);
-        setIdentifier(side + "k" + id);
+        setType(KNIGHT, id);
     }
 }
@@ -16,6 +16,6 @@ public class Leaper extends ChessPiece{
     public Leaper(int side, int id, int x, int y) {
         setSide(side);
         setPosition(x, y);
-        setIdentifier(side + "l" + id);
+        setType(LEAPER, id);
     }
 }
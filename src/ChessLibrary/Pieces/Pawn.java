@@ -14,6 +14,6 @@ public class Pawn extends ChessPiece {
     public Pawn(int side, int id, int x, int y) {
         setSide(side);
         setPosition(x, y);
-        setIdentifier(side + "p" + id);
+        setType(PAWN, id);
     }
 }
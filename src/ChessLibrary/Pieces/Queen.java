@@ -14,6 +14,6 @@ public class Queen extends ChessPiece {
     public Queen(int side, int id, int x, int y) {
         setSide(side);
         setPosition(x, y);
-        setIdentifier(side + "Q" + id);
+        setType(QUEEN, id);
     }
 }
@@ -14,6 +14,6 @@ public class Rook extends ChessPiece {
     public Rook(int side, int id, int x, int y) {
         setSide(side);
         setPosition(x, y);
-        setIdentifier(side + "r" + id);
+        setType(ROOK, id);
     }
 }
@@ -0,0 +1,97 @@
+package ChessLibrary.Util;
+
+import java.util.Arrays;
+
+/**
+ * ChessLibrary.Util.CellMap -- Int value of each cell of a board, 0 for cells never set.
+ * Boards of up to DENSE_LIMIT cells keep one int per cell. Larger boards keep only cells whose value is not 0,
+ * in a ChessLibrary.Util.IntIntMap, so memory and clearing follow number of occupied and touched cells
+ * instead of board area. Setting a cell to 0 removes it from the map.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class CellMap {
+    /**
+     * Largest number of cells kept in a plain array (64x64).
+     */
+    public static final int DENSE_LIMIT = 1 << 12;
+
+    private int[] VALUES; // null if board is larger than DENSE_LIMIT
+    private IntIntMap ENTRIES; // null if board is not larger than DENSE_LIMIT
+
+    /**
+     * CellMap constructor. Creates map of given number of cells with every value 0.
+     * @param cells Number of cells of chessboard.
+     */
+    public CellMap(int cells) {
+        if(isDense(cells)) {
+            VALUES = new int[cells];
+        } else {
+            ENTRIES = new IntIntMap(32);
+        }
+    }
+
+    /**
+     * Checks if board of given number of cells is kept in plain arrays, by this class and by other per-cell tables.
+     * @param cells Number of cells of chessboard.
+     * @return True if not larger than DENSE_LIMIT, false if only touched cells are kept.
+     */
+    public static boolean isDense(int cells) {
+        return cells <= DENSE_LIMIT;
+    }
+
+    /**
+     * Gets value of given cell.
+     * @param cell Cell index (y * columns + x).
+     * @return Value of the cell, 0 if never set.
+     */
+    public int get(int cell) {
+        if(VALUES != null) {
+            return VALUES[cell];
+        }
+        return ENTRIES.get(cell, 0);
+    }
+
+    /**
+     * Sets value of given cell.
+     * @param cell Cell index (y * columns + x).
+     * @param value New value. 0 forgets the cell.
+     * @return No return value.
+     */
+    public void put(int cell, int value) {
+        if(VALUES != null) {
+            VALUES[cell] = value;
+        } else if(value == 0) {
+            ENTRIES.remove(cell);
+        } else {
+            ENTRIES.put(cell, value);
+        }
+    }
+
+    /**
+     * Adds given amount to value of given cell.
+     * @param cell Cell index (y * columns + x).
+     * @param delta Amount to add.
+     * @return New value of the cell.
+     */
+    public int add(int cell, int delta) {
+        if(VALUES != null) {
+            VALUES[cell] += delta;
+            return VALUES[cell];
+        }
+        int value = ENTRIES.get(cell, 0) + delta;
+        put(cell, value);
+        return value;
+    }
+
+    /**
+     * Sets every cell to 0.
+     * @return No return value.
+     */
+    public void clear() {
+        if(VALUES != null) {
+            Arrays.fill(VALUES, 0);
+        } else {
+            ENTRIES.clear();
+        }
+    }
+}
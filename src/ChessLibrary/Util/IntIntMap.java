@@ -0,0 +1,173 @@
+package ChessLibrary.Util;
+
+import java.util.Arrays;
+
+/**
+ * ChessLibrary.Util.IntIntMap -- Map from non-negative int keys to int values, kept in two int arrays.
+ * Keys are placed by open addressing with linear probing, and removal shifts following keys back,
+ * so no boxed keys, entry objects or deleted markers are created.
+ * Table is kept at most half full, and grows but never shrinks.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class IntIntMap {
+    private static final int FREE = -1;
+
+    private int[] KEYS;
+    private int[] VALUES;
+    private int MASK;
+    private int SIZE;
+
+    /**
+     * IntIntMap constructor. Creates empty map with room for 8 keys.
+     */
+    public IntIntMap() {
+        this(8);
+    }
+
+    /**
+     * IntIntMap constructor. Creates empty map with room for given number of keys before growing.
+     * @param expected Number of keys map can hold before growing.
+     */
+    public IntIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(expected, 4) * 2 - 1) * 2;
+        KEYS = new int[capacity];
+        VALUES = new int[capacity];
+        Arrays.fill(KEYS, FREE);
+        MASK = capacity - 1;
+        SIZE = 0;
+    }
+
+    /**
+     * Gets value of given key.
+     * @param key Non-negative key.
+     * @param missing Value to return if key is not in the map.
+     * @return Value of the key, given missing value if key is not in the map.
+     */
+    public int get(int key, int missing) {
+        int slot = getSlot(key);
+        while(KEYS[slot] != FREE) {
+            if(KEYS[slot] == key) {
+                return VALUES[slot];
+            }
+            slot = (slot + 1) & MASK;
+        }
+        return missing;
+    }
+
+    /**
+     * Checks if given key is in the map.
+     * @param key Non-negative key.
+     * @return True if key is in the map, false if not.
+     */
+    public boolean containsKey(int key) {
+        int slot = getSlot(key);
+        while(KEYS[slot] != FREE) {
+            if(KEYS[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & MASK;
+        }
+        return false;
+    }
+
+    /**
+     * Sets value of given key, adding the key if it is not in the map.
+     * @param key Non-negative key.
+     * @param value New value of the key.
+     * @return No return value.
+     */
+    public void put(int key, int value) {
+        int slot = getSlot(key);
+        while(KEYS[slot] != FREE) {
+            if(KEYS[slot] == key) {
+                VALUES[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & MASK;
+        }
+        KEYS[slot] = key;
+        VALUES[slot] = value;
+        SIZE++;
+        if(SIZE * 2 > KEYS.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Removes given key from the map. Nothing happens if key is not in the map.
+     * @param key Non-negative key.
+     * @return No return value.
+     */
+    public void remove(int key) {
+        int slot = getSlot(key);
+        while(KEYS[slot] != key) {
+            if(KEYS[slot] == FREE) {
+                return;
+            }
+            slot = (slot + 1) & MASK;
+        }
+        // Shift back following keys of the run whose home slot is not between the hole and themselves
+        int hole = slot;
+        int next = (hole + 1) & MASK;
+        while(KEYS[next] != FREE) {
+            int home = getSlot(KEYS[next]);
+            if(((next - home) & MASK) >= ((next - hole) & MASK)) {
+                KEYS[hole] = KEYS[next];
+                VALUES[hole] = VALUES[next];
+                hole = next;
+            }
+            next = (next + 1) & MASK;
+        }
+        KEYS[hole] = FREE;
+        SIZE--;
+    }
+
+    /**
+     * Gets number of keys in the map.
+     * @return Number of keys.
+     */
+    public int size() {
+        return SIZE;
+    }
+
+    /**
+     * Removes all keys. Map keeps its capacity.
+     * @return No return value.
+     */
+    public void clear() {
+        if(SIZE > 0) {
+            Arrays.fill(KEYS, FREE);
+            SIZE = 0;
+        }
+    }
+
+    /**
+     * Helper function to get home slot of given key, spreading close keys such as neighbouring cells over the table.
+     */
+    private int getSlot(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & MASK;
+    }
+
+    /**
+     * Helper function to double the table, placing every key again.
+     */
+    private void grow() {
+        int[] oldKeys = KEYS;
+        int[] oldValues = VALUES;
+        KEYS = new int[oldKeys.length * 2];
+        VALUES = new int[oldKeys.length * 2];
+        Arrays.fill(KEYS, FREE);
+        MASK = KEYS.length - 1;
+        for(int index = 0; index < oldKeys.length; index++) {
+            if(oldKeys[index] != FREE) {
+                int slot = getSlot(oldKeys[index]);
+                while(KEYS[slot] != FREE) {
+                    slot = (slot + 1) & MASK;
+                }
+                KEYS[slot] = oldKeys[index];
+                VALUES[slot] = oldValues[index];
+            }
+        }
+    }
+}
@@ -2,11 +2,23 @@ package ChessLibrary.Util;
 
 /**
  * ChessLibrary.Util.IntPair -- Very simple class to represent a pair of integers.
+ * Pairs never change once created. Pairs of small non-negative values, such as cells of a chessboard,
+ * are created once and shared by of, so looking them up creates no objects.
  * @author    Wonwoo Seo (wonwooseo@hotmail.com)
  */
 public class IntPair {
-    private int LEFT;
-    private int RIGHT;
+    // Pairs of values from 0 to CACHE_SIZE - 1 are shared, indexed by (right * CACHE_SIZE + left).
+    private static final int CACHE_SIZE = 64;
+    private static final IntPair[] CACHE = new IntPair[CACHE_SIZE * CACHE_SIZE];
+
+    static {
+        for(int index = 0; index < CACHE.length; index++) {
+            CACHE[index] = new IntPair(index % CACHE_SIZE, index / CACHE_SIZE);
+        }
+    }
+
+    private final int LEFT;
+    private final int RIGHT;
 
     /**
      * ChessLibrary.Util.IntPair Constructor. Creates ChessLibrary.Util.IntPair with two given values.
@@ -18,6 +30,20 @@ public class IntPair {
         RIGHT = right;
     }
 
+    /**
+     * Gets pair of given values, shared with every other caller if both values are from 0 to 63.
+     * Use this instead of the constructor for cells of a chessboard.
+     * @param left Left pair value.
+     * @param right Right pair value.
+     * @return ChessLibrary.Util.IntPair with given values.
+     */
+    public static IntPair of(int left, int right) {
+        if(left >= 0 && left < CACHE_SIZE && right >= 0 && right < CACHE_SIZE) {
+            return CACHE[right * CACHE_SIZE + left];
+        }
+        return new IntPair(left, right);
+    }
+
     /**
      * Returns left value of the pair.
      * @return Left pair value.
@@ -46,4 +72,23 @@ public class IntPair {
             return false;
         }
     }
+
+    /**
+     * Checks if given object is an IntPair with equal value to this IntPair, so pairs work as keys of hash maps and sets.
+     * @param target Object to compare value.
+     * @return True if equal, false if not.
+     */
+    @Override
+    public boolean equals(Object target) {
+        return target instanceof IntPair && equals((IntPair) target);
+    }
+
+    /**
+     * Gets hash code of the pair, same for pairs of equal value.
+     * @return Hash code of the pair.
+     */
+    @Override
+    public int hashCode() {
+        return LEFT * 31 + RIGHT;
+    }
 }
@@ -0,0 +1,74 @@
+package ChessLibrary.Util;
+
+/**
+ * ChessLibrary.Util.Move -- Helper functions to pack a move into a single long.
+ * Bits 0-23 hold origin cell, bits 24-47 destination cell, bits 48-51 type index of moved piece
+ * and bits 52-55 type index of captured piece + 1 (0 if nothing is captured).
+ * Cell index is (y * columns + x), so boards of up to MAX_CELLS cells are supported.
+ * There are no castling, en passant or promotion moves, so no flag bits are needed.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class Move {
+    public static final int MAX_CELLS = 1 << 24;
+    private static final long CELL_MASK = MAX_CELLS - 1;
+    private static final int TO_SHIFT = 24;
+    private static final int MOVED_SHIFT = 48;
+    private static final int CAPTURED_SHIFT = 52;
+
+    /**
+     * Packs a move into long.
+     * @param from Cell index of origin.
+     * @param to Cell index of destination.
+     * @param movedType Type index of moving piece.
+     * @param capturedType Type index of captured piece. -1 if nothing is captured.
+     * @return Packed move.
+     */
+    public static long create(int from, int to, int movedType, int capturedType) {
+        return from | ((long) to << TO_SHIFT) | ((long) movedType << MOVED_SHIFT) | ((long) (capturedType + 1) << CAPTURED_SHIFT);
+    }
+
+    /**
+     * Gets origin of packed move.
+     * @param move Packed move.
+     * @return Cell index of origin.
+     */
+    public static int getFrom(long move) {
+        return (int) (move & CELL_MASK);
+    }
+
+    /**
+     * Gets destination of packed move.
+     * @param move Packed move.
+     * @return Cell index of destination.
+     */
+    public static int getTo(long move) {
+        return (int) ((move >>> TO_SHIFT) & CELL_MASK);
+    }
+
+    /**
+     * Gets type index of piece moved by packed move.
+     * @param move Packed move.
+     * @return Type index of moved piece.
+     */
+    public static int getMovedType(long move) {
+        return (int) (move >>> MOVED_SHIFT) & 0xF;
+    }
+
+    /**
+     * Gets type index of piece captured by packed move.
+     * @param move Packed move.
+     * @return Type index of captured piece. -1 if nothing is captured.
+     */
+    public static int getCapturedType(long move) {
+        return (int) (move >>> CAPTURED_SHIFT) - 1;
+    }
+
+    /**
+     * Checks if packed move captures a piece.
+     * @param move Packed move.
+     * @return True if capturing, false if not.
+     */
+    public static boolean isCapture(long move) {
+        return (move >>> CAPTURED_SHIFT) != 0;
+    }
+}
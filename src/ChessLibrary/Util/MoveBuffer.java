@@ -0,0 +1,102 @@
+package ChessLibrary.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ChessLibrary.Util.MoveBuffer -- Reusable list of moves packed by ChessLibrary.Util.Move.
+ * Clearing the buffer keeps its array, so filling it again does not allocate.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class MoveBuffer {
+    private long[] MOVES;
+    private int SIZE;
+
+    /**
+     * MoveBuffer constructor. Creates empty buffer with room for moves of any single piece on 8x8 board.
+     */
+    public MoveBuffer() {
+        this(32);
+    }
+
+    /**
+     * MoveBuffer constructor. Creates empty buffer with given capacity.
+     * @param capacity Number of moves buffer can hold before growing.
+     */
+    public MoveBuffer(int capacity) {
+        MOVES = new long[Math.max(capacity, 1)];
+        SIZE = 0;
+    }
+
+    /**
+     * Appends packed move at the end of the buffer.
+     * @param move Packed move.
+     * @return No return value.
+     */
+    public void add(long move) {
+        if(SIZE == MOVES.length) {
+            long[] grown = new long[SIZE * 2];
+            System.arraycopy(MOVES, 0, grown, 0, SIZE);
+            MOVES = grown;
+        }
+        MOVES[SIZE++] = move;
+    }
+
+    /**
+     * Gets packed move at given index.
+     * @param index Index of the move.
+     * @return Packed move.
+     */
+    public long get(int index) {
+        return MOVES[index];
+    }
+
+    /**
+     * Replaces packed move at given index.
+     * @param index Index of the move.
+     * @param move Packed move.
+     * @return No return value.
+     */
+    public void set(int index, long move) {
+        MOVES[index] = move;
+    }
+
+    /**
+     * Gets number of moves in the buffer.
+     * @return Number of moves.
+     */
+    public int size() {
+        return SIZE;
+    }
+
+    /**
+     * Drops moves after given number of moves.
+     * @param size Number of moves to keep. Must not be larger than current size.
+     * @return No return value.
+     */
+    public void truncate(int size) {
+        SIZE = size;
+    }
+
+    /**
+     * Removes all moves. Buffer keeps its capacity.
+     * @return No return value.
+     */
+    public void clear() {
+        SIZE = 0;
+    }
+
+    /**
+     * Converts moves in the buffer to list of destinations, for callers using ChessLibrary.Util.IntPair.
+     * @param columns Number of columns of chessboard the moves were created on.
+     * @return List of destinations, in same order as moves.
+     */
+    public List<IntPair> getDestinations(int columns) {
+        List<IntPair> movesList = new ArrayList<>(SIZE);
+        for(int index = 0; index < SIZE; index++) {
+            int to = Move.getTo(MOVES[index]);
+            movesList.add(IntPair.of(to % columns, to / columns));
+        }
+        return movesList;
+    }
+}
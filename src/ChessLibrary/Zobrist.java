@@ -0,0 +1,70 @@
+package ChessLibrary;
+
+import ChessLibrary.Pieces.ChessPiece;
+
+/**
+ * ChessLibrary.Zobrist -- Random 64-bit keys for Zobrist hashing of positions.
+ * Hash of a position is XOR of key of every piece on its cell, and SIDE_KEY if black is to move,
+ * so it can be updated by XOR-ing keys of changed cells only.
+ * Keys are generated from their index by a fixed mixing function, so they are same for every board and every run,
+ * and table only grows when a larger board asks for keys. Boards too large for a table compute keys with getKey.
+ * @author Wonwoo Seo (wonwooseo@hotmail.com)
+ */
+public class Zobrist {
+    /**
+     * Key XOR-ed into hash when black is to move.
+     */
+    public static final long SIDE_KEY = mix(-1);
+    private static final int KEYS_PER_CELL = 2 * ChessPiece.TYPE_COUNT;
+    private static long[] KEYS = new long[0];
+
+    /**
+     * Gets table of piece keys for boards of up to given number of cells.
+     * Key of a piece is at index (cell * 2 + side) * ChessPiece.TYPE_COUNT + type, see getIndex.
+     * Returned table must not be changed.
+     * @param cells Number of cells of chessboard.
+     * @return Table of piece keys, shared by all boards.
+     */
+    public static synchronized long[] getKeys(int cells) {
+        if(KEYS.length < cells * KEYS_PER_CELL) {
+            long[] keys = new long[cells * KEYS_PER_CELL];
+            for(int index = 0; index < keys.length; index++) {
+                keys[index] = mix(index);
+            }
+            KEYS = keys;
+        }
+        return KEYS;
+    }
+
+    /**
+     * Gets key of given piece, same as entry getIndex of table returned by getKeys, without building a table.
+     * @param side Side of the piece.
+     * @param type Type index of the piece.
+     * @param cell Cell index (y * columns + x) of the piece.
+     * @return Key of the piece.
+     */
+    public static long getKey(int side, int type, int cell) {
+        return mix(((long) cell * 2 + side) * ChessPiece.TYPE_COUNT + type);
+    }
+
+    /**
+     * Gets index of key of given piece in table returned by getKeys.
+     * @param side Side of the piece.
+     * @param type Type index of the piece.
+     * @param cell Cell index (y * columns + x) of the piece.
+     * @return Index of key.
+     */
+    public static int getIndex(int side, int type, int cell) {
+        return (cell * 2 + side) * ChessPiece.TYPE_COUNT + type;
+    }
+
+    /**
+     * Helper function to turn index into a well-mixed random-looking key (SplitMix64 finalizer).
+     */
+    private static long mix(long index) {
+        long value = index * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,95 @@
+package test;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.MoveTables;
+import ChessLibrary.Pieces.*;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * Tests attack counts kept by ChessBoard on boards without occupancy masks.
+ */
+public class AttackMapTest extends TestCase {
+    private static final int BOARD_ROWS = 10;
+    private static final int BOARD_COLUMNS = 10;
+    private ChessBoard testBoard;
+
+    /**
+     * Sets up empty testBoard.
+     */
+    public void testBoardSetup() {
+        testBoard = new ChessBoard(BOARD_ROWS, BOARD_COLUMNS, false);
+        testBoard.clearChessBoard();
+    }
+
+    /**
+     * Tests if attacks of sliding pieces follow pieces blocking their path.
+     */
+    public void testSlidingAttacks() {
+        testBoardSetup();
+        ChessPiece testWhiteRook = new Rook(1, 0, 0, 5);
+        testBoard.setChessPiece(testWhiteRook, 0, 5);
+        // Sliding pieces reach border of the board
+        assertTrue(testBoard.isAttacked(9, 5, 1));
+        assertTrue(testBoard.isAttacked(0, 0, 1));
+        ChessPiece testBlackPawn = new Pawn(0, 0, 3, 5);
+        testBoard.setChessPiece(testBlackPawn, 3, 5);
+        assertTrue(testBoard.isAttacked(3, 5, 1));
+        assertFalse(testBoard.isAttacked(4, 5, 1));
+        testBoard.deleteChessPiece(3, 5);
+        assertTrue(testBoard.isAttacked(4, 5, 1));
+    }
+
+    /**
+     * Tests if attackers of a cell are listed in row order.
+     */
+    public void testGetAttackers() {
+        testBoardSetup();
+        ChessPiece testBlackKing = new King(0, 0, 5, 5);
+        ChessPiece testWhiteKnight = new Knight(1, 0, 6, 7);
+        ChessPiece testWhiteCharger = new Charger(1, 0, 1, 1);
+        ChessPiece testWhiteKing = new King(1, 0, 5, 6);
+        testBoard.setChessPiece(testBlackKing, 5, 5);
+        testBoard.setChessPiece(testWhiteKnight, 6, 7);
+        testBoard.setChessPiece(testWhiteCharger, 1, 1);
+        testBoard.setChessPiece(testWhiteKing, 5, 6);
+        List<ChessPiece> attackerList = testBoard.getAttackers(5, 5, 1);
+        assertEquals(3, attackerList.size());
+        assertEquals(testWhiteCharger, attackerList.get(0));
+        assertEquals(testWhiteKing, attackerList.get(1));
+        assertEquals(testWhiteKnight, attackerList.get(2));
+        // checkIfCheck does not count enemy King
+        assertEquals(2, testBoard.checkIfCheck(0).size());
+        assertTrue(testBoard.isInCheck(0));
+    }
+
+    /**
+     * Tests first blocker along a ray and stop cells of Charger.
+     */
+    public void testFirstBlockerAndChargerStop() {
+        testBoardSetup();
+        int EAST = 0;
+        int SOUTH = 6;
+        int NORTH = 7;
+        ChessPiece testWhiteCharger = new Charger(1, 0, 0, 5);
+        testBoard.setChessPiece(testWhiteCharger, 0, 5);
+        int square = 5 * BOARD_COLUMNS;
+        // Empty path runs to the border, beyond 7 cells on 10x10 board
+        assertEquals(MoveTables.NONE, testBoard.getFirstBlocker(square, EAST));
+        assertEquals(5 * BOARD_COLUMNS + 9, testBoard.getChargerStop(1, square, EAST));
+        assertEquals(9 * BOARD_COLUMNS, testBoard.getChargerStop(1, square, SOUTH));
+        // Enemy piece is captured, ally piece stops Charger right before it
+        testBoard.setChessPiece(new Pawn(0, 0, 6, 5), 6, 5);
+        testBoard.setChessPiece(new Pawn(1, 0, 0, 2), 0, 2);
+        assertEquals(5 * BOARD_COLUMNS + 6, testBoard.getFirstBlocker(square, EAST));
+        assertEquals(5 * BOARD_COLUMNS + 6, testBoard.getChargerStop(1, square, EAST));
+        assertEquals(2 * BOARD_COLUMNS, testBoard.getFirstBlocker(square, NORTH));
+        assertEquals(3 * BOARD_COLUMNS, testBoard.getChargerStop(1, square, NORTH));
+        // No move towards adjacent ally or border
+        testBoard.setChessPiece(new Pawn(1, 1, 0, 6), 0, 6);
+        assertEquals(MoveTables.NONE, testBoard.getChargerStop(1, square, SOUTH));
+        assertEquals(MoveTables.NONE, testBoard.getChargerStop(1, square, 3));
+        assertEquals(4, testBoard.getMoves(testWhiteCharger).size());
+    }
+}
@@ -0,0 +1,134 @@
+package test;
+
+import ChessLibrary.BitBoard;
+import ChessLibrary.ChessBoard;
+import ChessLibrary.MagicTables;
+import ChessLibrary.MoveTables;
+import ChessLibrary.Pieces.*;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests occupancy masks kept by ChessBoard on 8x8 boards.
+ */
+public class BitBoardTest extends TestCase {
+    private static final int BOARD_ROWS = 8;
+    private static final int BOARD_COLUMNS = 8;
+    private ChessBoard testBoard;
+
+    /**
+     * Sets up empty testBoard.
+     */
+    public void testBoardSetup() {
+        testBoard = new ChessBoard(BOARD_ROWS, BOARD_COLUMNS, false);
+        testBoard.clearChessBoard();
+    }
+
+    /**
+     * Tests if masks follow setChessPiece / deleteChessPiece.
+     */
+    public void testMasksFollowBoard() {
+        testBoardSetup();
+        BitBoard bitBoard = testBoard.getBitBoard();
+        assertEquals(0L, bitBoard.getOccupied());
+        ChessPiece testRook = new Rook(1, 0, 2, 5);
+        testBoard.setChessPiece(testRook, 2, 5);
+        assertEquals(1L << (5 * 8 + 2), bitBoard.getPieceMask(1, ChessPiece.ROOK));
+        assertEquals(1L << (5 * 8 + 2), bitBoard.getSideMask(1));
+        // Overwriting cell removes previous piece from masks
+        testBoard.setChessPiece(new Pawn(0, 0, 2, 5), 2, 5);
+        assertEquals(0L, bitBoard.getPieceMask(1, ChessPiece.ROOK));
+        assertEquals(2, testBoard.checkOccupied(1, 2, 5));
+        testBoard.deleteChessPiece(2, 5);
+        assertEquals(0L, bitBoard.getOccupied());
+        assertEquals(0, testBoard.checkOccupied(1, 2, 5));
+    }
+
+    /**
+     * Tests if default setup is reflected on masks.
+     */
+    public void testDefaultSetup() {
+        ChessBoard board = new ChessBoard(BOARD_ROWS, BOARD_COLUMNS, true);
+        BitBoard bitBoard = board.getBitBoard();
+        assertEquals(0xFFFFL, bitBoard.getSideMask(0));
+        assertEquals(0xFFFFL << 48, bitBoard.getSideMask(1));
+        assertEquals((1L << 1) | (1L << 6), bitBoard.getPieceMask(0, ChessPiece.LEAPER));
+        assertEquals(1L << 59, bitBoard.getPieceMask(1, ChessPiece.CHARGER));
+        assertNull(new ChessBoard(10, 10, false).getBitBoard());
+    }
+
+    /**
+     * Tests if attacks of custom pieces are detected on masks.
+     */
+    public void testCustomPieceAttackers() {
+        testBoardSetup();
+        ChessPiece testBlackKing = new King(0, 0, 4, 4);
+        ChessPiece testWhiteLeaper = new Leaper(1, 0, 4, 6);
+        ChessPiece testWhiteCharger = new Charger(1, 0, 0, 0);
+        ChessPiece testBlackPawn = new Pawn(0, 0, 4, 5);
+        testBoard.setChessPiece(testBlackKing, 4, 4);
+        testBoard.setChessPiece(testWhiteLeaper, 4, 6);
+        testBoard.setChessPiece(testWhiteCharger, 0, 0);
+        testBoard.setChessPiece(testBlackPawn, 4, 5);
+        // Leaper leaps over pawn, charger captures on diagonal
+        List<ChessPiece> attackerList = testBoard.checkIfCheck(0);
+        assertEquals(2, attackerList.size());
+        assertEquals(testWhiteCharger, attackerList.get(0));
+        assertEquals(testWhiteLeaper, attackerList.get(1));
+        assertTrue(testBoard.isInCheck(0));
+        // Blocking charger's path leaves only leaper
+        testBoard.setChessPiece(new Pawn(0, 1, 2, 2), 2, 2);
+        attackerList = testBoard.checkIfCheck(0);
+        assertEquals(1, attackerList.size());
+        assertEquals(testWhiteLeaper, attackerList.get(0));
+    }
+
+    /**
+     * Tests if magic lookups give same attacks as walking rays, and cache file of magic numbers is written.
+     */
+    public void testMagicAttacks() {
+        Random random = new Random(7);
+        for(int trial = 0; trial < 2000; trial++) {
+            int square = random.nextInt(64);
+            long occupied = random.nextLong() & random.nextLong();
+            long rookAttacks = MagicTables.walkAttacks(square, occupied, true);
+            long bishopAttacks = MagicTables.walkAttacks(square, occupied, false);
+            assertEquals(rookAttacks, BitBoard.getRookAttacks(square, occupied));
+            assertEquals(bishopAttacks, BitBoard.getBishopAttacks(square, occupied));
+            assertEquals(rookAttacks | bishopAttacks, BitBoard.getQueenAttacks(square, occupied));
+        }
+        assertTrue(MagicTables.isCacheLoaded() || MagicTables.getSearchedCount() > 0);
+        String fileName = System.getProperty(MagicTables.CACHE_PROPERTY);
+        File cacheFile = fileName == null ? new File(System.getProperty("java.io.tmpdir"), "chess_magics.bin") : new File(fileName);
+        assertTrue(cacheFile.isFile());
+    }
+
+    /**
+     * Tests if first blocker and Charger stops found on masks match the board.
+     */
+    public void testBlockerAndChargerStop() {
+        testBoardSetup();
+        testBoard.setChessPiece(new Charger(1, 0, 3, 3), 3, 3);
+        testBoard.setChessPiece(new Pawn(1, 0, 6, 3), 6, 3);
+        testBoard.setChessPiece(new Pawn(1, 1, 4, 4), 4, 4);
+        testBoard.setChessPiece(new Rook(0, 0, 3, 0), 3, 0);
+        BitBoard bitBoard = testBoard.getBitBoard();
+        int square = 3 * 8 + 3;
+        // East: ally pawn 3 cells away, stop right before it
+        assertEquals(3 * 8 + 6, bitBoard.getFirstBlocker(square, BitBoard.EAST));
+        assertEquals(3 * 8 + 5, bitBoard.getChargerStop(1, square, BitBoard.EAST));
+        // South-east: adjacent ally, no move
+        assertEquals(MoveTables.NONE, bitBoard.getChargerStop(1, square, BitBoard.SOUTH_EAST));
+        // North: enemy rook captured
+        assertEquals(3, bitBoard.getChargerStop(1, square, BitBoard.NORTH));
+        // West and south: border
+        assertEquals(MoveTables.NONE, bitBoard.getFirstBlocker(square, BitBoard.WEST));
+        assertEquals(3 * 8, bitBoard.getChargerStop(1, square, BitBoard.WEST));
+        assertEquals(7 * 8 + 3, bitBoard.getChargerStop(1, square, BitBoard.SOUTH));
+        assertEquals(0, bitBoard.getChargerStop(1, square, BitBoard.NORTH_WEST));
+        assertEquals(7, testBoard.getMoves(testBoard.getChessPiece(3, 3)).size());
+    }
+}
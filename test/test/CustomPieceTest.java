@@ -1,8 +1,12 @@
 package test;
 
 import ChessLibrary.ChessBoard;
+import ChessLibrary.MoveGenerator;
+import ChessLibrary.MoveGenerators;
+import ChessLibrary.MovesListCreator;
 import ChessLibrary.Pieces.*;
 import ChessLibrary.Util.IntPair;
+import ChessLibrary.Util.MoveBuffer;
 import junit.framework.TestCase;
 
 import java.util.List;
@@ -96,4 +100,34 @@ public class CustomPieceTest extends TestCase {
         assertEquals(0, movesList.get(0).left());
         assertEquals(2, movesList.get(0).right());
     }
+
+    /**
+     * Tests if generator registered for a piece type is used by boards created after registering.
+     */
+    public void testRegisteredGenerator() {
+        MoveGenerator original = MoveGenerators.get(ChessPiece.LEAPER);
+        try {
+            // Leaper moving like a Rook instead
+            MoveGenerators.register(ChessPiece.LEAPER, new MoveGenerator() {
+                @Override
+                public void addMoves(MovesListCreator creator, ChessPiece piece, MoveBuffer buffer) {
+                    creator.addSlidingMoves(piece, buffer, new int[] {0, 3, 6, 7});
+                }
+            });
+            testBoardSetup();
+            List<IntPair> movesList = testBoard.getMoves(testBoard.getChessPieceById("1l0"));
+            assertEquals(1, movesList.size());
+            assertEquals(0, movesList.get(0).left());
+            assertEquals(1, movesList.get(0).right());
+        } finally {
+            MoveGenerators.register(ChessPiece.LEAPER, original);
+        }
+        testBoardSetup();
+        assertEquals(2, testBoard.getMoves(testBoard.getChessPieceById("1l0")).get(0).right());
+        try {
+            MoveGenerators.register(ChessPiece.TYPE_COUNT, original);
+            fail("Exception should have been thrown");
+        } catch(IllegalArgumentException e) {
+        }
+    }
 }
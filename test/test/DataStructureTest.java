@@ -1,12 +1,22 @@
 package test;
 
 import ChessLibrary.*;
+import ChessLibrary.Pieces.Bishop;
 import ChessLibrary.Pieces.ChessPiece;
 import ChessLibrary.Pieces.King;
+import ChessLibrary.Pieces.Queen;
 import ChessLibrary.Pieces.Rook;
+import ChessLibrary.Util.CellMap;
+import ChessLibrary.Util.IntIntMap;
+import ChessLibrary.Util.MoveBuffer;
 import ChessLibrary.Util.IntPair;
 import junit.framework.TestCase;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
 /**
  * Test Class to check data structure related functions of ChessLibrary.
  */
@@ -75,6 +85,152 @@ public class DataStructureTest extends TestCase {
         assertNull(answerPiece);
     }
 
+    /**
+     * Tests if identifier index is updated by deleteChessPiece and overwriting setChessPiece.
+     */
+    public void testGetChessPieceByIdAfterUpdate() throws Exception {
+        testBoardSetup();
+        ChessPiece testRook = testBoard.getChessPieceById("1r0");
+        testBoard.deleteChessPiece(7, 7);
+        assertNull(testBoard.getChessPieceById("1r0"));
+        testBoard.setChessPiece(testRook, 7, 3); // captures black king
+        assertEquals(testRook, testBoard.getChessPieceById("1r0"));
+        assertNull(testBoard.getChessPieceById("0K0"));
+        testBoard.clearChessBoard();
+        assertNull(testBoard.getChessPieceById("1r0"));
+    }
+
+    /**
+     * Tests if piece codes convert to and from identifiers, and if cell codes follow pieces on board.
+     */
+    public void testPieceCode() throws Exception {
+        testBoardSetup();
+        ChessPiece testRook = testBoard.getChessPieceById("1r0");
+        assertEquals(ChessPiece.toCode(1, ChessPiece.ROOK, 0), testRook.getCode());
+        assertSame(testRook, testBoard.getChessPieceByCode(testRook.getCode()));
+        assertEquals("0p12", ChessPiece.toIdentifier(ChessPiece.toCode("0p12")));
+        assertEquals(12, new Rook(0, 12, 0, 0).getOrdinal());
+        assertEquals(-1, ChessPiece.toCode("2p0"));
+        assertEquals(-1, ChessPiece.toCode("0x0"));
+        assertEquals(-1, ChessPiece.toCode("0p"));
+        // Pieces setting String identifier still get matching code
+        ChessPiece namedPiece = new ChessPiece() {
+            {
+                setIdentifier("1b3");
+            }
+        };
+        assertEquals(ChessPiece.toCode(1, ChessPiece.BISHOP, 3), namedPiece.getCode());
+        assertEquals(ChessPiece.CHARGER, ChessPiece.create(ChessPiece.CHARGER, 0, 0, 0, 0).getType());
+        try {
+            ChessPiece.create(ChessPiece.TYPE_COUNT, 0, 0, 0, 0);
+            fail("Exception should have been thrown");
+        } catch(IllegalArgumentException e) {
+        }
+        assertEquals(ChessPiece.TYPE_COUNT + ChessPiece.ROOK + 1, testBoard.getCellCode(7, 7));
+        testBoard.makeMove(7, 7, 7, 3); // captures black king
+        assertEquals(0, testBoard.getCellCode(7, 7));
+        assertEquals(ChessPiece.TYPE_COUNT + ChessPiece.ROOK + 1, testBoard.getCellCode(7, 3));
+        assertEquals(ChessPiece.KING + 1, new ChessBoard(BOARD_ROWS, BOARD_COLUMNS, false).getCellCode(4, 0));
+    }
+
+    /**
+     * Tests if piece lists follow pieces on a large board, listing cells in row order.
+     */
+    public void testPieceSquares() throws Exception {
+        ChessBoard largeBoard = new ChessBoard(64, 64);
+        largeBoard.setChessPiece(new King(0, 0, 40, 60), 40, 60);
+        largeBoard.setChessPiece(new Rook(1, 0, 3, 2), 3, 2);
+        largeBoard.setChessPiece(new King(1, 0, 0, 0), 0, 0);
+        assertEquals(1, largeBoard.getPieceCount(0));
+        assertEquals(2, largeBoard.getPieceCount(1));
+        int[] squares = largeBoard.getPieceSquares(1, new int[0]);
+        assertEquals(0, squares[0]);
+        assertEquals(2 * 64 + 3, squares[1]);
+        // Rook captures King, then moves back on undo
+        long record = largeBoard.makeMove(3, 2, 40, 60);
+        assertEquals(0, largeBoard.getPieceCount(0));
+        squares = largeBoard.getPieceSquares(1, squares);
+        assertEquals(60 * 64 + 40, squares[1]);
+        largeBoard.unmakeMove(record);
+        assertEquals(1, largeBoard.getPieceCount(0));
+        assertEquals(2 * 64 + 3, largeBoard.getPieceSquares(1, squares)[1]);
+        assertEquals(60 * 64 + 40, largeBoard.getPieceSquares(0, squares)[0]);
+        // King moving past Rook keeps row order, and pieces are still found on their cells
+        record = largeBoard.makeMove(0, 0, 50, 50);
+        squares = largeBoard.getPieceSquares(1, squares);
+        assertEquals(2 * 64 + 3, squares[0]);
+        assertEquals(50 * 64 + 50, squares[1]);
+        assertEquals(ChessPiece.KING, largeBoard.getChessPiece(50, 50).getType());
+        assertEquals(ChessPiece.ROOK, largeBoard.getChessPiece(3, 2).getType());
+        largeBoard.unmakeMove(record);
+        assertEquals(0, largeBoard.getPieceSquares(1, squares)[0]);
+        largeBoard.clearChessBoard();
+        assertEquals(0, largeBoard.getPieceCount(1));
+    }
+
+    /**
+     * Tests if a board far larger than CellMap.DENSE_LIMIT keeps checks, pins, cached moves and hash
+     * while holding only its few pieces.
+     */
+    public void testSparseBoard() throws Exception {
+        assertFalse(CellMap.isDense(2000 * 2000));
+        CellMap cells = new CellMap(2000 * 2000);
+        cells.put(1999 * 2000, 5);
+        assertEquals(4, cells.add(1999 * 2000, -1));
+        assertEquals(0, cells.get(0));
+        ChessBoard sparseBoard = new ChessBoard(2000, 2000);
+        sparseBoard.setPieceMovesCache(true);
+        sparseBoard.setChessPiece(new King(1, 0, 0, 1), 0, 1);
+        sparseBoard.setChessPiece(new Queen(1, 0, 1000, 1000), 1000, 1000);
+        sparseBoard.setChessPiece(new King(0, 0, 1999, 1999), 1999, 1999);
+        sparseBoard.setChessPiece(new Bishop(0, 0, 1998, 1998), 1998, 1998);
+        long hash = sparseBoard.hash();
+        // Bishop is pinned to its King by the Queen, so it may only move along the diagonal up to the Queen
+        assertFalse(sparseBoard.isInCheck(0));
+        assertTrue(sparseBoard.isAttacked(0, 0, 1));
+        assertTrue(sparseBoard.isAttacked(1998, 1998, 1));
+        assertFalse(sparseBoard.isAttacked(1999, 1999, 1));
+        MoveBuffer buffer = new MoveBuffer();
+        sparseBoard.getLegalMoves(0, buffer);
+        assertEquals(998 + 2, buffer.size());
+        assertTrue(sparseBoard.getLegalMovesCreator().isPinned(1998 * 2000 + 1998));
+        // Bishop leaves the diagonal of its King only after the Queen is captured
+        long record = sparseBoard.makeMove(1998, 1998, 1000, 1000);
+        assertEquals(1, sparseBoard.getPieceCount(1));
+        assertFalse(sparseBoard.isAttacked(1999, 1999, 1));
+        buffer.clear();
+        sparseBoard.getLegalMoves(sparseBoard.getChessPiece(1000, 1000), buffer);
+        assertEquals(1000 + 998 + 999 + 999, buffer.size());
+        sparseBoard.unmakeMove(record);
+        assertEquals(hash, sparseBoard.hash());
+        buffer.clear();
+        sparseBoard.getLegalMoves(sparseBoard.getChessPiece(1998, 1998), buffer);
+        assertEquals(998, buffer.size());
+        // Queen checks along the row once Bishop is gone and King stands in the row of the Queen
+        sparseBoard.deleteChessPiece(1998, 1998);
+        sparseBoard.makeMove(1999, 1999, 1999, 1000);
+        assertTrue(sparseBoard.isInCheck(0));
+        sparseBoard.clearChessBoard();
+        assertEquals(0, sparseBoard.getCellCode(1000, 1000));
+        assertFalse(sparseBoard.isAttacked(0, 0, 1));
+    }
+
+    /**
+     * Tests if getKing method follows King of each side.
+     */
+    public void testGetKing() throws Exception {
+        testBoardSetup();
+        assertEquals("0K0", testBoard.getKing(0).getIdentifier());
+        assertEquals("1K0", testBoard.getKing(1).getIdentifier());
+        ChessPiece whiteKing = testBoard.getKing(1);
+        testBoard.deleteChessPiece(5, 3);
+        testBoard.setChessPiece(whiteKing, 4, 4);
+        assertEquals(whiteKing, testBoard.getKing(1));
+        assertEquals(4, testBoard.getKing(1).getPosition().left());
+        testBoard.deleteChessPiece(4, 4);
+        assertNull(testBoard.getKing(1));
+    }
+
     /**
      * Tests if setChessPiece method modifies ChessBoard as intended.
      */
@@ -89,6 +245,96 @@ public class DataStructureTest extends TestCase {
         assertEquals(7, answerPiece.getPosition().right());
     }
 
+    /**
+     * Tests if unmakeMove restores board changed by makeMove, including captured piece.
+     */
+    public void testMakeUnmakeMove() throws Exception {
+        testBoardSetup();
+        ChessPiece capturedKing = testBoard.getChessPiece(7, 3);
+        long record = testBoard.makeMove(7, 7, 7, 3);
+        assertEquals("1r0", testBoard.getChessPiece(7, 3).getIdentifier());
+        assertNull(testBoard.getChessPiece(7, 7));
+        assertNull(testBoard.getChessPieceById("0K0"));
+        assertNull(testBoard.getKing(0));
+        testBoard.unmakeMove(record);
+        assertEquals(capturedKing, testBoard.getChessPiece(7, 3));
+        assertEquals(capturedKing, testBoard.getKing(0));
+        assertEquals("1r0", testBoard.getChessPiece(7, 7).getIdentifier());
+        assertEquals(7, testBoard.getChessPiece(7, 7).getPosition().right());
+        // Moving King updates King cell, moving Rook away updates check status
+        record = testBoard.makeMove(7, 3, 7, 2);
+        assertEquals(2, testBoard.getKing(0).getPosition().right());
+        testBoard.unmakeMove(record);
+        assertTrue(testBoard.isInCheck(0));
+        record = testBoard.makeMove(7, 7, 0, 7);
+        assertFalse(testBoard.isInCheck(0));
+        testBoard.unmakeMove(record);
+        assertTrue(testBoard.isInCheck(0));
+        // Clearing the board forgets captured pieces, so numbering of captured pieces starts over
+        ChessPiece rook = testBoard.getChessPiece(7, 7);
+        long firstRecord = testBoard.createUndoRecord(0, 0, 1, 1, capturedKing);
+        assertFalse(firstRecord == testBoard.createUndoRecord(0, 0, 1, 1, rook));
+        testBoard.clearChessBoard();
+        assertEquals(firstRecord, testBoard.createUndoRecord(0, 0, 1, 1, rook));
+    }
+
+    /**
+     * Tests if copy of ChessBoard has copies of pieces and can be changed independently.
+     */
+    public void testCopyChessBoard() throws Exception {
+        testBoardSetup();
+        ChessBoard copyBoard = new ChessBoard(testBoard);
+        ChessPiece copyRook = copyBoard.getChessPieceById("1r0");
+        assertNotSame(testBoard.getChessPieceById("1r0"), copyRook);
+        assertEquals(7, copyRook.getPosition().left());
+        assertTrue(copyBoard.isInCheck(0));
+        copyBoard.makeMove(7, 7, 0, 7);
+        assertFalse(copyBoard.isInCheck(0));
+        assertTrue(testBoard.isInCheck(0));
+        assertEquals("1r0", testBoard.getChessPiece(7, 7).getIdentifier());
+        assertEquals(7, testBoard.getChessPieceById("1r0").getPosition().left());
+    }
+
+    /**
+     * Tests if hash is updated incrementally to same value as a board set up from scratch.
+     */
+    public void testZobristHash() throws Exception {
+        ChessBoard standardBoard = new ChessBoard(8, 8, false);
+        long startHash = standardBoard.hash();
+        assertEquals(startHash, new ChessBoard(8, 8, false).hash());
+        assertFalse(startHash == new ChessBoard(8, 8, true).hash());
+        // Knights going out and back return to same position
+        long record = standardBoard.makeMove(6, 7, 5, 5);
+        assertFalse(startHash == standardBoard.hash());
+        assertEquals(0, standardBoard.getSideToMove());
+        standardBoard.unmakeMove(record);
+        assertEquals(startHash, standardBoard.hash());
+        standardBoard.makeMove(6, 7, 5, 5);
+        standardBoard.makeMove(6, 0, 5, 2);
+        standardBoard.makeMove(5, 5, 6, 7);
+        long sameSideHash = standardBoard.hash();
+        standardBoard.makeMove(5, 2, 6, 0);
+        assertEquals(startHash, standardBoard.hash());
+        // Same pieces with other side to move differ
+        standardBoard.setSideToMove(0);
+        assertFalse(startHash == standardBoard.hash());
+        // Captures, deleting and setting pieces
+        testBoardSetup();
+        ChessBoard copyBoard = new ChessBoard(testBoard);
+        assertEquals(testBoard.hash(), copyBoard.hash());
+        long beforeCapture = testBoard.hash();
+        record = testBoard.makeMove(7, 7, 7, 3);
+        ChessPiece rook = testBoard.getChessPiece(7, 3);
+        copyBoard.deleteChessPiece(7, 7);
+        copyBoard.deleteChessPiece(7, 3);
+        copyBoard.setChessPiece(rook.copy(), 7, 3);
+        copyBoard.setSideToMove(0);
+        assertEquals(copyBoard.hash(), testBoard.hash());
+        testBoard.unmakeMove(record);
+        assertEquals(beforeCapture, testBoard.hash());
+        assertFalse(sameSideHash == beforeCapture);
+    }
+
     /**
      * Tests if calling setNullChessPiece with null ChessPiece throws NullPointerException.
      */
@@ -113,4 +359,46 @@ public class DataStructureTest extends TestCase {
         assertTrue(testPair1.equals(testPair2));
         assertFalse(testPair1.equals(testPair3));
     }
+
+    /**
+     * Tests if IntPair works as hash key, and if positions of pieces are shared pairs.
+     */
+    public void testIntPairShared() throws Exception {
+        testBoardSetup();
+        Object testPair = new IntPair(7, 7);
+        assertTrue(testPair.equals(IntPair.of(7, 7)));
+        assertEquals(testPair.hashCode(), IntPair.of(7, 7).hashCode());
+        assertTrue(new HashSet<>(Arrays.asList(IntPair.of(7, 7))).contains(testPair));
+        ChessPiece testRook = testBoard.getChessPiece(7, 7);
+        assertSame(IntPair.of(7, 7), testRook.getPosition());
+        assertSame(testRook.getPosition(), testRook.getPosition());
+        assertEquals(IntPair.of(100, 1), IntPair.of(100, 1));
+    }
+
+    /**
+     * Tests if IntIntMap gives same values as HashMap through random puts and removes, growing past its capacity.
+     */
+    public void testIntIntMap() {
+        IntIntMap testMap = new IntIntMap(4);
+        HashMap<Integer, Integer> expectedMap = new HashMap<>();
+        Random random = new Random(7);
+        for(int count = 0; count < 20000; count++) {
+            int key = random.nextInt(300);
+            if(random.nextInt(3) == 0) {
+                testMap.remove(key);
+                expectedMap.remove(key);
+            } else {
+                testMap.put(key, count);
+                expectedMap.put(key, count);
+            }
+        }
+        assertEquals(expectedMap.size(), testMap.size());
+        for(int key = 0; key < 300; key++) {
+            assertEquals(expectedMap.containsKey(key), testMap.containsKey(key));
+            assertEquals(expectedMap.containsKey(key) ? expectedMap.get(key) : -1, testMap.get(key, -1));
+        }
+        testMap.clear();
+        assertEquals(0, testMap.size());
+        assertEquals(-1, testMap.get(0, -1));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package test;
+
+import ChessLibrary.Engine.Engine;
+import ChessLibrary.Game;
+import ChessLibrary.Perft.Position;
+import ChessLibrary.Util.IntPair;
+import ChessLibrary.Util.Move;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * Tests search of ChessLibrary.Engine.Engine.
+ */
+public class EngineTest extends TestCase {
+    /**
+     * Tests if engine finds mate in one and leaves board unchanged.
+     */
+    public void testMateInOne() {
+        Game testGame = Position.parse("6k1/5ppp/8/8/8/8/8/R5K1 w");
+        Engine engine = new Engine();
+        long move = engine.bestMove(testGame, 5000, 3);
+        assertEquals("a1a8", toNotation(move));
+        assertEquals(Engine.MATE_SCORE - 1, engine.getLastScore());
+        assertEquals("6k1/5ppp/8/8/8/8/8/R5K1 w", Position.toString(testGame));
+    }
+
+    /**
+     * Tests if engine captures hanging piece and avoids losing exchange.
+     */
+    public void testCaptures() {
+        Engine engine = new Engine();
+        Game hangingGame = Position.parse("4k3/8/8/3q4/8/8/3R4/4K3 w");
+        assertEquals("d2d5", toNotation(engine.bestMove(hangingGame, 5000, 4)));
+        // Pawn protects the queen, so rook should not take it
+        Game protectedGame = Position.parse("4k3/8/2p5/3n4/8/8/3R4/4K3 w");
+        assertFalse("d2d5".equals(toNotation(engine.bestMove(protectedGame, 5000, 4))));
+    }
+
+    /**
+     * Tests if engine returns no move when side to move is checkmated or stalemated.
+     */
+    public void testNoLegalMove() {
+        Engine engine = new Engine();
+        Game mateGame = Position.parse("R5k1/5ppp/8/8/8/8/8/6K1 b");
+        assertEquals(Engine.NO_MOVE, engine.bestMove(mateGame, 1000));
+        assertEquals(-Engine.MATE_SCORE, engine.getLastScore());
+        Game staleGame = Position.parse("k7/2Q5/1K6/8/8/8/8/8 b");
+        assertEquals(Engine.NO_MOVE, engine.bestMove(staleGame, 1000));
+        assertEquals(0, engine.getLastScore());
+    }
+
+    /**
+     * Tests if engine plays legal moves with custom pieces under time limit.
+     */
+    public void testCustomPieces() {
+        Game testGame = new Game(8, 8, true);
+        Engine engine = new Engine();
+        for(int turn = 0; turn < 4; turn++) {
+            long start = System.currentTimeMillis();
+            long move = engine.bestMove(testGame, 200);
+            assertTrue(System.currentTimeMillis() - start < 2000);
+            assertTrue(engine.getLastDepth() >= 1);
+            int from = Move.getFrom(move);
+            int to = Move.getTo(move);
+            String id = testGame.getBoard().getChessPiece(from % 8, from / 8).getIdentifier();
+            List<IntPair> movesList = testGame.getMovesInterface(id);
+            int entry = -1;
+            for(int count = 0; count < movesList.size(); count++) {
+                if(movesList.get(count).equals(new IntPair(to % 8, to / 8))) {
+                    entry = count;
+                }
+            }
+            assertTrue(entry >= 0);
+            testGame.movePieceInterface(entry, movesList, id);
+            testGame.nextTurn();
+        }
+    }
+
+    /**
+     * Helper function to write packed move on 8x8 board in algebraic notation.
+     */
+    private String toNotation(long move) {
+        int from = Move.getFrom(move);
+        int to = Move.getTo(move);
+        return Position.toNotation(from % 8, from / 8, 8) + Position.toNotation(to % 8, to / 8, 8);
+    }
+}
@@ -132,4 +132,94 @@ public class GameTest extends TestCase {
         assertEquals(3, testGame.getCheckStatus());
         assertEquals(2, testGame.checkGameEnd());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests if status is evaluated once for each turn and re-evaluated after the board changes.
+     */
+    public void testStatusCache() {
+        testGameSetup();
+        GameStatus status = testGame.getStatus();
+        assertEquals(GameStatus.NONE, status.getStatus());
+        assertEquals(20, status.getLegalMoveCount());
+        assertSame(status, testGame.getStatus());
+        List<IntPair> movesList = testGame.getMovesInterface("1p4");
+        testGame.movePieceInterface(1, movesList, "1p4");
+        testGame.nextTurn();
+        GameStatus nextStatus = testGame.getStatus();
+        assertNotSame(status, nextStatus);
+        assertEquals(0, nextStatus.getSide());
+        assertEquals(20, nextStatus.getLegalMoveCount());
+        assertTrue(nextStatus.getAttackers().isEmpty());
+    }
+
+    /**
+     * Tests if cached moves are same as created moves, and follow changes of the board made outside the game.
+     */
+    public void testMovesCache() {
+        testGameSetup();
+        List<IntPair> movesList = testGame.getMovesInterface("1r0");
+        assertNull(movesList);
+        movesList = testGame.getMovesInterface("1k0");
+        assertEquals(2, movesList.size());
+        assertNotSame(movesList, testGame.getMovesInterface("1k0"));
+        // Removing pawn in front of rook frees its path
+        testGame.getBoard().deleteChessPiece(0, 6);
+        assertEquals(6, testGame.getMovesInterface("1r0").size());
+        // Same moves without background precompute
+        Game otherGame = new Game(BOARD_ROWS, BOARD_COLUMNS, false);
+        otherGame.setPrecompute(false);
+        otherGame.movePieceInterface(0, otherGame.getMovesInterface("1p4"), "1p4");
+        otherGame.nextTurn();
+        testGame.getBoard().setChessPiece(new ChessLibrary.Pieces.Pawn(1, 0, 0, 6), 0, 6);
+        testGame.movePieceInterface(0, testGame.getMovesInterface("1p4"), "1p4");
+        testGame.nextTurn();
+        List<IntPair> otherList = otherGame.getMovesInterface("0k1");
+        movesList = testGame.getMovesInterface("0k1");
+        assertEquals(2, otherList.size());
+        assertEquals(otherList.size(), movesList.size());
+        for(int count = 0; count < movesList.size(); count++) {
+            assertTrue(otherList.get(count).equals(movesList.get(count)));
+        }
+        // Only boards created by the game keep moves of each piece
+        assertNotNull(otherGame.getBoard().getPieceMovesCache());
+        assertNull(new Game(1, new ChessBoard(BOARD_ROWS, BOARD_COLUMNS, false)).getBoard().getPieceMovesCache());
+    }
+
+    /**
+     * Tests if snapshots keep position of their version while game goes on, and can be read on another thread.
+     */
+    public void testSnapshot() throws Exception {
+        testGameSetup();
+        BoardSnapshot snapshot = testGame.getSnapshot();
+        assertEquals(snapshot.getVersion(), testGame.getVersion());
+        assertEquals(1, snapshot.getTurn());
+        assertEquals("1p4", snapshot.getIdentifier(4, 6));
+        assertEquals(testGame.getBoard().hash(), snapshot.toBoard().hash());
+        testGame.movePieceInterface(0, testGame.getMovesInterface("1p4"), "1p4");
+        // Move is published together with new turn only
+        assertEquals(snapshot.getVersion(), testGame.getVersion());
+        testGame.nextTurn();
+        // Old snapshot is unchanged, newer one has the move
+        assertTrue(testGame.getVersion() > snapshot.getVersion());
+        assertEquals("1p4", snapshot.getIdentifier(4, 6));
+        assertEquals(0, testGame.getSnapshot().getCellCode(4, 6));
+        assertEquals(0, testGame.getSnapshot().getTurn());
+        // Reader thread sees a complete snapshot of latest version
+        final BoardSnapshot[] read = new BoardSnapshot[1];
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                read[0] = testGame.getSnapshot();
+            }
+        });
+        reader.start();
+        reader.join();
+        assertEquals(testGame.getVersion(), read[0].getVersion());
+        assertEquals(testGame.getBoard().hash(), read[0].toBoard().hash());
+        // Change made outside the game is still copied on next turn
+        testGame.getBoard().deleteChessPiece(0, 1);
+        testGame.nextTurn();
+        assertEquals(0, testGame.getSnapshot().getCellCode(0, 1));
+        assertEquals(testGame.getBoard().hash(), testGame.getSnapshot().toBoard().hash());
+    }
+}
@@ -0,0 +1,84 @@
+package test;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Game;
+import ChessLibrary.Perft.Position;
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.IntPair;
+import ChessLibrary.Util.Move;
+import ChessLibrary.Util.MoveBuffer;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * Tests legal moves created by ChessLibrary.LegalMovesCreator.
+ */
+public class LegalMovesTest extends TestCase {
+    /**
+     * Tests if pinned pieces only move along their pin line, including pins by Charger.
+     */
+    public void testPinnedPieces() {
+        Game testGame = Position.parse("k3c3/8/8/8/1b6/8/3NR3/4K3 w");
+        ChessBoard board = testGame.getBoard();
+        // Rook pinned by Charger moves up to the Charger
+        ChessPiece rook = board.getChessPiece(4, 6);
+        List<IntPair> movesList = testGame.getMovesInterface(rook.getIdentifier());
+        assertEquals(6, movesList.size());
+        for(int count = 0; count < movesList.size(); count++) {
+            assertEquals(4, movesList.get(count).left());
+        }
+        MoveBuffer buffer = new MoveBuffer();
+        board.getLegalMoves(rook, buffer);
+        assertEquals(6, buffer.size());
+        assertTrue(board.getLegalMovesCreator().isPinned(6 * 8 + 4));
+        // Knight pinned by Bishop cannot move, but still has possible moves
+        ChessPiece knight = board.getChessPiece(3, 6);
+        assertEquals(0, testGame.getMovesInterface(knight.getIdentifier()).size());
+        assertTrue(board.getLegalMovesCreator().isPinned(6 * 8 + 3));
+    }
+
+    /**
+     * Tests if check by Leaper can only be resolved by capture, and double check only by King moves.
+     */
+    public void testCheckByLeaper() {
+        ChessBoard board = Position.parse("k7/8/8/8/8/R3l3/8/4K3 w").getBoard();
+        MoveBuffer buffer = new MoveBuffer();
+        // Rook cannot block the leap, but can capture the Leaper
+        board.getLegalMoves(board.getChessPiece(0, 5), buffer);
+        assertEquals(1, buffer.size());
+        assertEquals(1, board.getLegalMovesCreator().getCheckerCount());
+        // Adding Rook on the first row makes double check
+        board = Position.parse("k7/8/8/8/8/R3l3/8/4K2r w").getBoard();
+        board.getLegalMoves(board.getChessPiece(0, 5), buffer);
+        assertEquals(0, buffer.size());
+        assertEquals(2, board.getLegalMovesCreator().getCheckerCount());
+        // King cannot step away along the Rook's line to d1, or to f1 attacked by the Rook
+        board.getLegalMoves(1, buffer);
+        assertEquals(3, buffer.size());
+        for(int count = 0; count < buffer.size(); count++) {
+            assertEquals(ChessPiece.KING, Move.getMovedType(buffer.get(count)));
+            assertEquals(6, Move.getTo(buffer.get(count)) / 8);
+        }
+        assertTrue(board.checkDefendAttack(1));
+    }
+
+    /**
+     * Tests if King moves are checked without changing the board, including cells behind King on checker's line.
+     */
+    public void testKingMovesReadOnly() {
+        ChessBoard board = Position.parse("k7/8/8/8/8/8/8/r3K3 w").getBoard();
+        long hash = board.hash();
+        ChessPiece king = board.getKing(1);
+        // f1 is attacked once King leaves e1, though Rook does not attack it now
+        assertFalse(board.isAttacked(5, 7, 0));
+        assertTrue(board.isAttackedWithout(5, 7, 0, 4, 7));
+        List<IntPair> movesList = board.getMoves(king);
+        assertEquals(3, movesList.size());
+        for(int count = 0; count < movesList.size(); count++) {
+            assertEquals(6, movesList.get(count).right());
+        }
+        assertEquals(hash, board.hash());
+        assertSame(king, board.getChessPiece(4, 7));
+    }
+}
@@ -0,0 +1,188 @@
+package test;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.LineIndex;
+import ChessLibrary.MoveTables;
+import ChessLibrary.PieceMovesCache;
+import ChessLibrary.Pieces.ChessPiece;
+import ChessLibrary.Util.IntPair;
+import ChessLibrary.Util.Move;
+import ChessLibrary.Util.MoveBuffer;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests packed moves, move buffers and move tables.
+ */
+public class MoveTest extends TestCase {
+    /**
+     * Tests if packed move gives back values it was created with.
+     */
+    public void testPackMove() {
+        long quietMove = Move.create(Move.MAX_CELLS - 1, 17, ChessPiece.CHARGER, -1);
+        assertEquals(Move.MAX_CELLS - 1, Move.getFrom(quietMove));
+        assertEquals(17, Move.getTo(quietMove));
+        assertEquals(ChessPiece.CHARGER, Move.getMovedType(quietMove));
+        assertEquals(-1, Move.getCapturedType(quietMove));
+        assertFalse(Move.isCapture(quietMove));
+        long capture = Move.create(0, Move.MAX_CELLS - 1, ChessPiece.KING, ChessPiece.CHARGER);
+        assertEquals(Move.MAX_CELLS - 1, Move.getTo(capture));
+        assertEquals(ChessPiece.CHARGER, Move.getCapturedType(capture));
+        assertTrue(Move.isCapture(capture));
+    }
+
+    /**
+     * Tests if packed moves of a piece match list of destinations.
+     */
+    public void testBufferMatchesList() {
+        ChessBoard testBoard = new ChessBoard(8, 8, false);
+        ChessPiece testKnight = testBoard.getChessPieceById("1k0");
+        List<IntPair> movesList = testBoard.getMoves(testKnight);
+        MoveBuffer buffer = new MoveBuffer(1);
+        testBoard.getMoves(testKnight, buffer);
+        assertEquals(movesList.size(), buffer.size());
+        for(int count = 0; count < buffer.size(); count++) {
+            long move = buffer.get(count);
+            assertEquals(7 * 8 + 1, Move.getFrom(move));
+            assertEquals(movesList.get(count).right() * 8 + movesList.get(count).left(), Move.getTo(move));
+            assertEquals(ChessPiece.KNIGHT, Move.getMovedType(move));
+        }
+        // Buffer is cleared before being filled again
+        testBoard.getMoves(testKnight, buffer);
+        assertEquals(movesList.size(), buffer.size());
+    }
+
+    /**
+     * Tests if moves on boards of more than 4096 cells reach far cells, and are made and reverted.
+     */
+    public void testLargeBoard() {
+        ChessBoard testBoard = new ChessBoard(100, 100);
+        ChessPiece testQueen = ChessPiece.create(ChessPiece.QUEEN, 1, 0, 0, 0);
+        testBoard.setChessPiece(testQueen, 0, 0);
+        testBoard.setChessPiece(ChessPiece.create(ChessPiece.ROOK, 0, 0, 99, 99), 99, 99);
+        MoveBuffer buffer = new MoveBuffer();
+        testBoard.getMoves(testQueen, buffer);
+        assertEquals(99 * 3, buffer.size());
+        long capture = 0;
+        for(int count = 0; count < buffer.size(); count++) {
+            if(Move.isCapture(buffer.get(count))) {
+                capture = buffer.get(count);
+            }
+        }
+        assertEquals(99 * 100 + 99, Move.getTo(capture));
+        long record = testBoard.makeMove(capture);
+        assertSame(testQueen, testBoard.getChessPiece(99, 99));
+        testBoard.unmakeMove(record);
+        assertSame(testQueen, testBoard.getChessPiece(0, 0));
+        assertEquals(ChessPiece.ROOK, testBoard.getChessPiece(99, 99).getType());
+    }
+
+    /**
+     * Tests if move tables are shared by boards of same size and list targets inside the board only.
+     */
+    public void testMoveTables() {
+        MoveTables tables = MoveTables.get(8, 8);
+        assertSame(tables, MoveTables.get(8, 8));
+        assertNotSame(tables, MoveTables.get(10, 8));
+        // Corner a8 (0, 0) and center d4 (3, 4)
+        assertEquals(3, tables.getKingTargets(0).length);
+        assertEquals(8, tables.getKingTargets(4 * 8 + 3).length);
+        assertEquals(2, tables.getKnightTargets(0).length);
+        assertEquals(8, tables.getKnightTargets(4 * 8 + 3).length);
+        // Leaper on (0, 0) steps East and South, and jumps 2 blocks in both
+        int[] steps = tables.getLeaperSteps(0);
+        int[] jumps = tables.getLeaperJumps(0);
+        assertEquals(2, steps.length);
+        assertEquals(1, steps[0]);
+        assertEquals(2, jumps[0]);
+        assertEquals(8, steps[1]);
+        assertEquals(16, jumps[1]);
+        // Leaper next to border has a step but no jump towards it
+        int[] borderSteps = tables.getLeaperSteps(6);
+        int[] borderJumps = tables.getLeaperJumps(6);
+        assertEquals(7, borderSteps[0]);
+        assertEquals(MoveTables.NONE, borderJumps[0]);
+        // Board keeps a single move creator
+        ChessBoard testBoard = new ChessBoard(8, 8, true);
+        assertSame(testBoard.getMovesCreator(), testBoard.getMovesCreator());
+    }
+
+    /**
+     * Tests if line index finds same first blocker as walking rays, on boards wider and taller than 64 cells.
+     */
+    public void testLineIndex() {
+        LineIndex lines = new LineIndex(3, 1000);
+        MoveTables tables = MoveTables.get(3, 1000);
+        boolean[] occupied = new boolean[3000];
+        Random random = new Random(7);
+        for(int count = 0; count < 40; count++) {
+            int square = random.nextInt(3000);
+            occupied[square] = true;
+            lines.add(square);
+        }
+        lines.remove(1500);
+        occupied[1500] = false;
+        for(int square = 0; square < 3000; square++) {
+            for(int direction = 0; direction < 8; direction++) {
+                int[] ray = tables.getRay(direction, square);
+                int expected = MoveTables.NONE;
+                for(int index = 0; index < ray.length && expected == MoveTables.NONE; index++) {
+                    if(occupied[ray[index]]) {
+                        expected = ray[index];
+                    }
+                }
+                assertEquals(expected, lines.findFirst(square, direction));
+            }
+        }
+        // 100 rows of a single column, towards S and N
+        lines = new LineIndex(100, 1);
+        lines.add(0);
+        lines.add(99);
+        assertEquals(99, lines.findFirst(1, 6));
+        assertEquals(0, lines.findFirst(70, 7));
+        assertEquals(MoveTables.NONE, lines.findFirst(99, 6));
+    }
+
+    /**
+     * Tests if kept moves are only dropped for pieces reaching cells changed by a move, and stay same as created moves.
+     */
+    public void testPieceMovesCache() {
+        ChessBoard testBoard = new ChessBoard(8, 8, false);
+        testBoard.setPieceMovesCache(true);
+        PieceMovesCache cache = testBoard.getPieceMovesCache();
+        MoveBuffer buffer = new MoveBuffer();
+        testBoard.getLegalMoves(1, buffer);
+        assertTrue(cache.isCached(7 * 8 + 1));
+        assertFalse(cache.isCached(7 * 8 + 4)); // King is never kept
+        // e2-e4 uncovers Bishop f1 and Queen d1, and frees a cell of Knight g1
+        long record = testBoard.makeMove(4, 6, 4, 4);
+        assertTrue(cache.isCached(7 * 8 + 1)); // Knight b1
+        assertTrue(cache.isCached(6 * 8 + 0)); // Pawn a2
+        assertFalse(cache.isCached(7 * 8 + 5));
+        assertFalse(cache.isCached(7 * 8 + 3));
+        assertFalse(cache.isCached(7 * 8 + 6));
+        ChessBoard copyBoard = new ChessBoard(testBoard);
+        MoveBuffer expected = new MoveBuffer();
+        testBoard.unmakeMove(record);
+        testBoard.getLegalMoves(1, buffer);
+        testBoard.makeMove(4, 6, 4, 4);
+        for(int index_y = 0; index_y < 8; index_y++) {
+            for(int index_x = 0; index_x < 8; index_x++) {
+                ChessPiece piece = testBoard.getChessPiece(index_x, index_y);
+                if(piece == null) {
+                    continue;
+                }
+                testBoard.getMoves(piece, buffer);
+                copyBoard.getMoves(copyBoard.getChessPiece(index_x, index_y), expected);
+                assertEquals(expected.size(), buffer.size());
+                for(int count = 0; count < buffer.size(); count++) {
+                    assertEquals(expected.get(count), buffer.get(count));
+                }
+            }
+        }
+        testBoard.clearChessBoard();
+        assertFalse(cache.isCached(7 * 8 + 1));
+    }
+}
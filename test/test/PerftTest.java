@@ -0,0 +1,89 @@
+package test;
+
+import ChessLibrary.ChessBoard;
+import ChessLibrary.Game;
+import ChessLibrary.Perft.ParallelPerft;
+import ChessLibrary.Perft.Perft;
+import ChessLibrary.Perft.Position;
+import junit.framework.TestCase;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests perft node counts and position text.
+ */
+public class PerftTest extends TestCase {
+    /**
+     * Tests node counts of default setups.
+     */
+    public void testDefaultSetups() {
+        Perft standard = new Perft(new Game(8, 8, false));
+        assertEquals(20, standard.count(1));
+        assertEquals(400, standard.count(2));
+        assertEquals(8902, standard.count(3));
+        Perft custom = new Perft(new Game(8, 8, true));
+        assertEquals(16, custom.count(1));
+        assertEquals(4642, custom.count(3));
+    }
+
+    /**
+     * Tests if parallel perft gives same counts as sequential perft.
+     */
+    public void testParallelCount() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Game testGame = Position.parse("rl2kb1r/pp1c1ppp/2p1p3/3pL3/3P4/2P1PC2/PP3PPP/RLB1KB1R w");
+            ParallelPerft parallelPerft = new ParallelPerft(testGame);
+            assertEquals(27, parallelPerft.count(1, pool));
+            assertEquals(17782, parallelPerft.count(3, pool));
+            assertEquals(new Perft(testGame).count(4), parallelPerft.count(4, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests if divide adds up to count and leaves board unchanged.
+     */
+    public void testDivide() {
+        Game testGame = Position.parse("standard");
+        Perft perft = new Perft(testGame);
+        Map<String, Long> result = perft.divide(3);
+        assertEquals(20, result.size());
+        assertEquals(Long.valueOf(600), result.get("e2e4"));
+        long nodes = 0;
+        for(long count : result.values()) {
+            nodes += count;
+        }
+        assertEquals(8902, nodes);
+        assertEquals(Position.STANDARD, Position.toString(testGame));
+    }
+
+    /**
+     * Tests if position text gives same board as default setup.
+     */
+    public void testParsePosition() {
+        Game testGame = Position.parse(Position.CUSTOM);
+        ChessBoard defaultBoard = new ChessBoard(8, 8, true);
+        for(int index_y = 0; index_y < 8; index_y++) {
+            for(int index_x = 0; index_x < 8; index_x++) {
+                if(defaultBoard.getChessPiece(index_x, index_y) == null) {
+                    assertNull(testGame.getBoard().getChessPiece(index_x, index_y));
+                } else {
+                    assertEquals(defaultBoard.getChessPiece(index_x, index_y).getIdentifier(),
+                            testGame.getBoard().getChessPiece(index_x, index_y).getIdentifier());
+                }
+            }
+        }
+        Game blackGame = Position.parse("4k3/8/8/8/8/8/4R3/4K3 b");
+        assertEquals(0, blackGame.getTurn());
+        assertTrue(blackGame.getBoard().isInCheck(0));
+        assertEquals("4k3/8/8/8/8/8/4R3/4K3 b", Position.toString(blackGame));
+        try {
+            Position.parse("4k3/9/8 w");
+            fail("Exception should have been thrown");
+        } catch(IllegalArgumentException e) {
+        }
+    }
+}
@@ -67,4 +67,20 @@ public class StaleMateTest extends TestCase {
         testBoard3Setup();
         assertTrue(testBoard.checkStaleMate(0));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests if King without moves is not stalemate while another piece can still move.
+     */
+    public void testKingBlockedNotStaleMate() {
+        testBoardSetup();
+        ChessPiece testBlackPawn = new Pawn(0, 0, 0, 1);
+        testBoard.setChessPiece(testBlackPawn, 0, 1);
+        assertFalse(testBoard.checkStaleMate(0));
+        assertEquals(0, testBoard.checkCheckStatus(0));
+        assertEquals(2, testBoard.evaluateStatus(0).getLegalMoveCount());
+        // Blocking the pawn leaves no legal move
+        testBoard.setChessPiece(new Pawn(1, 0, 0, 2), 0, 2);
+        assertTrue(testBoard.checkStaleMate(0));
+        assertEquals(3, testBoard.checkCheckStatus(0));
+    }
+}
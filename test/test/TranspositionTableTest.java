@@ -0,0 +1,115 @@
+package test;
+
+import ChessLibrary.Engine.Engine;
+import ChessLibrary.Engine.TranspositionTable;
+import ChessLibrary.Game;
+import ChessLibrary.Perft.Position;
+import junit.framework.TestCase;
+
+/**
+ * Tests entries, replacement and concurrent use of ChessLibrary.Engine.TranspositionTable.
+ */
+public class TranspositionTableTest extends TestCase {
+    /**
+     * Tests if stored fields are read back, and size is bounded by megabytes.
+     */
+    public void testStoreProbe() {
+        TranspositionTable table = new TranspositionTable(1, TranspositionTable.REPLACE_ALWAYS);
+        assertEquals(32768, table.getCapacity());
+        long hash = 0x123456789ABCDEFL;
+        assertEquals(TranspositionTable.MISS, table.probe(hash));
+        table.store(hash, 0x00C0012345678ABCL, -Engine.MATE_SCORE + 3, 9, TranspositionTable.UPPER_BOUND);
+        long entry = table.probe(hash);
+        assertEquals(0x00C0012345678ABCL, table.probeMove(hash));
+        assertEquals(-Engine.MATE_SCORE + 3, TranspositionTable.getScore(entry));
+        assertEquals(9, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.getBound(entry));
+        // Same position keeps its move if new result has none
+        table.store(hash, 0, 42, 10, TranspositionTable.EXACT);
+        entry = table.probe(hash);
+        assertEquals(0x00C0012345678ABCL, table.probeMove(hash));
+        assertEquals(42, TranspositionTable.getScore(entry));
+        assertEquals(2, table.getHits());
+        assertEquals(1, table.getMisses());
+        assertEquals(2, table.getStores());
+    }
+
+    /**
+     * Tests replacement policies on two positions sharing a slot.
+     */
+    public void testReplacement() {
+        long first = 5;
+        long second = 5 + (1L << 40);
+        TranspositionTable depthTable = new TranspositionTable(1, TranspositionTable.REPLACE_DEPTH);
+        depthTable.store(first, 1, 10, 6, TranspositionTable.EXACT);
+        depthTable.store(second, 2, 20, 3, TranspositionTable.EXACT);
+        assertEquals(1, depthTable.probeMove(first));
+        assertEquals(TranspositionTable.MISS, depthTable.probe(second));
+        assertEquals(1, depthTable.getCollisions());
+        TranspositionTable agedTable = new TranspositionTable(1, TranspositionTable.REPLACE_AGED_DEPTH);
+        agedTable.store(first, 1, 10, 6, TranspositionTable.EXACT);
+        agedTable.store(second, 2, 20, 3, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.MISS, agedTable.probe(second));
+        agedTable.newSearch();
+        agedTable.store(second, 2, 20, 3, TranspositionTable.EXACT);
+        assertEquals(2, agedTable.probeMove(second));
+        TranspositionTable alwaysTable = new TranspositionTable(1, TranspositionTable.REPLACE_ALWAYS);
+        alwaysTable.store(first, 1, 10, 6, TranspositionTable.EXACT);
+        alwaysTable.store(second, 2, 20, 3, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.MISS, alwaysTable.probe(first));
+        try {
+            new TranspositionTable(0, TranspositionTable.REPLACE_ALWAYS);
+            fail("Exception should have been thrown");
+        } catch(IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Tests if concurrent writers never let a reader see data of another position.
+     */
+    public void testConcurrentWriters() throws Exception {
+        final TranspositionTable table = new TranspositionTable(1, TranspositionTable.REPLACE_ALWAYS);
+        final boolean[] corrupted = new boolean[1];
+        Thread[] threads = new Thread[4];
+        for(int count = 0; count < threads.length; count++) {
+            final int seed = count;
+            threads[count] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for(int index = 0; index < 200000; index++) {
+                        // Few slots, so threads keep overwriting each other
+                        long hash = ((long) (index * 31 + seed) << 32) | (index & 63);
+                        int score = (int) (hash >>> 32) & 0xFFFF;
+                        table.store(hash, ~hash, score, index & 63, TranspositionTable.EXACT);
+                        long entry = table.probe(hash);
+                        long move = table.probeMove(hash);
+                        if(entry != TranspositionTable.MISS && TranspositionTable.getScore(entry) != score) {
+                            corrupted[0] = true;
+                        }
+                        if(move != 0 && move != ~hash) {
+                            corrupted[0] = true;
+                        }
+                    }
+                }
+            });
+            threads[count].start();
+        }
+        for(int count = 0; count < threads.length; count++) {
+            threads[count].join();
+        }
+        assertFalse(corrupted[0]);
+    }
+
+    /**
+     * Tests if engine with shared table still finds mate, and table is used.
+     */
+    public void testEngineUsesTable() {
+        TranspositionTable table = new TranspositionTable(1, TranspositionTable.REPLACE_AGED_DEPTH);
+        Engine engine = new Engine(table);
+        Game testGame = Position.parse("6k1/5ppp/8/8/8/8/8/R5K1 w");
+        engine.bestMove(testGame, 5000, 3);
+        assertEquals(Engine.MATE_SCORE - 1, engine.getLastScore());
+        assertTrue(table.getStores() > 0);
+        assertSame(table, engine.getTranspositionTable());
+    }
+}